@@ -0,0 +1,155 @@
+package com.digitaltolk.translation.catalog;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Append-only store of UTF-8 strings in direct (off-heap) buffers. Each string is written once as a 4-byte length
+ * followed by its bytes and addressed by a {@code long} handle, so the heap only holds the handles. Space is never
+ * reclaimed in place: the owner {@link #release releases} strings it no longer references, and once enough of the
+ * arena is dead copies the live ones into a fresh arena and drops this one, see {@link ResidentCatalog}.
+ * <p>
+ * One writer at a time; readers may run concurrently with it as long as they only use handles that were handed to
+ * them through a happens-before edge, such as a lock.
+ */
+public class ContentArena {
+
+    static final int DEFAULT_CHUNK_SIZE = 4 * 1024 * 1024;
+    private static final byte[] HEX = "0123456789ABCDEF".getBytes(StandardCharsets.US_ASCII);
+
+    private final int chunkSize;
+    private volatile ByteBuffer[] chunks = new ByteBuffer[0];
+    private ByteBuffer current;
+    private long usedBytes;
+    private long deadBytes;
+
+    public ContentArena() {
+        this(DEFAULT_CHUNK_SIZE);
+    }
+
+    public ContentArena(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    public long append(String value) {
+        return append(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Appends a string already encoded as UTF-8.
+     */
+    public long append(byte[] bytes) {
+        int size = Integer.BYTES + bytes.length;
+        if (current == null || current.remaining() < size) {
+            current = ByteBuffer.allocateDirect(Math.max(chunkSize, size));
+            ByteBuffer[] grown = Arrays.copyOf(chunks, chunks.length + 1);
+            grown[grown.length - 1] = current;
+            chunks = grown;
+        }
+        long handle = ((long) (chunks.length - 1) << 32) | current.position();
+        current.putInt(bytes.length).put(bytes);
+        usedBytes += size;
+        return handle;
+    }
+
+    public String read(long handle) {
+        ByteBuffer chunk = chunks[(int) (handle >>> 32)];
+        int offset = (int) handle;
+        byte[] bytes = new byte[chunk.getInt(offset)];
+        chunk.get(offset + Integer.BYTES, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Whether the string behind the handle is exactly the given UTF-8 bytes, compared without decoding it.
+     */
+    public boolean contentEquals(long handle, byte[] bytes) {
+        ByteBuffer chunk = chunks[(int) (handle >>> 32)];
+        int offset = (int) handle;
+        return chunk.getInt(offset) == bytes.length
+            && chunk.slice(offset + Integer.BYTES, bytes.length).equals(ByteBuffer.wrap(bytes));
+    }
+
+    /**
+     * Copies the string behind the handle into another arena without decoding it, returning its handle there.
+     */
+    public long copyTo(long handle, ContentArena target) {
+        ByteBuffer chunk = chunks[(int) (handle >>> 32)];
+        int offset = (int) handle;
+        byte[] bytes = new byte[chunk.getInt(offset)];
+        chunk.get(offset + Integer.BYTES, bytes);
+        return target.append(bytes);
+    }
+
+    /**
+     * Counts the string behind the handle as dead space. Its bytes stay readable, for readers still holding the
+     * handle, until the arena is dropped.
+     */
+    public void release(long handle) {
+        deadBytes += Integer.BYTES + chunks[(int) (handle >>> 32)].getInt((int) handle);
+    }
+
+    /**
+     * Writes the string as the body of a JSON string literal, escaping straight from the arena bytes. Multi-byte
+     * UTF-8 sequences never contain bytes below 0x80, so only ASCII needs looking at.
+     */
+    public void writeJsonEscaped(long handle, OutputStream out, byte[] scratch) throws IOException {
+        ByteBuffer chunk = chunks[(int) (handle >>> 32)];
+        int offset = (int) handle;
+        int remaining = chunk.getInt(offset);
+        int position = offset + Integer.BYTES;
+        while (remaining > 0) {
+            int length = Math.min(remaining, scratch.length);
+            chunk.get(position, scratch, 0, length);
+            writeJsonEscaped(scratch, length, out);
+            position += length;
+            remaining -= length;
+        }
+    }
+
+    /**
+     * Off-heap bytes in use, including strings that have since been released.
+     */
+    public long usedBytes() {
+        return usedBytes;
+    }
+
+    /**
+     * Bytes of released strings, which a fresh arena holding only the live ones would not need.
+     */
+    public long deadBytes() {
+        return deadBytes;
+    }
+
+    static void writeJsonEscaped(byte[] bytes, int length, OutputStream out) throws IOException {
+        int start = 0;
+        for (int i = 0; i < length; i++) {
+            int b = bytes[i] & 0xFF;
+            if (b >= 0x20 && b != '"' && b != '\\') {
+                continue;
+            }
+            out.write(bytes, start, i - start);
+            start = i + 1;
+            out.write('\\');
+            switch (b) {
+                case '"', '\\' -> out.write(b);
+                case '\n' -> out.write('n');
+                case '\r' -> out.write('r');
+                case '\t' -> out.write('t');
+                case '\b' -> out.write('b');
+                case '\f' -> out.write('f');
+                default -> {
+                    out.write('u');
+                    out.write('0');
+                    out.write('0');
+                    out.write(HEX[b >> 4]);
+                    out.write(HEX[b & 0xF]);
+                }
+            }
+        }
+        out.write(bytes, start, length - start);
+    }
+}
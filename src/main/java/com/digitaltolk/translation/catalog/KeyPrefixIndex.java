@@ -0,0 +1,143 @@
+package com.digitaltolk.translation.catalog;
+
+import java.util.*;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Every distinct translation key, in a sorted set for prefix completion and in a tree of namespaces (the dot-separated
+ * segments before a key's last one) counting the keys below each, so a completion costs one seek plus the keys
+ * returned, and listing a namespace costs its child namespaces, however many keys they hold.
+ * <p>
+ * A key is counted under each of its namespaces: {@code navigation.menu.title} counts towards {@code navigation} and
+ * {@code navigation.menu}, and is a direct key of the latter.
+ */
+public class KeyPrefixIndex {
+
+    /**
+     * A namespace with the number of keys anywhere below it and directly in it.
+     */
+    public record Namespace(String name, int keyCount, int directKeyCount) {
+    }
+
+    private final StampedLock lock = new StampedLock();
+    private final NavigableSet<String> keys = new TreeSet<>();
+    private final Node root = new Node();
+
+    /**
+     * Adds the key; adding a key already present changes nothing.
+     */
+    public void add(String key) {
+        long stamp = lock.writeLock();
+        try {
+            if (!keys.add(key)) {
+                return;
+            }
+            Node node = root;
+            node.keyCount++;
+            for (String segment : namespaceSegments(key)) {
+                node = node.children.computeIfAbsent(segment, ignored -> new Node());
+                node.keyCount++;
+            }
+            node.directKeyCount++;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void remove(String key) {
+        long stamp = lock.writeLock();
+        try {
+            if (!keys.remove(key)) {
+                return;
+            }
+            Node node = root;
+            node.keyCount--;
+            for (String segment : namespaceSegments(key)) {
+                Node child = node.children.get(segment);
+                if (--child.keyCount == 0) {
+                    // Nothing is left below it, so nothing further down needs updating
+                    node.children.remove(segment);
+                    return;
+                }
+                node = child;
+            }
+            node.directKeyCount--;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public boolean contains(String key) {
+        long stamp = lock.readLock();
+        try {
+            return keys.contains(key);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} keys starting with {@code prefix}, in key order.
+     */
+    public List<String> complete(String prefix, int limit) {
+        long stamp = lock.readLock();
+        try {
+            List<String> completions = new ArrayList<>(Math.min(limit, 64));
+            for (String key : keys.tailSet(prefix, true)) {
+                if (completions.size() == limit || !key.startsWith(prefix)) {
+                    break;
+                }
+                completions.add(key);
+            }
+            return completions;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Returns the namespaces directly below {@code namespace}, or the top-level ones when it is empty, in name order;
+     * empty when no key lies below it.
+     */
+    public List<Namespace> children(String namespace) {
+        long stamp = lock.readLock();
+        try {
+            Node node = root;
+            if (!namespace.isEmpty()) {
+                for (String segment : namespace.split("\\.", -1)) {
+                    node = node.children.get(segment);
+                    if (node == null) {
+                        return List.of();
+                    }
+                }
+            }
+            List<Namespace> children = new ArrayList<>(node.children.size());
+            for (Map.Entry<String, Node> child : node.children.entrySet()) {
+                children.add(new Namespace(child.getKey(), child.getValue().keyCount, child.getValue().directKeyCount));
+            }
+            return children;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return keys.size();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private static String[] namespaceSegments(String key) {
+        int lastDot = key.lastIndexOf('.');
+        return lastDot < 0 ? new String[0] : key.substring(0, lastDot).split("\\.", -1);
+    }
+
+    private static class Node {
+        private final Map<String, Node> children = new TreeMap<>();
+        private int keyCount;
+        private int directKeyCount;
+    }
+}
@@ -0,0 +1,338 @@
+package com.digitaltolk.translation.catalog;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.locks.StampedLock;
+import java.util.stream.IntStream;
+
+/**
+ * Every (key, locale) → content entry held in memory. Keys are dictionary-encoded once into dense int ids through
+ * an open-addressing table, and each locale stores its contents in a plain array indexed by key id, so a lookup is
+ * one hash probe and one array read with no per-entry map nodes or boxed values. In off-heap mode the contents
+ * live as UTF-8 in a {@link ContentArena} and each locale only keeps a {@code long[]} of handles on the heap.
+ * Writing unchanged content leaves the arena alone; once replaced and removed contents make up more than half of it,
+ * and at least one chunk, the live contents are copied into a fresh arena and the old one is left to be collected.
+ * <p>
+ * The key dictionary is append-only: removing an entry clears its content but keeps the key id, which a full
+ * reload compacts away. Lookups run optimistically without locking and only retry under the read lock when a
+ * writer got in between.
+ */
+public class ResidentCatalog {
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    private final StampedLock lock = new StampedLock();
+    // Open-addressing table of key id + 1, 0 marks a free slot; kept at most half full
+    private int[] slots;
+    private String[] keys;
+    private int keyCount;
+    private volatile int[] sortedKeyIds;
+    // Heap mode keeps the contents, off-heap mode arena handles + 1 with 0 marking no content
+    private final Map<String, String[]> contentsByLocale = new HashMap<>();
+    private final Map<String, long[]> handlesByLocale = new HashMap<>();
+    private final int arenaChunkSize;
+    // Replaced as a whole when compacted, never rewritten, so readers may decode from the one they saw
+    private ContentArena arena;
+
+    public ResidentCatalog() {
+        this(INITIAL_CAPACITY, false);
+    }
+
+    public ResidentCatalog(int expectedKeys, boolean offHeap) {
+        this(expectedKeys, offHeap, ContentArena.DEFAULT_CHUNK_SIZE);
+    }
+
+    ResidentCatalog(int expectedKeys, boolean offHeap, int arenaChunkSize) {
+        int capacity = Integer.highestOneBit(Math.max(expectedKeys, INITIAL_CAPACITY) * 2 - 1) * 2;
+        this.slots = new int[capacity];
+        this.keys = new String[capacity / 2];
+        this.arenaChunkSize = arenaChunkSize;
+        this.arena = offHeap ? new ContentArena(arenaChunkSize) : null;
+    }
+
+    public Optional<String> get(String key, String locale) {
+        return Optional.ofNullable(arena == null ? findContent(key, locale) : findOffHeap(key, locale));
+    }
+
+    public void put(String key, String locale, String content) {
+        Objects.requireNonNull(content, "content");
+        long stamp = lock.writeLock();
+        try {
+            int id = idOf(key);
+            if (id < 0) {
+                id = addKey(key);
+            }
+            if (arena == null) {
+                String[] contents = contentsByLocale.get(locale);
+                if (contents == null || contents.length <= id) {
+                    contents = Arrays.copyOf(contents == null ? new String[0] : contents, keys.length);
+                    contentsByLocale.put(locale, contents);
+                }
+                contents[id] = content;
+            } else {
+                long[] handles = handlesByLocale.get(locale);
+                if (handles == null || handles.length <= id) {
+                    handles = Arrays.copyOf(handles == null ? new long[0] : handles, keys.length);
+                    handlesByLocale.put(locale, handles);
+                }
+                byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+                long previous = handles[id];
+                if (previous != 0) {
+                    if (arena.contentEquals(previous - 1, bytes)) {
+                        return;
+                    }
+                    arena.release(previous - 1);
+                }
+                handles[id] = arena.append(bytes) + 1;
+                compactArenaIfMostlyDead();
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void remove(String key, String locale) {
+        long stamp = lock.writeLock();
+        try {
+            int id = idOf(key);
+            String[] contents = contentsByLocale.get(locale);
+            if (contents != null && id >= 0 && id < contents.length) {
+                contents[id] = null;
+            }
+            long[] handles = handlesByLocale.get(locale);
+            if (handles != null && id >= 0 && id < handles.length && handles[id] != 0) {
+                arena.release(handles[id] - 1);
+                handles[id] = 0;
+                compactArenaIfMostlyDead();
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Writes the locale as a JSON object ordered by key. What the export needs is copied under the read lock and
+     * written after releasing it, so a slow client never holds up writers; off-heap contents are escaped straight
+     * from the arena without building a {@code String} per entry.
+     */
+    public void writeJson(String locale, OutputStream target) throws IOException {
+        String[] keySnapshot;
+        int[] order;
+        String[] contents;
+        long[] handles;
+        ContentArena source;
+        long stamp = lock.readLock();
+        try {
+            keySnapshot = keys;
+            source = arena;
+            order = sortedKeyIds();
+            contents = contentsByLocale.getOrDefault(locale, new String[0]).clone();
+            handles = handlesByLocale.getOrDefault(locale, new long[0]).clone();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+
+        OutputStream out = new BufferedOutputStream(target, WRITE_BUFFER_SIZE);
+        byte[] scratch = new byte[8192];
+        boolean first = true;
+        out.write('{');
+        for (int id : order) {
+            String content = id < contents.length ? contents[id] : null;
+            long handle = id < handles.length ? handles[id] : 0;
+            if (content == null && handle == 0) {
+                continue;
+            }
+            if (!first) {
+                out.write(',');
+            }
+            first = false;
+            writeJsonString(keySnapshot[id], out);
+            out.write(':');
+            if (content != null) {
+                writeJsonString(content, out);
+            } else {
+                out.write('"');
+                source.writeJsonEscaped(handle - 1, out, scratch);
+                out.write('"');
+            }
+        }
+        out.write('}');
+        out.flush();
+    }
+
+    public int keyCount() {
+        long stamp = lock.readLock();
+        try {
+            return keyCount;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public Set<String> locales() {
+        long stamp = lock.readLock();
+        try {
+            Set<String> locales = new TreeSet<>(contentsByLocale.keySet());
+            locales.addAll(handlesByLocale.keySet());
+            return locales;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Bytes held in the off-heap arena, including replaced contents not compacted away yet; 0 in heap mode.
+     */
+    public long offHeapBytes() {
+        long stamp = lock.readLock();
+        try {
+            return arena == null ? 0 : arena.usedBytes();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private String findContent(String key, String locale) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                String content = contentAt(idOf(key), locale);
+                if (lock.validate(stamp)) {
+                    return content;
+                }
+            } catch (RuntimeException e) {
+                // Read half-updated arrays while a writer was active; retry under the lock below
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return contentAt(idOf(key), locale);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // An arena never changes the bytes behind a handle, so decoding may happen after the lock was validated, from
+    // the arena the handle was read together with
+    private String findOffHeap(String key, String locale) {
+        long handle = 0;
+        ContentArena source = null;
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                handle = handleAt(idOf(key), locale);
+                source = arena;
+            } catch (RuntimeException e) {
+                stamp = 0;
+            }
+        }
+        if (stamp == 0 || !lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                handle = handleAt(idOf(key), locale);
+                source = arena;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return handle == 0 ? null : source.read(handle - 1);
+    }
+
+    private String contentAt(int id, String locale) {
+        String[] contents = contentsByLocale.get(locale);
+        return id < 0 || contents == null || id >= contents.length ? null : contents[id];
+    }
+
+    private long handleAt(int id, String locale) {
+        long[] handles = handlesByLocale.get(locale);
+        return id < 0 || handles == null || id >= handles.length ? 0 : handles[id];
+    }
+
+    // Called under the write lock
+    private void compactArenaIfMostlyDead() {
+        long dead = arena.deadBytes();
+        if (dead < arenaChunkSize || dead * 2 <= arena.usedBytes()) {
+            return;
+        }
+        ContentArena compacted = new ContentArena(arenaChunkSize);
+        for (long[] handles : handlesByLocale.values()) {
+            for (int id = 0; id < handles.length; id++) {
+                if (handles[id] != 0) {
+                    handles[id] = arena.copyTo(handles[id] - 1, compacted) + 1;
+                }
+            }
+        }
+        arena = compacted;
+    }
+
+    // Called under the read or write lock; recomputed once after new keys were added
+    private int[] sortedKeyIds() {
+        int[] sorted = sortedKeyIds;
+        if (sorted == null) {
+            String[] snapshot = keys;
+            sorted = IntStream.range(0, keyCount).boxed()
+                .sorted(Comparator.comparing(id -> snapshot[id]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+            sortedKeyIds = sorted;
+        }
+        return sorted;
+    }
+
+    private int idOf(String key) {
+        int mask = slots.length - 1;
+        for (int slot = slotOf(key); ; slot = (slot + 1) & mask) {
+            int entry = slots[slot];
+            if (entry == 0) {
+                return -1;
+            }
+            if (keys[entry - 1].equals(key)) {
+                return entry - 1;
+            }
+        }
+    }
+
+    private int addKey(String key) {
+        if (keyCount == keys.length) {
+            grow();
+        }
+        int id = keyCount++;
+        keys[id] = key;
+        insertSlot(key, id);
+        sortedKeyIds = null;
+        return id;
+    }
+
+    private void grow() {
+        keys = Arrays.copyOf(keys, keys.length * 2);
+        slots = new int[slots.length * 2];
+        for (int id = 0; id < keyCount; id++) {
+            insertSlot(keys[id], id);
+        }
+    }
+
+    private void insertSlot(String key, int id) {
+        int mask = slots.length - 1;
+        int slot = slotOf(key);
+        while (slots[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        slots[slot] = id + 1;
+    }
+
+    // Fibonacci hashing: the top bits of the product, so keys with similar hash codes still spread out
+    private int slotOf(String key) {
+        return (key.hashCode() * 0x9E3779B9) >>> (Integer.numberOfLeadingZeros(slots.length) + 1);
+    }
+
+    private static void writeJsonString(String value, OutputStream out) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.write('"');
+        ContentArena.writeJsonEscaped(bytes, bytes.length, out);
+        out.write('"');
+    }
+}
@@ -0,0 +1,159 @@
+package com.digitaltolk.translation.catalog;
+
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+
+import java.util.*;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Compressed bitmaps of the translations carrying each tag, and one of all translations, so that tag filters are set
+ * operations instead of joins through {@code translation_tags}: any of several tags is a union, all of them an
+ * intersection, excluding one a difference from everything else, and a per-tag count the cardinality of an
+ * intersection. Roaring bitmaps keep each run of 65,536 ids as a sorted array, a bitset or a list of ranges, whichever
+ * is smallest, so a tag on a million translations costs well under a megabyte.
+ */
+public class TagBitmapIndex {
+
+    private final StampedLock lock = new StampedLock();
+    private final Roaring64Bitmap translations = new Roaring64Bitmap();
+    private final Map<Long, Roaring64Bitmap> translationsByTag = new HashMap<>();
+
+    /**
+     * Records the tags of the translation, replacing those recorded for it before.
+     */
+    public void put(long translationId, long[] tags) {
+        long stamp = lock.writeLock();
+        try {
+            removeTags(translationId);
+            translations.addLong(translationId);
+            for (long tag : tags) {
+                translationsByTag.computeIfAbsent(tag, ignored -> new Roaring64Bitmap()).addLong(translationId);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void remove(long translationId) {
+        long stamp = lock.writeLock();
+        try {
+            removeTags(translationId);
+            translations.removeLong(translationId);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Returns the translations carrying any of {@code anyOf}, all of {@code allOf} and none of {@code noneOf}, each
+     * ignored when null; a tag the index has not seen is carried by no translation. The result is a copy the caller
+     * may modify.
+     */
+    public Roaring64Bitmap select(long[] anyOf, long[] allOf, long[] noneOf) {
+        long stamp = lock.readLock();
+        try {
+            Roaring64Bitmap result;
+            if (anyOf != null) {
+                result = new Roaring64Bitmap();
+                for (long tag : anyOf) {
+                    result.or(tagged(tag));
+                }
+            } else {
+                result = translations.clone();
+            }
+            if (allOf != null) {
+                // Smallest first, so the intersection shrinks as early as possible
+                List<Roaring64Bitmap> required = new ArrayList<>();
+                for (long tag : allOf) {
+                    required.add(tagged(tag));
+                }
+                required.sort(Comparator.comparingLong(Roaring64Bitmap::getLongCardinality));
+                for (int i = 0; i < required.size() && !result.isEmpty(); i++) {
+                    result.and(required.get(i));
+                }
+            }
+            if (noneOf != null) {
+                for (long tag : noneOf) {
+                    result.andNot(tagged(tag));
+                }
+            }
+            return result;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Returns the number of translations carrying each tag, among {@code within} when not null; tags no such
+     * translation carries are left out.
+     */
+    public Map<Long, Long> counts(Roaring64Bitmap within) {
+        long stamp = lock.readLock();
+        try {
+            Map<Long, Long> counts = new HashMap<>();
+            for (Map.Entry<Long, Roaring64Bitmap> entry : translationsByTag.entrySet()) {
+                long count = within == null
+                    ? entry.getValue().getLongCardinality()
+                    : Roaring64Bitmap.andCardinality(entry.getValue(), within);
+                if (count > 0) {
+                    counts.put(entry.getKey(), count);
+                }
+            }
+            return counts;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public long size() {
+        long stamp = lock.readLock();
+        try {
+            return translations.getLongCardinality();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public long sizeInBytes() {
+        long stamp = lock.readLock();
+        try {
+            long bytes = translations.getLongSizeInBytes();
+            for (Roaring64Bitmap bitmap : translationsByTag.values()) {
+                bytes += bitmap.getLongSizeInBytes();
+            }
+            return bytes;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Recompresses consecutive ids into ranges where that is smaller; worth doing once after a bulk load.
+     */
+    public void optimize() {
+        long stamp = lock.writeLock();
+        try {
+            translations.runOptimize();
+            translationsByTag.values().forEach(Roaring64Bitmap::runOptimize);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // The index keeps no tags per translation, so the translation is taken out of every tag; there are few tags
+    private void removeTags(long translationId) {
+        Iterator<Roaring64Bitmap> bitmaps = translationsByTag.values().iterator();
+        while (bitmaps.hasNext()) {
+            Roaring64Bitmap bitmap = bitmaps.next();
+            bitmap.removeLong(translationId);
+            if (bitmap.isEmpty()) {
+                bitmaps.remove();
+            }
+        }
+    }
+
+    private Roaring64Bitmap tagged(long tag) {
+        Roaring64Bitmap bitmap = translationsByTag.get(tag);
+        return bitmap == null ? new Roaring64Bitmap() : bitmap;
+    }
+}
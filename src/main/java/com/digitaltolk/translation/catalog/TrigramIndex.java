@@ -0,0 +1,287 @@
+package com.digitaltolk.translation.catalog;
+
+import java.util.*;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Inverted index from character trigrams of keys and contents to the translations containing them, per locale.
+ * A substring query takes the trigrams of the pattern, intersects their posting lists (smallest first) and then
+ * verifies each remaining candidate with {@link String#contains}, so results are exact; patterns shorter than three
+ * characters have no trigram and are verified against every translation of the locale.
+ * <p>
+ * Every indexed version of a translation is a document with an increasing id, so posting lists stay sorted by
+ * appending. Replacing or removing a translation only retires its document; {@link #compact()} drops retired
+ * documents once they pile up.
+ */
+public class TrigramIndex {
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final long[] NO_TAGS = new long[0];
+
+    private final StampedLock lock = new StampedLock();
+    private long[] translationIds = new long[INITIAL_CAPACITY];
+    private String[] keys = new String[INITIAL_CAPACITY];
+    private String[] contents = new String[INITIAL_CAPACITY];
+    private long[][] tagIds = new long[INITIAL_CAPACITY][];
+    private final BitSet retired = new BitSet();
+    private int documentCount;
+    private final Map<Long, Integer> documentsByTranslation = new HashMap<>();
+    private final Map<String, LocalePostings> postingsByLocale = new HashMap<>();
+
+    /**
+     * Indexes the translation, replacing whatever was indexed for its id before.
+     */
+    public void put(long translationId, String key, String locale, String content, long[] tags) {
+        long stamp = lock.writeLock();
+        try {
+            retire(translationId);
+            if (documentCount == translationIds.length) {
+                int capacity = documentCount * 2;
+                translationIds = Arrays.copyOf(translationIds, capacity);
+                keys = Arrays.copyOf(keys, capacity);
+                contents = Arrays.copyOf(contents, capacity);
+                tagIds = Arrays.copyOf(tagIds, capacity);
+            }
+            int document = documentCount++;
+            translationIds[document] = translationId;
+            keys[document] = key;
+            contents[document] = content;
+            tagIds[document] = tags.length == 0 ? NO_TAGS : tags.clone();
+            documentsByTranslation.put(translationId, document);
+
+            LocalePostings postings = postingsByLocale.computeIfAbsent(locale, ignored -> new LocalePostings());
+            postings.documents.add(document);
+            addPostings(postings.keyGrams, key, document);
+            addPostings(postings.contentGrams, content, document);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void remove(long translationId) {
+        long stamp = lock.writeLock();
+        try {
+            retire(translationId);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Returns the ids, ascending, of the translations whose key contains {@code keyPart} and whose content contains
+     * {@code contentPart}, in the given locale or any locale when null. With {@code tags}, only translations carrying
+     * any of them match, or all of them with {@code allTags}; when null, tags do not matter.
+     */
+    public long[] search(String keyPart, String contentPart, String locale, long[] tags, boolean allTags) {
+        long stamp = lock.readLock();
+        try {
+            LongList matches = new LongList();
+            if (locale != null) {
+                LocalePostings postings = postingsByLocale.get(locale);
+                if (postings != null) {
+                    search(postings, keyPart, contentPart, tags, allTags, matches);
+                }
+            } else {
+                for (LocalePostings postings : postingsByLocale.values()) {
+                    search(postings, keyPart, contentPart, tags, allTags, matches);
+                }
+            }
+            long[] ids = matches.toArray();
+            Arrays.sort(ids);
+            return ids;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return documentsByTranslation.size();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public int retiredCount() {
+        long stamp = lock.readLock();
+        try {
+            return retired.cardinality();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Builds a copy holding only the current version of every translation.
+     */
+    public TrigramIndex compact() {
+        long stamp = lock.readLock();
+        try {
+            TrigramIndex compacted = new TrigramIndex();
+            for (Map.Entry<String, LocalePostings> entry : postingsByLocale.entrySet()) {
+                IntList documents = entry.getValue().documents;
+                for (int i = 0; i < documents.size; i++) {
+                    int document = documents.values[i];
+                    if (!retired.get(document)) {
+                        compacted.put(translationIds[document], keys[document], entry.getKey(), contents[document],
+                            tagIds[document]);
+                    }
+                }
+            }
+            return compacted;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private void search(LocalePostings postings, String keyPart, String contentPart, long[] tags, boolean allTags,
+                        LongList matches) {
+        IntList candidates = postings.documents;
+        IntList keyCandidates = keyPart == null ? null : candidates(postings.keyGrams, keyPart);
+        IntList contentCandidates = contentPart == null ? null : candidates(postings.contentGrams, contentPart);
+        if (keyCandidates != null && contentCandidates != null) {
+            candidates = intersect(keyCandidates, contentCandidates);
+        } else if (keyCandidates != null) {
+            candidates = keyCandidates;
+        } else if (contentCandidates != null) {
+            candidates = contentCandidates;
+        }
+        for (int i = 0; i < candidates.size; i++) {
+            int document = candidates.values[i];
+            if (!retired.get(document)
+                    && (keyPart == null || keys[document].contains(keyPart))
+                    && (contentPart == null || contents[document].contains(contentPart))
+                    && (tags == null || hasTags(tagIds[document], tags, allTags))) {
+                matches.add(translationIds[document]);
+            }
+        }
+    }
+
+    /**
+     * Documents containing every trigram of the pattern, or null when the pattern has none to narrow by.
+     */
+    private static IntList candidates(Map<Long, IntList> grams, String pattern) {
+        if (pattern.length() < 3) {
+            return null;
+        }
+        List<IntList> lists = new ArrayList<>();
+        for (long gram : trigrams(pattern)) {
+            IntList list = grams.get(gram);
+            if (list == null) {
+                return new IntList();
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(list -> list.size));
+        IntList result = lists.get(0);
+        for (int i = 1; i < lists.size() && result.size > 0; i++) {
+            result = intersect(result, lists.get(i));
+        }
+        return result;
+    }
+
+    // Walks the shorter list and binary-searches the longer one from where the previous match left off
+    private static IntList intersect(IntList a, IntList b) {
+        IntList small = a.size <= b.size ? a : b;
+        IntList large = small == a ? b : a;
+        IntList result = new IntList();
+        int from = 0;
+        for (int i = 0; i < small.size && from < large.size; i++) {
+            int found = Arrays.binarySearch(large.values, from, large.size, small.values[i]);
+            if (found >= 0) {
+                result.add(small.values[i]);
+                from = found + 1;
+            } else {
+                from = -found - 1;
+            }
+        }
+        return result;
+    }
+
+    private static boolean hasTags(long[] documentTags, long[] tags, boolean allTags) {
+        for (long tag : tags) {
+            if (hasTag(documentTags, tag) != allTags) {
+                return !allTags;
+            }
+        }
+        return allTags;
+    }
+
+    private static boolean hasTag(long[] tags, long tagId) {
+        for (long tag : tags) {
+            if (tag == tagId) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void addPostings(Map<Long, IntList> grams, String text, int document) {
+        for (long gram : trigrams(text)) {
+            grams.computeIfAbsent(gram, ignored -> new IntList()).add(document);
+        }
+    }
+
+    private static long[] trigrams(String text) {
+        if (text.length() < 3) {
+            return new long[0];
+        }
+        long[] grams = new long[text.length() - 2];
+        for (int i = 0; i < grams.length; i++) {
+            grams[i] = ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+        }
+        Arrays.sort(grams);
+        int distinct = 0;
+        for (int i = 0; i < grams.length; i++) {
+            if (i == 0 || grams[i] != grams[i - 1]) {
+                grams[distinct++] = grams[i];
+            }
+        }
+        return Arrays.copyOf(grams, distinct);
+    }
+
+    private void retire(long translationId) {
+        Integer previous = documentsByTranslation.remove(translationId);
+        if (previous != null) {
+            retired.set(previous);
+        }
+    }
+
+    private static final class LocalePostings {
+
+        private final IntList documents = new IntList();
+        private final Map<Long, IntList> keyGrams = new HashMap<>();
+        private final Map<Long, IntList> contentGrams = new HashMap<>();
+    }
+
+    private static final class IntList {
+
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+
+    private static final class LongList {
+
+        private long[] values = new long[16];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -1,18 +1,140 @@
 package com.digitaltolk.translation.config;
 
+import com.digitaltolk.translation.export.ExportSnapshot;
+import com.digitaltolk.translation.service.NamespaceExportService;
+import com.digitaltolk.translation.service.ResolvedExportService;
+import com.digitaltolk.translation.service.SingleFlightLoader;
+import com.digitaltolk.translation.service.TranslationExportService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Weigher;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.util.unit.DataSize;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caffeine caches (W-TinyLFU admission and eviction), one per use case. Locale-sized values are bounded by their
+ * estimated heap footprint rather than by entry count, and every cache records stats so actuator publishes
+ * {@code cache.gets}, {@code cache.evictions}, {@code cache.eviction.weight} and {@code cache.load.duration}.
+ * Concurrent misses on a key share one load, counted under {@code singleflight.loads/coalesced}.
+ */
 @Configuration
-@EnableCaching
+// Outside the transaction advice, so cache hits and callers waiting on another caller's load hold no connection
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 1)
 public class CacheConfig {
     
+    // Rough per-entry overhead of a map node plus two String headers
+    private static final int MAP_ENTRY_OVERHEAD = 96;
+    private static final int SNAPSHOT_OVERHEAD = 256;
+    
     @Bean
-    public CacheManager cacheManager() {
-        return new ConcurrentMapCacheManager("translations");
+    public CacheManager cacheManager(
+            @Value("${translation.cache.translations-by-id.max-entries:10000}") long translationsByIdMaxEntries,
+            @Value("${translation.cache.locale-catalogs.max-size:64MB}") DataSize localeCatalogsMaxSize,
+            @Value("${translation.cache.export-snapshots.max-size:128MB}") DataSize exportSnapshotsMaxSize,
+            @Value("${translation.cache.bundles.max-size:64MB}") DataSize bundlesMaxSize,
+            @Value("${translation.cache.expire-after-write:PT1H}") Duration expireAfterWrite,
+            SingleFlightLoader singleFlight) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager() {
+            @Override
+            protected org.springframework.cache.Cache adaptCaffeineCache(String name, Cache<Object, Object> cache) {
+                return new CoalescingCaffeineCache(name, cache, singleFlight);
+            }
+        };
+        // No caches beyond the ones registered here, so nothing can grow unbounded by accident
+        cacheManager.setCacheNames(List.of());
+        
+        cacheManager.registerCustomCache("translationsById", Caffeine.newBuilder()
+            .maximumSize(translationsByIdMaxEntries)
+            .expireAfterWrite(expireAfterWrite)
+            .recordStats()
+            .build());
+        cacheManager.registerCustomCache("localeCatalogs",
+            weighted(localeCatalogsMaxSize, expireAfterWrite, CacheConfig::weighCatalog));
+        cacheManager.registerCustomCache(TranslationExportService.JSON_CACHE,
+            weighted(exportSnapshotsMaxSize, expireAfterWrite, CacheConfig::weighSnapshot));
+        cacheManager.registerCustomCache(TranslationExportService.BINARY_CACHE,
+            weighted(exportSnapshotsMaxSize, expireAfterWrite, CacheConfig::weighSnapshot));
+        cacheManager.registerCustomCache(ResolvedExportService.CACHE_NAME,
+            weighted(bundlesMaxSize, expireAfterWrite, CacheConfig::weighSnapshot));
+        cacheManager.registerCustomCache(NamespaceExportService.CACHE_NAME,
+            weighted(bundlesMaxSize, expireAfterWrite, CacheConfig::weighSnapshot));
+        return cacheManager;
+    }
+    
+    /**
+     * Micrometer's Caffeine binder only reports load metrics for loading caches; these caches are populated through
+     * {@code @Cacheable(sync = true)}, which Caffeine still times, so publish those numbers here.
+     */
+    @Bean
+    public MeterBinder cacheLoadMetrics(CacheManager cacheManager) {
+        return registry -> {
+            for (String name : cacheManager.getCacheNames()) {
+                if (!(cacheManager.getCache(name) instanceof CaffeineCache caffeineCache)) {
+                    continue;
+                }
+                Cache<Object, Object> cache = caffeineCache.getNativeCache();
+                Tags tags = Tags.of("cache", name, "name", name, "cache.manager", "cacheManager");
+                TimeGauge.builder("cache.load.duration", cache, TimeUnit.NANOSECONDS, c -> c.stats().totalLoadTime())
+                    .tags(tags)
+                    .description("The time the cache has spent loading new values")
+                    .register(registry);
+                FunctionCounter.builder("cache.load", cache, c -> c.stats().loadSuccessCount())
+                    .tags(tags.and("result", "success"))
+                    .description("The number of times cache lookup methods have successfully loaded a new value or failed to load a new value")
+                    .register(registry);
+                FunctionCounter.builder("cache.load", cache, c -> c.stats().loadFailureCount())
+                    .tags(tags.and("result", "failure"))
+                    .description("The number of times cache lookup methods have successfully loaded a new value or failed to load a new value")
+                    .register(registry);
+            }
+        };
+    }
+    
+    private static Cache<Object, Object> weighted(DataSize maxSize, Duration expireAfterWrite,
+                                                  Weigher<Object, Object> weigher) {
+        return Caffeine.newBuilder()
+            .maximumWeight(maxSize.toBytes())
+            .weigher(weigher)
+            .expireAfterWrite(expireAfterWrite)
+            .recordStats()
+            .build();
+    }
+    
+    static int weighSnapshot(Object key, Object value) {
+        if (value instanceof ExportSnapshot snapshot) {
+            return saturatedWeight(SNAPSHOT_OVERHEAD + snapshot.getHeapSize());
+        }
+        return 1;
+    }
+    
+    static int weighCatalog(Object key, Object value) {
+        if (value instanceof Map<?, ?> catalog) {
+            long bytes = 0;
+            for (Map.Entry<?, ?> entry : catalog.entrySet()) {
+                bytes += MAP_ENTRY_OVERHEAD + 2L * (entry.getKey().toString().length() + entry.getValue().toString().length());
+            }
+            return saturatedWeight(bytes);
+        }
+        return 1;
+    }
+    
+    private static int saturatedWeight(long bytes) {
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(1, bytes));
     }
-
 }
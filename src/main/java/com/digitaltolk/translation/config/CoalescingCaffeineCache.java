@@ -0,0 +1,32 @@
+package com.digitaltolk.translation.config;
+
+import com.digitaltolk.translation.service.SingleFlightLoader;
+import com.github.benmanes.caffeine.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Caffeine already runs one {@code @Cacheable(sync = true)} load per key; routing misses through the
+ * {@link SingleFlightLoader} as well counts the callers that waited on another caller's load. The load itself
+ * still goes through Caffeine, so an eviction keeps waiting for an in-flight load of the same key.
+ */
+class CoalescingCaffeineCache extends CaffeineCache {
+
+    private final SingleFlightLoader singleFlight;
+
+    CoalescingCaffeineCache(String name, Cache<Object, Object> cache, SingleFlightLoader singleFlight) {
+        super(name, cache, true);
+        this.singleFlight = singleFlight;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper cached = get(key);
+        if (cached != null) {
+            return (T) cached.get();
+        }
+        return singleFlight.load(getName(), key, () -> super.get(key, valueLoader));
+    }
+}
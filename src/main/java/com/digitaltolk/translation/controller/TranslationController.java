@@ -1,34 +1,91 @@
 package com.digitaltolk.translation.controller;
 
+import com.digitaltolk.translation.dto.KeyNamespaceDto;
+import com.digitaltolk.translation.dto.LocaleManifestDto;
+import com.digitaltolk.translation.dto.TranslationDeltaDto;
+import com.digitaltolk.translation.dto.SearchCursor;
 import com.digitaltolk.translation.dto.TranslationDto;
+import com.digitaltolk.translation.dto.TranslationEntry;
+import com.digitaltolk.translation.dto.TranslationSearchFilter;
+import com.digitaltolk.translation.dto.TranslationSearchFilter.TagMatch;
+import com.digitaltolk.translation.dto.TranslationSearchSliceDto;
+import com.digitaltolk.translation.dto.TranslationSearchSliceDto.Total;
+import com.digitaltolk.translation.export.BinaryBundleWriter;
+import com.digitaltolk.translation.export.ExportSnapshot;
+import com.digitaltolk.translation.service.CatalogManifestService;
+import com.digitaltolk.translation.service.ExportSnapshotRefresher;
+import com.digitaltolk.translation.service.KeyPrefixIndexService;
+import com.digitaltolk.translation.service.NamespaceExportService;
+import com.digitaltolk.translation.service.ResidentCatalogService;
+import com.digitaltolk.translation.service.ResolvedExportService;
+import com.digitaltolk.translation.service.TranslationExportService;
 import com.digitaltolk.translation.service.TranslationService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/translations")
 @SecurityRequirement(name = "bearerAuth")
 public class TranslationController {
     
+    static final String EXPORT_CURSOR_HEADER = "X-Export-Cursor";
+    static final String FALLBACK_CHAIN_HEADER = "X-Locale-Fallback-Chain";
+    static final String EXPORT_STALE_HEADER = "X-Export-Stale";
+    
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable();
+    
+    private static final String SENDFILE_SUPPORT_ATTRIBUTE = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME_ATTRIBUTE = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START_ATTRIBUTE = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END_ATTRIBUTE = "org.apache.tomcat.sendfile.end";
+    
     private final TranslationService translationService;
+    private final TranslationExportService translationExportService;
+    private final ResolvedExportService resolvedExportService;
+    private final NamespaceExportService namespaceExportService;
+    private final CatalogManifestService catalogManifestService;
+    private final ResidentCatalogService residentCatalogService;
+    private final ExportSnapshotRefresher exportSnapshotRefresher;
+    private final KeyPrefixIndexService keyPrefixIndexService;
     
     @Autowired
-    public TranslationController(TranslationService translationService) {
+    public TranslationController(TranslationService translationService, TranslationExportService translationExportService,
+                                 ResolvedExportService resolvedExportService, NamespaceExportService namespaceExportService,
+                                 CatalogManifestService catalogManifestService,
+                                 ResidentCatalogService residentCatalogService,
+                                 ExportSnapshotRefresher exportSnapshotRefresher,
+                                 KeyPrefixIndexService keyPrefixIndexService) {
         this.translationService = translationService;
+        this.translationExportService = translationExportService;
+        this.resolvedExportService = resolvedExportService;
+        this.namespaceExportService = namespaceExportService;
+        this.catalogManifestService = catalogManifestService;
+        this.residentCatalogService = residentCatalogService;
+        this.exportSnapshotRefresher = exportSnapshotRefresher;
+        this.keyPrefixIndexService = keyPrefixIndexService;
     }
     
     @PostMapping
@@ -53,21 +110,79 @@ public class TranslationController {
             .orElse(ResponseEntity.notFound().build());
     }
     
+    @GetMapping("/lookup")
+    public ResponseEntity<TranslationEntry> lookupTranslation(
+            @Parameter(description = "Translation key", example = "welcome.message") @RequestParam String key,
+            @Parameter(description = "Locale code", example = "en") @RequestParam String locale) {
+        return translationService.getTranslationEntry(key, locale)
+            .map(ResponseEntity::ok)
+            .orElse(ResponseEntity.notFound().build());
+    }
+    
     @GetMapping("/search")
-    public ResponseEntity<Page<TranslationDto>> searchTranslations(
+    public ResponseEntity<TranslationSearchSliceDto> searchTranslations(
             @Parameter(description = "Translation key to search") @RequestParam(required = false) String key,
             @Parameter(description = "Content to search") @RequestParam(required = false) String content,
+            @Parameter(description = "Match content as a full-text query (PostgreSQL) instead of a substring")
+            @RequestParam(defaultValue = "false") boolean fullText,
             @Parameter(description = "Locale to filter") @RequestParam(required = false) String locale,
-            @Parameter(description = "Tag name to filter") @RequestParam(required = false) String tag,
+            @Parameter(description = "Tag names to filter, repeated or comma-separated")
+            @RequestParam(required = false) List<String> tag,
+            @Parameter(description = "Whether a translation needs any or all of the tags")
+            @RequestParam(defaultValue = "any") String tagMatch,
+            @Parameter(description = "Tag names a translation must not carry, repeated or comma-separated")
+            @RequestParam(required = false) List<String> excludeTag,
             @Parameter(description = "Page number") @RequestParam(defaultValue = "0") int page,
-            @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size) {
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Count the matches: none, exact or approximate")
+            @RequestParam(defaultValue = "none") String total) {
+        Total counting = parseEnum(Total.class, total);
+        TagMatch matching = parseEnum(TagMatch.class, tagMatch);
+        if (page < 0 || size < 1 || counting == null || matching == null) {
+            return ResponseEntity.badRequest().build();
+        }
         
         Pageable pageable = PageRequest.of(page, size);
+        TranslationSearchFilter filter = new TranslationSearchFilter(key, content, fullText, locale, splitTags(tag),
+            matching, splitTags(excludeTag));
         
-        Page<TranslationDto> results = translationService.searchTranslations(key, content, locale, tag, pageable);
+        TranslationSearchSliceDto results = translationService.searchTranslationsSlice(filter, pageable, counting);
         return ResponseEntity.ok(results);
     }
     
+    @GetMapping(value = "/search", params = "cursor")
+    public ResponseEntity<TranslationSearchSliceDto> searchTranslationsAfter(
+            @Parameter(description = "Translation key to search") @RequestParam(required = false) String key,
+            @Parameter(description = "Content to search") @RequestParam(required = false) String content,
+            @Parameter(description = "Match content as a full-text query (PostgreSQL) instead of a substring")
+            @RequestParam(defaultValue = "false") boolean fullText,
+            @Parameter(description = "Locale to filter") @RequestParam(required = false) String locale,
+            @Parameter(description = "Tag names to filter, repeated or comma-separated")
+            @RequestParam(required = false) List<String> tag,
+            @Parameter(description = "Whether a translation needs any or all of the tags")
+            @RequestParam(defaultValue = "any") String tagMatch,
+            @Parameter(description = "Tag names a translation must not carry, repeated or comma-separated")
+            @RequestParam(required = false) List<String> excludeTag,
+            @Parameter(description = "Cursor from the previous page, empty for the first") @RequestParam String cursor,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Count the matches: none, exact or approximate")
+            @RequestParam(defaultValue = "none") String total) {
+        Total counting = parseEnum(Total.class, total);
+        TagMatch matching = parseEnum(TagMatch.class, tagMatch);
+        if (size < 1 || counting == null || matching == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        TranslationSearchFilter filter = new TranslationSearchFilter(key, content, fullText, locale, splitTags(tag),
+            matching, splitTags(excludeTag));
+        try {
+            SearchCursor after = SearchCursor.decode(cursor);
+            return ResponseEntity.ok(translationService.searchTranslationsAfter(filter, after, size, counting));
+        } catch (IllegalArgumentException e) {
+            // A malformed cursor, or one from a search ordered differently
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteTranslation(
             @Parameter(description = "Translation ID") @PathVariable Long id) {
@@ -76,14 +191,101 @@ public class TranslationController {
     }
     
     @GetMapping("/export/{locale}")
-    public ResponseEntity<Map<String, String>> exportTranslations(
+    public ResponseEntity<byte[]> exportTranslations(
+            @Parameter(description = "Locale code", example = "en") @PathVariable String locale,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            HttpServletRequest request) {
+        ExportSnapshot snapshot = translationExportService.getExportSnapshot(locale);
+        return snapshotResponse(request, snapshot, MediaType.APPLICATION_JSON, REVALIDATE, ifNoneMatch, acceptEncoding,
+            staleHeaders(TranslationExportService.JSON_CACHE, locale, snapshot));
+    }
+    
+    @GetMapping(value = "/export/{locale}", produces = BinaryBundleWriter.MEDIA_TYPE)
+    public ResponseEntity<byte[]> exportBinaryTranslations(
+            @Parameter(description = "Locale code", example = "en") @PathVariable String locale,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            HttpServletRequest request) {
+        ExportSnapshot snapshot = translationExportService.getBinaryExportSnapshot(locale);
+        return snapshotResponse(request, snapshot, MediaType.parseMediaType(BinaryBundleWriter.MEDIA_TYPE), REVALIDATE,
+            ifNoneMatch, acceptEncoding, staleHeaders(TranslationExportService.BINARY_CACHE, locale, snapshot));
+    }
+    
+    @GetMapping(value = "/export/{locale}", params = "resolve=true")
+    public ResponseEntity<byte[]> exportResolvedTranslations(
+            @Parameter(description = "Locale code", example = "fr-CA") @PathVariable String locale,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            HttpServletRequest request) {
+        ExportSnapshot snapshot = resolvedExportService.getResolvedSnapshot(locale);
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(FALLBACK_CHAIN_HEADER, String.join(", ", resolvedExportService.resolveChain(locale)));
+        return snapshotResponse(request, snapshot, MediaType.APPLICATION_JSON, REVALIDATE, ifNoneMatch, acceptEncoding,
+            headers);
+    }
+    
+    @GetMapping("/export/{locale}/{namespaces}")
+    public ResponseEntity<byte[]> exportNamespaces(
+            @Parameter(description = "Locale code", example = "en") @PathVariable String locale,
+            @Parameter(description = "Comma-separated key namespaces", example = "navigation,form") @PathVariable String namespaces,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            HttpServletRequest request) {
+        List<String> requested = Arrays.stream(namespaces.split(","))
+            .map(String::trim)
+            .filter(namespace -> !namespace.isEmpty())
+            .toList();
+        if (requested.isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        ExportSnapshot snapshot = namespaceExportService.getNamespaceSnapshot(locale, requested);
+        return snapshotResponse(request, snapshot, MediaType.APPLICATION_JSON, REVALIDATE, ifNoneMatch, acceptEncoding,
+            new HttpHeaders());
+    }
+    
+    @GetMapping(value = "/export/{locale}", params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamTranslations(
             @Parameter(description = "Locale code", example = "en") @PathVariable String locale) {
-        Map<String, String> translations = translationService.getTranslationsForLocale(locale);
-        return ResponseEntity.ok(translations);
+        StreamingResponseBody body = out -> {
+            if (!residentCatalogService.writeJson(locale, out)) {
+                translationExportService.writeTranslationsForLocale(locale, out);
+            }
+        };
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(body);
+    }
+    
+    @GetMapping(value = "/export/{locale}", params = "since")
+    public ResponseEntity<TranslationDeltaDto> exportTranslationDelta(
+            @Parameter(description = "Locale code", example = "en") @PathVariable String locale,
+            @Parameter(description = "Cursor from a previous export") @RequestParam long since) {
+        return ResponseEntity.ok(translationExportService.getTranslationDelta(locale, since));
+    }
+    
+    @GetMapping("/manifest")
+    public ResponseEntity<Map<String, LocaleManifestDto>> getManifest() {
+        return ResponseEntity.ok()
+            .cacheControl(REVALIDATE)
+            .body(catalogManifestService.getManifest());
+    }
+    
+    @GetMapping("/bundles/{locale}/{hash}")
+    public ResponseEntity<byte[]> getBundle(
+            @Parameter(description = "Locale code", example = "en") @PathVariable String locale,
+            @Parameter(description = "Bundle hash from the manifest") @PathVariable String hash,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            HttpServletRequest request) {
+        return catalogManifestService.getBundle(locale, hash)
+            .map(snapshot -> snapshotResponse(request, snapshot, MediaType.APPLICATION_JSON, IMMUTABLE, ifNoneMatch,
+                acceptEncoding, new HttpHeaders()))
+            .orElse(ResponseEntity.notFound().build());
     }
     
     @GetMapping("/locales")
-    public ResponseEntity<java.util.List<String>> getAvailableLocales() {
+    public ResponseEntity<List<String>> getAvailableLocales() {
         return ResponseEntity.ok(translationService.getAvailableLocales());
     }
     
@@ -91,4 +293,129 @@ public class TranslationController {
     public ResponseEntity<Long> getTranslationCount() {
         return ResponseEntity.ok(translationService.getTranslationCount());
     }
+    
+    @GetMapping("/tag-counts")
+    public ResponseEntity<Map<String, Long>> getTagCounts(
+            @Parameter(description = "Translation key to search") @RequestParam(required = false) String key,
+            @Parameter(description = "Content to search") @RequestParam(required = false) String content,
+            @Parameter(description = "Locale to filter") @RequestParam(required = false) String locale,
+            @Parameter(description = "Tag names to filter, repeated or comma-separated")
+            @RequestParam(required = false) List<String> tag,
+            @Parameter(description = "Whether a translation needs any or all of the tags")
+            @RequestParam(defaultValue = "any") String tagMatch,
+            @Parameter(description = "Tag names a translation must not carry, repeated or comma-separated")
+            @RequestParam(required = false) List<String> excludeTag) {
+        TagMatch matching = parseEnum(TagMatch.class, tagMatch);
+        if (matching == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        TranslationSearchFilter filter = new TranslationSearchFilter(key, content, false, locale, splitTags(tag),
+            matching, splitTags(excludeTag));
+        return ResponseEntity.ok(translationService.countTranslationsByTag(filter));
+    }
+    
+    @GetMapping("/keys/completions")
+    public ResponseEntity<List<String>> completeKeys(
+            @Parameter(description = "Start of the key", example = "navigation.men") @RequestParam(defaultValue = "") String prefix,
+            @Parameter(description = "Maximum number of keys, at most 100") @RequestParam(defaultValue = "10") int limit) {
+        if (limit < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(keyPrefixIndexService.complete(prefix, limit));
+    }
+    
+    @GetMapping("/keys/namespaces")
+    public ResponseEntity<List<KeyNamespaceDto>> getKeyNamespaces(
+            @Parameter(description = "Namespace to list the children of, the top level when omitted", example = "navigation")
+            @RequestParam(required = false) String parent) {
+        return keyPrefixIndexService.children(parent)
+            .map(ResponseEntity::ok)
+            .orElseGet(() -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
+    }
+    
+    /**
+     * Flags a snapshot served while its rebuild is pending; its ETag and cursor still identify what it contains,
+     * so clients can catch up through the delta endpoint.
+     */
+    private HttpHeaders staleHeaders(String cacheName, String locale, ExportSnapshot snapshot) {
+        HttpHeaders headers = new HttpHeaders();
+        if (exportSnapshotRefresher.isStale(cacheName, locale, snapshot)) {
+            headers.add(EXPORT_STALE_HEADER, "true");
+        }
+        return headers;
+    }
+    
+    private static ResponseEntity<byte[]> snapshotResponse(HttpServletRequest request, ExportSnapshot snapshot,
+                                                           MediaType contentType, CacheControl cacheControl,
+                                                           String ifNoneMatch, String acceptEncoding,
+                                                           HttpHeaders headers) {
+        boolean gzip = acceptsGzip(acceptEncoding);
+        if (snapshot.getCursor() > 0) {
+            headers.add(EXPORT_CURSOR_HEADER, String.valueOf(snapshot.getCursor()));
+        }
+        
+        if (snapshot.matches(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(gzip ? snapshot.getGzipEtag() : snapshot.getEtag())
+                .cacheControl(cacheControl)
+                .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING)
+                .headers(headers)
+                .build();
+        }
+        
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+            .contentType(contentType)
+            .eTag(gzip ? snapshot.getGzipEtag() : snapshot.getEtag())
+            .cacheControl(cacheControl)
+            .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING)
+            .headers(headers);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        
+        // File-backed snapshots go out through the container's sendfile (FileChannel.transferTo) without touching the heap
+        Path file = snapshot.getFile(gzip);
+        if (file != null && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT_ATTRIBUTE))) {
+            long length = snapshot.getLength(gzip);
+            request.setAttribute(SENDFILE_FILENAME_ATTRIBUTE, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START_ATTRIBUTE, 0L);
+            request.setAttribute(SENDFILE_END_ATTRIBUTE, length);
+            return response.contentLength(length).build();
+        }
+        return response.body(gzip ? snapshot.getGzipBody() : snapshot.getBody());
+    }
+    
+    // Spring splits a single comma-separated value into a list, but not each of several
+    private static List<String> splitTags(List<String> tags) {
+        return tags == null ? null : tags.stream().flatMap(tag -> Arrays.stream(tag.split(","))).toList();
+    }
+    
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String name) {
+        for (E value : type.getEnumConstants()) {
+            if (value.name().equalsIgnoreCase(name)) {
+                return value;
+            }
+        }
+        return null;
+    }
+    
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            String name = parts[0].trim();
+            if (name.equalsIgnoreCase("gzip") || name.equals("*")) {
+                for (int i = 1; i < parts.length; i++) {
+                    String param = parts[i].trim();
+                    if (param.startsWith("q=") && param.substring(2).matches("0(\\.0{0,3})?")) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        }
+        return false;
+    }
 }
@@ -0,0 +1,42 @@
+package com.digitaltolk.translation.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "A key namespace and the number of keys it holds")
+public class KeyNamespaceDto {
+
+    @Schema(description = "Last segment of the namespace", example = "menu")
+    private String name;
+
+    @Schema(description = "Full namespace, a prefix of its keys up to the dot before their own segments", example = "navigation.menu")
+    private String namespace;
+
+    @Schema(description = "Distinct keys anywhere below the namespace", example = "42")
+    private int keyCount;
+
+    @Schema(description = "Distinct keys directly in the namespace, not in one of its children", example = "7")
+    private int directKeyCount;
+
+    // Constructors
+    public KeyNamespaceDto() {}
+
+    public KeyNamespaceDto(String name, String namespace, int keyCount, int directKeyCount) {
+        this.name = name;
+        this.namespace = namespace;
+        this.keyCount = keyCount;
+        this.directKeyCount = directKeyCount;
+    }
+
+    // Getters and Setters
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public String getNamespace() { return namespace; }
+    public void setNamespace(String namespace) { this.namespace = namespace; }
+
+    public int getKeyCount() { return keyCount; }
+    public void setKeyCount(int keyCount) { this.keyCount = keyCount; }
+
+    public int getDirectKeyCount() { return directKeyCount; }
+    public void setDirectKeyCount(int directKeyCount) { this.directKeyCount = directKeyCount; }
+}
@@ -0,0 +1,35 @@
+package com.digitaltolk.translation.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Current state of one locale bundle")
+public class LocaleManifestDto {
+    
+    @Schema(description = "Version counter, bumped on every write to the locale", example = "42")
+    private long version;
+    
+    @Schema(description = "SHA-256 of the JSON export body", example = "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08")
+    private String hash;
+    
+    @Schema(description = "Immutable URL of this exact bundle", example = "/api/translations/bundles/en/9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08")
+    private String url;
+    
+    // Constructors
+    public LocaleManifestDto() {}
+    
+    public LocaleManifestDto(long version, String hash, String url) {
+        this.version = version;
+        this.hash = hash;
+        this.url = url;
+    }
+    
+    // Getters and Setters
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
+    
+    public String getHash() { return hash; }
+    public void setHash(String hash) { this.hash = hash; }
+    
+    public String getUrl() { return url; }
+    public void setUrl(String url) { this.url = url; }
+}
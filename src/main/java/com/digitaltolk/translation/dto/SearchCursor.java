@@ -0,0 +1,54 @@
+package com.digitaltolk.translation.dto;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+
+/**
+ * Position of the last translation on a keyset search page: its id, plus its relevance for full-text searches,
+ * which are ordered by relevance first. Handed to clients as an opaque URL-safe token.
+ */
+public class SearchCursor {
+
+    private final long id;
+    private final Float rank;
+
+    public SearchCursor(long id, Float rank) {
+        this.id = id;
+        this.rank = rank;
+    }
+
+    public static SearchCursor afterId(long id) {
+        return new SearchCursor(id, null);
+    }
+
+    /**
+     * Reads a token from {@link #encode()}; the empty token starts at the beginning and yields null.
+     *
+     * @throws IllegalArgumentException if the token was not produced by {@link #encode()}
+     */
+    public static SearchCursor decode(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        byte[] bytes = Base64.getUrlDecoder().decode(token);
+        if (bytes.length != Long.BYTES && bytes.length != Long.BYTES + Float.BYTES) {
+            throw new IllegalArgumentException("Malformed search cursor");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        long id = buffer.getLong();
+        return new SearchCursor(id, buffer.hasRemaining() ? buffer.getFloat() : null);
+    }
+
+    public String encode() {
+        ByteBuffer buffer = ByteBuffer.allocate(rank == null ? Long.BYTES : Long.BYTES + Float.BYTES);
+        buffer.putLong(id);
+        if (rank != null) {
+            buffer.putFloat(rank);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    public long getId() { return id; }
+
+    public Float getRank() { return rank; }
+}
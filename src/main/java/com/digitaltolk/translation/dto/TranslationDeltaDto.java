@@ -0,0 +1,57 @@
+package com.digitaltolk.translation.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+import java.util.Map;
+
+@Schema(description = "Incremental locale export")
+public class TranslationDeltaDto {
+    
+    @Schema(description = "Locale code", example = "en")
+    private String locale;
+    
+    @Schema(description = "Translations created or changed since the cursor", example = "{\"welcome.message\": \"Welcome!\"}")
+    private Map<String, String> upserts;
+    
+    @Schema(description = "Keys removed since the cursor; apply before upserts", example = "[\"button.legacy\"]")
+    private List<String> deletes;
+    
+    @Schema(description = "Opaque cursor to pass as 'since' on the next request", example = "1718035200000")
+    private long cursor;
+    
+    @Schema(description = "True when the cursor was older than the deletes still remembered: upserts then hold the whole catalog, which replaces the client's copy", example = "false")
+    private boolean full;
+    
+    // Constructors
+    public TranslationDeltaDto() {}
+    
+    public TranslationDeltaDto(String locale, Map<String, String> upserts, List<String> deletes, long cursor) {
+        this.locale = locale;
+        this.upserts = upserts;
+        this.deletes = deletes;
+        this.cursor = cursor;
+    }
+    
+    public TranslationDeltaDto(String locale, Map<String, String> upserts, List<String> deletes, long cursor,
+                               boolean full) {
+        this(locale, upserts, deletes, cursor);
+        this.full = full;
+    }
+    
+    // Getters and Setters
+    public String getLocale() { return locale; }
+    public void setLocale(String locale) { this.locale = locale; }
+    
+    public Map<String, String> getUpserts() { return upserts; }
+    public void setUpserts(Map<String, String> upserts) { this.upserts = upserts; }
+    
+    public List<String> getDeletes() { return deletes; }
+    public void setDeletes(List<String> deletes) { this.deletes = deletes; }
+    
+    public long getCursor() { return cursor; }
+    public void setCursor(long cursor) { this.cursor = cursor; }
+    
+    public boolean isFull() { return full; }
+    public void setFull(boolean full) { this.full = full; }
+}
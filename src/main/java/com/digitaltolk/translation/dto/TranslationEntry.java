@@ -0,0 +1,22 @@
+package com.digitaltolk.translation.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Translation key and content")
+public class TranslationEntry {
+    
+    @Schema(description = "Translation key", example = "welcome.message")
+    private final String key;
+    
+    @Schema(description = "Translation content", example = "Welcome to our application!")
+    private final String content;
+    
+    public TranslationEntry(String key, String content) {
+        this.key = key;
+        this.content = content;
+    }
+    
+    public String getKey() { return key; }
+    
+    public String getContent() { return content; }
+}
@@ -0,0 +1,117 @@
+package com.digitaltolk.translation.dto;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The predicates of a translation search; a null or empty one does not restrict the results. Key and content are
+ * case-sensitive LIKE patterns matched anywhere in the text, or with {@code fullText} the content is a full-text
+ * query where the database supports one. With tags, a translation must carry any or all of them, as
+ * {@link #getTagMatch()} says, and none of the excluded tags; without, untagged translations match too.
+ */
+public class TranslationSearchFilter {
+
+    public enum TagMatch { ANY, ALL }
+
+    private final String key;
+    private final String content;
+    private final boolean fullText;
+    private final String locale;
+    private final List<String> tags;
+    private final TagMatch tagMatch;
+    private final List<String> excludedTags;
+
+    public TranslationSearchFilter(String key, String content, boolean fullText, String locale,
+                                   Collection<String> tags, TagMatch tagMatch) {
+        this(key, content, fullText, locale, tags, tagMatch, null);
+    }
+
+    public TranslationSearchFilter(String key, String content, boolean fullText, String locale,
+                                   Collection<String> tags, TagMatch tagMatch, Collection<String> excludedTags) {
+        this.key = key;
+        this.content = content;
+        this.fullText = fullText;
+        this.locale = locale;
+        this.tags = normalize(tags);
+        this.tagMatch = tagMatch == null ? TagMatch.ANY : tagMatch;
+        this.excludedTags = normalize(excludedTags);
+    }
+
+    public static TranslationSearchFilter of(String key, String content, String locale, String tagName) {
+        return new TranslationSearchFilter(key, content, false, locale,
+            tagName == null ? List.of() : List.of(tagName), TagMatch.ANY);
+    }
+
+    public String getKey() { return key; }
+
+    public String getContent() { return content; }
+
+    public boolean isFullText() { return fullText; }
+
+    public String getLocale() { return locale; }
+
+    public List<String> getTags() { return tags; }
+
+    public TagMatch getTagMatch() { return tagMatch; }
+
+    public List<String> getExcludedTags() { return excludedTags; }
+
+    public boolean hasTags() { return !tags.isEmpty(); }
+
+    public boolean hasExcludedTags() { return !excludedTags.isEmpty(); }
+
+    /**
+     * Whether the filter restricts anything besides tags.
+     */
+    public boolean hasNonTagPredicates() {
+        return key != null || content != null || locale != null;
+    }
+
+    /**
+     * The same filter without its tags and excluded tags.
+     */
+    public TranslationSearchFilter withoutTags() {
+        return new TranslationSearchFilter(key, content, fullText, locale, null, null);
+    }
+
+    // Sorted and distinct, so filters naming the same tags in another order are equal
+    private static List<String> normalize(Collection<String> tags) {
+        return tags == null ? List.of() : tags.stream()
+            .filter(Objects::nonNull)
+            .map(String::trim)
+            .filter(tag -> !tag.isEmpty())
+            .distinct()
+            .sorted()
+            .toList();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof TranslationSearchFilter that)) {
+            return false;
+        }
+        return fullText == that.fullText
+            && Objects.equals(key, that.key)
+            && Objects.equals(content, that.content)
+            && Objects.equals(locale, that.locale)
+            && tags.equals(that.tags)
+            && tagMatch == that.tagMatch
+            && excludedTags.equals(that.excludedTags);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(key, content, fullText, locale, tags, tagMatch, excludedTags);
+    }
+
+    @Override
+    public String toString() {
+        return "TranslationSearchFilter{key=" + key + ", content=" + content + ", fullText=" + fullText
+            + ", locale=" + locale + ", tags=" + tags + ", tagMatch=" + tagMatch + ", excludedTags=" + excludedTags
+            + "}";
+    }
+}
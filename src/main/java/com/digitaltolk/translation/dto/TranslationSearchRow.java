@@ -0,0 +1,27 @@
+package com.digitaltolk.translation.dto;
+
+/**
+ * The searchable columns of one translation, read as an unmanaged projection for the search index.
+ */
+public class TranslationSearchRow {
+    
+    private final Long id;
+    private final String key;
+    private final String locale;
+    private final String content;
+    
+    public TranslationSearchRow(Long id, String key, String locale, String content) {
+        this.id = id;
+        this.key = key;
+        this.locale = locale;
+        this.content = content;
+    }
+    
+    public Long getId() { return id; }
+    
+    public String getKey() { return key; }
+    
+    public String getLocale() { return locale; }
+    
+    public String getContent() { return content; }
+}
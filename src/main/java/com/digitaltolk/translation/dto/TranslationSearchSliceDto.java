@@ -0,0 +1,56 @@
+package com.digitaltolk.translation.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "One page of a search, without a total unless one was requested")
+public class TranslationSearchSliceDto {
+
+    /**
+     * How a search counts its matches: not at all, exactly, or as the database's estimate where it keeps
+     * statistics (PostgreSQL), which costs a query plan rather than a second pass over the matches.
+     */
+    public enum Total { NONE, EXACT, APPROXIMATE }
+
+    @Schema(description = "Matching translations, by id, or by relevance for full-text searches")
+    private List<TranslationDto> content;
+
+    @Schema(description = "Whether more matches follow this page")
+    private boolean hasNext;
+
+    @Schema(description = "Opaque cursor to pass as 'cursor' for the next page; only on keyset searches with more "
+            + "matches", example = "AAAAAAAAAAc")
+    private String nextCursor;
+
+    @Schema(description = "Number of matches, when requested with 'total'", example = "1250")
+    private Long totalElements;
+
+    @Schema(description = "Whether totalElements is an estimate")
+    private Boolean totalApproximate;
+
+    // Constructors
+    public TranslationSearchSliceDto() {}
+
+    public TranslationSearchSliceDto(List<TranslationDto> content, boolean hasNext, String nextCursor) {
+        this.content = content;
+        this.hasNext = hasNext;
+        this.nextCursor = nextCursor;
+    }
+
+    // Getters and Setters
+    public List<TranslationDto> getContent() { return content; }
+    public void setContent(List<TranslationDto> content) { this.content = content; }
+
+    public boolean isHasNext() { return hasNext; }
+    public void setHasNext(boolean hasNext) { this.hasNext = hasNext; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+
+    public Long getTotalElements() { return totalElements; }
+    public void setTotalElements(Long totalElements) { this.totalElements = totalElements; }
+
+    public Boolean getTotalApproximate() { return totalApproximate; }
+    public void setTotalApproximate(Boolean totalApproximate) { this.totalApproximate = totalApproximate; }
+}
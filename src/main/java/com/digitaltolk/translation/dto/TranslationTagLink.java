@@ -0,0 +1,19 @@
+package com.digitaltolk.translation.dto;
+
+/**
+ * One row of the translation/tag join table.
+ */
+public class TranslationTagLink {
+    
+    private final Long translationId;
+    private final Long tagId;
+    
+    public TranslationTagLink(Long translationId, Long tagId) {
+        this.translationId = translationId;
+        this.tagId = tagId;
+    }
+    
+    public Long getTranslationId() { return translationId; }
+    
+    public Long getTagId() { return tagId; }
+}
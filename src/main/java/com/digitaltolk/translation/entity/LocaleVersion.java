@@ -0,0 +1,55 @@
+package com.digitaltolk.translation.entity;
+
+import jakarta.persistence.*;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "locale_versions")
+@EntityListeners(AuditingEntityListener.class)
+public class LocaleVersion {
+    
+    @Id
+    @Column(length = 10)
+    private String locale;
+    
+    @Column(name = "catalog_version", nullable = false)
+    private long version;
+    
+    @CreatedDate
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    // Hash of the JSON export as of exportHashVersion, which trails version until the export is rebuilt or patched
+    @Column(name = "export_hash", length = 64)
+    private String exportHash;
+    
+    @Column(name = "export_hash_version")
+    private Long exportHashVersion;
+    
+    // Constructors
+    public LocaleVersion() {}
+    
+    public LocaleVersion(String locale, long version) {
+        this.locale = locale;
+        this.version = version;
+    }
+    
+    // Getters and Setters
+    public String getLocale() { return locale; }
+    public void setLocale(String locale) { this.locale = locale; }
+    
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
+    
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    
+    public String getExportHash() { return exportHash; }
+    public void setExportHash(String exportHash) { this.exportHash = exportHash; }
+    
+    public Long getExportHashVersion() { return exportHashVersion; }
+    public void setExportHashVersion(Long exportHashVersion) { this.exportHashVersion = exportHashVersion; }
+}
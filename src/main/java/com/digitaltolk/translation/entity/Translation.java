@@ -14,7 +14,8 @@ import java.util.Set;
     @Index(name = "idx_translation_key", columnList = "translation_key"),
     @Index(name = "idx_locale", columnList = "locale"),
     @Index(name = "idx_key_locale", columnList = "translation_key, locale"),
-    @Index(name = "idx_content", columnList = "content")
+    @Index(name = "idx_content", columnList = "content"),
+    @Index(name = "idx_locale_updated_at", columnList = "locale, updated_at")
 })
 @EntityListeners(AuditingEntityListener.class)
 public class Translation {
@@ -0,0 +1,94 @@
+package com.digitaltolk.translation.entity;
+
+import com.digitaltolk.translation.event.TranslationChangedEvent;
+import jakarta.persistence.*;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row per committed translation write, so other nodes can replay it against their local caches.
+ */
+@Entity
+@Table(name = "translation_changes", indexes = {
+    @Index(name = "idx_change_changed_at", columnList = "changed_at")
+})
+@EntityListeners(AuditingEntityListener.class)
+public class TranslationChange {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "node_id", nullable = false, length = 64)
+    private String nodeId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "change_type", nullable = false, length = 10)
+    private TranslationChangedEvent.ChangeType type;
+    
+    @Column(name = "translation_id")
+    private Long translationId;
+    
+    @Column(name = "previous_key", length = 255)
+    private String previousKey;
+    
+    @Column(name = "previous_locale", length = 10)
+    private String previousLocale;
+    
+    @Column(name = "translation_key", length = 255)
+    private String key;
+    
+    @Column(length = 10)
+    private String locale;
+    
+    @CreatedDate
+    @Column(name = "changed_at", nullable = false, updatable = false)
+    private LocalDateTime changedAt;
+    
+    // Constructors
+    public TranslationChange() {}
+    
+    public TranslationChange(String nodeId, TranslationChangedEvent event) {
+        this.nodeId = nodeId;
+        this.type = event.getType();
+        this.translationId = event.getTranslationId();
+        this.previousKey = event.getPreviousKey();
+        this.previousLocale = event.getPreviousLocale();
+        this.key = event.getKey();
+        this.locale = event.getLocale();
+    }
+    
+    public TranslationChangedEvent toEvent() {
+        return new TranslationChangedEvent(type, translationId, previousKey, previousLocale, key, locale);
+    }
+    
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public String getNodeId() { return nodeId; }
+    public void setNodeId(String nodeId) { this.nodeId = nodeId; }
+    
+    public TranslationChangedEvent.ChangeType getType() { return type; }
+    public void setType(TranslationChangedEvent.ChangeType type) { this.type = type; }
+    
+    public Long getTranslationId() { return translationId; }
+    public void setTranslationId(Long translationId) { this.translationId = translationId; }
+    
+    public String getPreviousKey() { return previousKey; }
+    public void setPreviousKey(String previousKey) { this.previousKey = previousKey; }
+    
+    public String getPreviousLocale() { return previousLocale; }
+    public void setPreviousLocale(String previousLocale) { this.previousLocale = previousLocale; }
+    
+    public String getKey() { return key; }
+    public void setKey(String key) { this.key = key; }
+    
+    public String getLocale() { return locale; }
+    public void setLocale(String locale) { this.locale = locale; }
+    
+    public LocalDateTime getChangedAt() { return changedAt; }
+    public void setChangedAt(LocalDateTime changedAt) { this.changedAt = changedAt; }
+}
@@ -0,0 +1,50 @@
+package com.digitaltolk.translation.entity;
+
+import jakarta.persistence.*;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "translation_tombstones", indexes = {
+    @Index(name = "idx_tombstone_locale_deleted_at", columnList = "locale, deleted_at")
+})
+@EntityListeners(AuditingEntityListener.class)
+public class TranslationTombstone {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "translation_key", nullable = false, length = 255)
+    private String key;
+    
+    @Column(nullable = false, length = 10)
+    private String locale;
+    
+    @CreatedDate
+    @Column(name = "deleted_at", nullable = false, updatable = false)
+    private LocalDateTime deletedAt;
+    
+    // Constructors
+    public TranslationTombstone() {}
+    
+    public TranslationTombstone(String key, String locale) {
+        this.key = key;
+        this.locale = locale;
+    }
+    
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public String getKey() { return key; }
+    public void setKey(String key) { this.key = key; }
+    
+    public String getLocale() { return locale; }
+    public void setLocale(String locale) { this.locale = locale; }
+    
+    public LocalDateTime getDeletedAt() { return deletedAt; }
+    public void setDeletedAt(LocalDateTime deletedAt) { this.deletedAt = deletedAt; }
+}
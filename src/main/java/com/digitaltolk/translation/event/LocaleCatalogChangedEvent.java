@@ -0,0 +1,17 @@
+package com.digitaltolk.translation.event;
+
+/**
+ * Published once the cached catalog of a locale reflects a batch of committed writes, either patched in place or
+ * evicted for the next read to reload. Listeners that derive data from the catalog invalidate on this event
+ * rather than on the individual {@link TranslationChangedEvent}s.
+ */
+public class LocaleCatalogChangedEvent {
+    
+    private final String locale;
+    
+    public LocaleCatalogChangedEvent(String locale) {
+        this.locale = locale;
+    }
+    
+    public String getLocale() { return locale; }
+}
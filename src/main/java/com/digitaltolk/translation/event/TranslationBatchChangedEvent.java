@@ -0,0 +1,29 @@
+package com.digitaltolk.translation.event;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Published once for many translation writes committed together, such as a bulk load or the writes of other nodes
+ * replayed from the change log, instead of one {@link TranslationChangedEvent} each. Listeners apply the whole batch
+ * in one pass, with one re-read per locale or index rather than one per translation.
+ */
+public class TranslationBatchChangedEvent {
+
+    private final List<TranslationChangedEvent> changes;
+
+    public TranslationBatchChangedEvent(List<TranslationChangedEvent> changes) {
+        this.changes = List.copyOf(changes);
+    }
+
+    public List<TranslationChangedEvent> getChanges() { return changes; }
+
+    public Set<String> getAffectedLocales() {
+        Set<String> locales = new LinkedHashSet<>();
+        for (TranslationChangedEvent change : changes) {
+            locales.addAll(change.getAffectedLocales());
+        }
+        return locales;
+    }
+}
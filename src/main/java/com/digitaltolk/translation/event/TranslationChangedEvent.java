@@ -0,0 +1,70 @@
+package com.digitaltolk.translation.event;
+
+import com.digitaltolk.translation.entity.Translation;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Published by the service write path for every created, updated or deleted translation.
+ * Carries the key and locale before and after the change so listeners can scope their work.
+ */
+public class TranslationChangedEvent {
+    
+    public enum ChangeType { CREATED, UPDATED, DELETED }
+    
+    private final ChangeType type;
+    private final Long translationId;
+    private final String previousKey;
+    private final String previousLocale;
+    private final String key;
+    private final String locale;
+    
+    public TranslationChangedEvent(ChangeType type, Long translationId, String previousKey, String previousLocale,
+                                   String key, String locale) {
+        this.type = type;
+        this.translationId = translationId;
+        this.previousKey = previousKey;
+        this.previousLocale = previousLocale;
+        this.key = key;
+        this.locale = locale;
+    }
+    
+    public static TranslationChangedEvent created(Translation translation) {
+        return new TranslationChangedEvent(ChangeType.CREATED, translation.getId(), null, null,
+            translation.getKey(), translation.getLocale());
+    }
+    
+    public static TranslationChangedEvent updated(String previousKey, String previousLocale, Translation translation) {
+        return new TranslationChangedEvent(ChangeType.UPDATED, translation.getId(), previousKey, previousLocale,
+            translation.getKey(), translation.getLocale());
+    }
+    
+    public static TranslationChangedEvent deleted(Translation translation) {
+        return new TranslationChangedEvent(ChangeType.DELETED, translation.getId(), translation.getKey(),
+            translation.getLocale(), null, null);
+    }
+    
+    public ChangeType getType() { return type; }
+    
+    public Long getTranslationId() { return translationId; }
+    
+    public String getPreviousKey() { return previousKey; }
+    
+    public String getPreviousLocale() { return previousLocale; }
+    
+    public String getKey() { return key; }
+    
+    public String getLocale() { return locale; }
+    
+    public Set<String> getAffectedLocales() {
+        Set<String> locales = new LinkedHashSet<>(2);
+        if (previousLocale != null) {
+            locales.add(previousLocale);
+        }
+        if (locale != null) {
+            locales.add(locale);
+        }
+        return locales;
+    }
+}
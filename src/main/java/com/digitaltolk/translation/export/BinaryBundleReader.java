@@ -0,0 +1,130 @@
+package com.digitaltolk.translation.export;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Reference decoder for the format written by {@link BinaryBundleWriter}. Opening a bundle reads the header
+ * and the prefix dictionary; {@link #get(String)} binary-searches the index and decodes only the records it
+ * touches.
+ */
+public final class BinaryBundleReader {
+
+    private final ByteBuffer buffer;
+    private final int entryCount;
+    private final int keysOffset;
+    private final int valuesOffset;
+    private final String[] prefixes;
+
+    private BinaryBundleReader(ByteBuffer buffer) {
+        this.buffer = buffer;
+        byte[] magic = new byte[BinaryBundleWriter.MAGIC.length];
+        if (buffer.limit() < BinaryBundleWriter.HEADER_SIZE) {
+            throw new IllegalArgumentException("Not a binary translation bundle");
+        }
+        buffer.get(0, magic);
+        if (!Arrays.equals(magic, BinaryBundleWriter.MAGIC)) {
+            throw new IllegalArgumentException("Not a binary translation bundle");
+        }
+        this.entryCount = buffer.getInt(4);
+        this.keysOffset = buffer.getInt(12);
+        this.valuesOffset = buffer.getInt(16);
+
+        this.prefixes = new String[buffer.getInt(8)];
+        int[] position = {BinaryBundleWriter.HEADER_SIZE + entryCount * 4};
+        for (int i = 0; i < prefixes.length; i++) {
+            prefixes[i] = readString(position);
+        }
+    }
+
+    public static BinaryBundleReader of(byte[] bundle) {
+        return of(ByteBuffer.wrap(bundle));
+    }
+
+    public static BinaryBundleReader of(ByteBuffer bundle) {
+        return new BinaryBundleReader(bundle.slice());
+    }
+
+    public int size() {
+        return entryCount;
+    }
+
+    public String get(String key) {
+        int low = 0;
+        int high = entryCount - 1;
+        int[] position = new int[1];
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            position[0] = recordPosition(mid);
+            int comparison = readKey(position).compareTo(key);
+            if (comparison < 0) {
+                low = mid + 1;
+            } else if (comparison > 0) {
+                high = mid - 1;
+            } else {
+                return readValue(position);
+            }
+        }
+        return null;
+    }
+
+    public String keyAt(int index) {
+        return readKey(new int[]{recordPosition(index)});
+    }
+
+    public String valueAt(int index) {
+        int[] position = {recordPosition(index)};
+        readKey(position);
+        return readValue(position);
+    }
+
+    public Map<String, String> toMap() {
+        Map<String, String> entries = new LinkedHashMap<>(entryCount * 4 / 3 + 1);
+        int[] position = new int[1];
+        for (int i = 0; i < entryCount; i++) {
+            position[0] = recordPosition(i);
+            String key = readKey(position);
+            entries.put(key, readValue(position));
+        }
+        return entries;
+    }
+
+    private int recordPosition(int index) {
+        if (index < 0 || index >= entryCount) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return keysOffset + buffer.getInt(BinaryBundleWriter.HEADER_SIZE + index * 4);
+    }
+
+    private String readKey(int[] position) {
+        int prefixId = readVarint(position);
+        String suffix = readString(position);
+        return prefixId == 0 ? suffix : prefixes[prefixId - 1] + "." + suffix;
+    }
+
+    private String readValue(int[] position) {
+        return readString(new int[]{valuesOffset + readVarint(position)});
+    }
+
+    private String readString(int[] position) {
+        int length = readVarint(position);
+        byte[] bytes = new byte[length];
+        buffer.get(position[0], bytes);
+        position[0] += length;
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private int readVarint(int[] position) {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = buffer.get(position[0]++);
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.digitaltolk.translation.export;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Encodes a locale bundle in the compact binary export format. Fixed-width integers are big-endian;
+ * varints are unsigned LEB128.
+ *
+ * <pre>
+ * header    "TRB1" | u32 entryCount | u32 prefixCount | u32 keysOffset | u32 valuesOffset
+ * index     entryCount x u32 key record offset, relative to keysOffset, ordered by key
+ * prefixes  prefixCount x (varint byteLength | UTF-8 bytes)
+ * keys      per entry: varint prefixId + 1 (0 = none) | varint byteLength | UTF-8 suffix | varint valueOffset
+ * values    per distinct value: varint byteLength | UTF-8 bytes, valueOffset is relative to valuesOffset
+ * </pre>
+ *
+ * A key is its prefix (everything before the last '.') joined to its suffix with a '.', so namespaces such as
+ * {@code navigation} are stored once in the shared dictionary, and repeated values are stored once. Keys are
+ * ordered like {@link String#compareTo}, which lets a client binary-search the fixed-width index after
+ * reading only the header and the small prefix dictionary.
+ */
+public final class BinaryBundleWriter {
+
+    public static final String MEDIA_TYPE = "application/vnd.translation-bundle";
+
+    static final byte[] MAGIC = {'T', 'R', 'B', '1'};
+    static final int HEADER_SIZE = 20;
+
+    private BinaryBundleWriter() {
+    }
+
+    /**
+     * @param entries bundle entries; iteration order does not matter, the index is sorted here
+     */
+    public static byte[] encode(Map<String, String> entries) {
+        SortedMap<String, String> sorted = entries instanceof SortedMap<String, String> map && map.comparator() == null
+            ? map : new TreeMap<>(entries);
+
+        Map<String, Integer> prefixIds = new HashMap<>();
+        ByteArrayOutputStream prefixes = new ByteArrayOutputStream();
+        Map<String, Integer> valueOffsets = new HashMap<>();
+        ByteArrayOutputStream values = new ByteArrayOutputStream();
+        ByteArrayOutputStream keys = new ByteArrayOutputStream();
+        ByteBuffer index = ByteBuffer.allocate(sorted.size() * 4);
+
+        for (Map.Entry<String, String> entry : sorted.entrySet()) {
+            index.putInt(keys.size());
+            String key = entry.getKey();
+            int dot = key.lastIndexOf('.');
+            if (dot < 0) {
+                writeVarint(keys, 0);
+            } else {
+                String prefix = key.substring(0, dot);
+                Integer prefixId = prefixIds.get(prefix);
+                if (prefixId == null) {
+                    prefixId = prefixIds.size();
+                    prefixIds.put(prefix, prefixId);
+                    writeString(prefixes, prefix);
+                }
+                writeVarint(keys, prefixId + 1);
+            }
+            writeString(keys, key.substring(dot + 1));
+
+            Integer valueOffset = valueOffsets.get(entry.getValue());
+            if (valueOffset == null) {
+                valueOffset = values.size();
+                valueOffsets.put(entry.getValue(), valueOffset);
+                writeString(values, entry.getValue());
+            }
+            writeVarint(keys, valueOffset);
+        }
+
+        int keysOffset = HEADER_SIZE + index.capacity() + prefixes.size();
+        int valuesOffset = keysOffset + keys.size();
+        return ByteBuffer.allocate(valuesOffset + values.size())
+            .put(MAGIC)
+            .putInt(sorted.size())
+            .putInt(prefixIds.size())
+            .putInt(keysOffset)
+            .putInt(valuesOffset)
+            .put(index.array())
+            .put(prefixes.toByteArray())
+            .put(keys.toByteArray())
+            .put(values.toByteArray())
+            .array();
+    }
+
+    private static void writeString(ByteArrayOutputStream out, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarint(out, bytes.length);
+        out.writeBytes(bytes);
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+}
@@ -0,0 +1,166 @@
+package com.digitaltolk.translation.export;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Ready-to-send export body for one locale, kept both as identity and gzip bytes
+ * together with a strong ETag derived from the identity body. Snapshots loaded from the
+ * {@link SnapshotFileStore} are memory-mapped instead of held on the heap.
+ */
+public final class ExportSnapshot {
+
+    private final byte[] body;
+    private final byte[] gzipBody;
+    private final MappedFile mappedBody;
+    private final MappedFile mappedGzipBody;
+    private final String hash;
+    private final String etag;
+    private final String gzipEtag;
+    private final long cursor;
+
+    private ExportSnapshot(byte[] body, byte[] gzipBody, MappedFile mappedBody, MappedFile mappedGzipBody,
+                           String hash, long cursor) {
+        this.body = body;
+        this.gzipBody = gzipBody;
+        this.mappedBody = mappedBody;
+        this.mappedGzipBody = mappedGzipBody;
+        this.hash = hash;
+        this.etag = "\"" + hash + "\"";
+        this.gzipEtag = "\"" + hash + "-gzip\"";
+        this.cursor = cursor;
+    }
+
+    public static ExportSnapshot of(byte[] body) {
+        return of(body, 0);
+    }
+
+    /**
+     * @param cursor delta cursor a client can resume from after downloading this body
+     */
+    public static ExportSnapshot of(byte[] body, long cursor) {
+        return new ExportSnapshot(body, gzip(body), null, null, sha256(body), cursor);
+    }
+
+    /**
+     * Maps previously written identity and gzip files read-only and faults them into memory, so the first
+     * request after a restart is served from the page cache.
+     */
+    static ExportSnapshot mapped(Path bodyFile, Path gzipFile, String hash, long cursor) throws IOException {
+        return new ExportSnapshot(null, null, MappedFile.map(bodyFile), MappedFile.map(gzipFile), hash, cursor);
+    }
+
+    /**
+     * Returns the identity body; for a mapped snapshot this copies the file onto the heap.
+     */
+    public byte[] getBody() { return body != null ? body : mappedBody.toByteArray(); }
+
+    public byte[] getGzipBody() { return gzipBody != null ? gzipBody : mappedGzipBody.toByteArray(); }
+
+    public long getLength(boolean gzip) {
+        if (body != null) {
+            return gzip ? gzipBody.length : body.length;
+        }
+        return gzip ? mappedGzipBody.buffer.capacity() : mappedBody.buffer.capacity();
+    }
+
+    /**
+     * Returns the file backing the requested representation, or {@code null} when the snapshot only lives on the heap.
+     */
+    public Path getFile(boolean gzip) {
+        if (body != null) {
+            return null;
+        }
+        return gzip ? mappedGzipBody.path : mappedBody.path;
+    }
+
+    /**
+     * Bytes this snapshot keeps on the heap; mapped snapshots live in the page cache instead.
+     */
+    public long getHeapSize() {
+        return body != null ? body.length + gzipBody.length : 0;
+    }
+
+    public String getHash() { return hash; }
+
+    public String getEtag() { return etag; }
+
+    public String getGzipEtag() { return gzipEtag; }
+
+    public long getCursor() { return cursor; }
+
+    /**
+     * Evaluates an If-None-Match header against both representations of this snapshot,
+     * using the weak comparison RFC 9110 prescribes for that header.
+     */
+    public boolean matches(String ifNoneMatch) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag) || tag.equals(gzipEtag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class MappedFile {
+
+        private final Path path;
+        private final MappedByteBuffer buffer;
+
+        private MappedFile(Path path, MappedByteBuffer buffer) {
+            this.path = path;
+            this.buffer = buffer;
+        }
+
+        static MappedFile map(Path path) throws IOException {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                buffer.load();
+                return new MappedFile(path, buffer);
+            }
+        }
+
+        byte[] toByteArray() {
+            byte[] bytes = new byte[buffer.capacity()];
+            buffer.get(0, bytes);
+            return bytes;
+        }
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, body.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static String sha256(byte[] body) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
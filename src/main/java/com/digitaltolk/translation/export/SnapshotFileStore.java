@@ -0,0 +1,157 @@
+package com.digitaltolk.translation.export;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.*;
+import java.util.*;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Persists export snapshots as files under {@code <dir>/<format>/<locale>/<version>.*} so a restarted node can
+ * map them back in instead of rebuilding from the database. Each snapshot is written as an identity body, a gzip
+ * body and a small properties file that is moved into place last and marks the snapshot as complete.
+ */
+@Component
+public class SnapshotFileStore {
+
+    private static final Logger log = LoggerFactory.getLogger(SnapshotFileStore.class);
+    private static final Pattern SAFE_NAME = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+    private static final String META_SUFFIX = ".properties";
+    private static final int RETAINED_VERSIONS = 2;
+
+    private final boolean enabled;
+    private final Path directory;
+
+    public SnapshotFileStore(@Value("${translation.export.snapshot-store.enabled:true}") boolean enabled,
+                             @Value("${translation.export.snapshot-store.dir:${java.io.tmpdir}/translation-export-snapshots}") String directory) {
+        this.enabled = enabled;
+        this.directory = Path.of(directory);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Optional<ExportSnapshot> load(String format, String locale, String version) {
+        if (!enabled || !isSafe(format, locale, version)) {
+            return Optional.empty();
+        }
+        Path dir = directory.resolve(format).resolve(locale);
+        Path meta = dir.resolve(version + META_SUFFIX);
+        if (!Files.exists(meta)) {
+            return Optional.empty();
+        }
+        try (InputStream in = Files.newInputStream(meta)) {
+            Properties properties = new Properties();
+            properties.load(in);
+            return Optional.of(ExportSnapshot.mapped(dir.resolve(version + ".body"), dir.resolve(version + ".gz"),
+                properties.getProperty("hash"), Long.parseLong(properties.getProperty("cursor"))));
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring unreadable export snapshot {}", meta, e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Writes the snapshot and returns its memory-mapped copy, so the heap copy can be dropped. Falls back to the
+     * given snapshot when the store is disabled or the files cannot be written.
+     */
+    public ExportSnapshot save(String format, String locale, String version, ExportSnapshot snapshot) {
+        if (!enabled || !isSafe(format, locale, version)) {
+            return snapshot;
+        }
+        Path dir = directory.resolve(format).resolve(locale);
+        try {
+            Files.createDirectories(dir);
+            Path body = writeAtomically(dir, version + ".body", snapshot.getBody());
+            Path gzip = writeAtomically(dir, version + ".gz", snapshot.getGzipBody());
+
+            Properties properties = new Properties();
+            properties.setProperty("hash", snapshot.getHash());
+            properties.setProperty("cursor", String.valueOf(snapshot.getCursor()));
+            Path temp = Files.createTempFile(dir, version, ".tmp");
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                properties.store(out, null);
+            }
+            Files.move(temp, dir.resolve(version + META_SUFFIX), StandardCopyOption.ATOMIC_MOVE,
+                StandardCopyOption.REPLACE_EXISTING);
+
+            pruneOldVersions(dir);
+            return ExportSnapshot.mapped(body, gzip, snapshot.getHash(), snapshot.getCursor());
+        } catch (IOException | UncheckedIOException e) {
+            log.warn("Could not persist {} export snapshot for {}", format, locale, e);
+            return snapshot;
+        }
+    }
+
+    /**
+     * Locales that have at least one complete snapshot stored in the given format.
+     */
+    public Set<String> storedLocales(String format) {
+        Path formatDir = directory.resolve(format);
+        if (!enabled || !Files.isDirectory(formatDir)) {
+            return Set.of();
+        }
+        Set<String> locales = new TreeSet<>();
+        try (Stream<Path> dirs = Files.list(formatDir)) {
+            dirs.filter(dir -> !metaFiles(dir).isEmpty())
+                .forEach(dir -> locales.add(dir.getFileName().toString()));
+        } catch (IOException e) {
+            log.warn("Could not list export snapshots in {}", formatDir, e);
+        }
+        return locales;
+    }
+
+    private static Path writeAtomically(Path dir, String name, byte[] bytes) throws IOException {
+        Path temp = Files.createTempFile(dir, name, ".tmp");
+        Files.write(temp, bytes);
+        return Files.move(temp, dir.resolve(name), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Keeps the newest versions only; the previous one stays around for responses that may still be sending it.
+     */
+    private static void pruneOldVersions(Path dir) throws IOException {
+        List<Path> metas = metaFiles(dir);
+        metas.sort(Comparator.comparing(SnapshotFileStore::lastModified).reversed());
+        for (Path meta : metas.subList(Math.min(RETAINED_VERSIONS, metas.size()), metas.size())) {
+            String version = meta.getFileName().toString().replace(META_SUFFIX, "");
+            Files.deleteIfExists(meta);
+            Files.deleteIfExists(dir.resolve(version + ".body"));
+            Files.deleteIfExists(dir.resolve(version + ".gz"));
+        }
+    }
+
+    private static List<Path> metaFiles(Path dir) {
+        try (Stream<Path> files = Files.list(dir)) {
+            return new ArrayList<>(files.filter(file -> file.getFileName().toString().endsWith(META_SUFFIX)).toList());
+        } catch (IOException e) {
+            return new ArrayList<>();
+        }
+    }
+
+    private static long lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static boolean isSafe(String... names) {
+        for (String name : names) {
+            if (name == null || !SAFE_NAME.matcher(name).matches()) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
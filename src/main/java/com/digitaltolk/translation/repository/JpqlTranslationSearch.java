@@ -0,0 +1,140 @@
+package com.digitaltolk.translation.repository;
+
+import com.digitaltolk.translation.dto.TranslationSearchFilter;
+import com.digitaltolk.translation.dto.TranslationSearchFilter.TagMatch;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Translation search in portable JPQL, assembled from only the predicates a {@link TranslationSearchFilter} sets.
+ * Tags are tested with EXISTS subqueries rather than joined, so a search without tags neither reads
+ * {@code translation_tags} nor needs a DISTINCT, and untagged translations are not lost; with several tags, each
+ * must be present (one EXISTS per tag) or any of them (one EXISTS over all of them), and excluded tags are tested with
+ * one NOT EXISTS.
+ * <p>
+ * Returns ids, which the caller loads with their tags; without a sort they are ascending, so the query can walk the
+ * primary key and stop after the page.
+ */
+@Repository
+public class JpqlTranslationSearch {
+
+    // Sortable properties, mapped to their paths; anything else is rejected rather than spliced into the query
+    private static final Map<String, String> SORTABLE = Map.of(
+        "id", "t.id",
+        "key", "t.key",
+        "locale", "t.locale",
+        "createdAt", "t.createdAt",
+        "updatedAt", "t.updatedAt");
+
+    private final EntityManager entityManager;
+
+    @Autowired
+    public JpqlTranslationSearch(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Ids of {@code limit} matches from {@code offset} on, in the order of {@code sort} and then by id.
+     *
+     * @throws IllegalArgumentException if {@code sort} names a property that cannot be sorted by
+     */
+    public List<Long> find(TranslationSearchFilter filter, Sort sort, long offset, int limit) {
+        Map<String, Object> params = new HashMap<>();
+        String where = where(filter, List.of(), params);
+        TypedQuery<Long> query = entityManager.createQuery(
+            "SELECT t.id FROM Translation t" + where + orderBy(sort), Long.class);
+        params.forEach(query::setParameter);
+        return query.setFirstResult(Math.toIntExact(offset)).setMaxResults(limit).getResultList();
+    }
+
+    /**
+     * Ids of the next {@code limit} matches after {@code afterId}, ascending.
+     */
+    public List<Long> findAfter(TranslationSearchFilter filter, long afterId, int limit) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("afterId", afterId);
+        String where = where(filter, List.of("t.id > :afterId"), params);
+        TypedQuery<Long> query = entityManager.createQuery(
+            "SELECT t.id FROM Translation t" + where + " ORDER BY t.id", Long.class);
+        params.forEach(query::setParameter);
+        return query.setMaxResults(limit).getResultList();
+    }
+
+    public long count(TranslationSearchFilter filter) {
+        Map<String, Object> params = new HashMap<>();
+        String where = where(filter, List.of(), params);
+        TypedQuery<Long> query = entityManager.createQuery("SELECT COUNT(t) FROM Translation t" + where, Long.class);
+        params.forEach(query::setParameter);
+        return query.getSingleResult();
+    }
+
+    /**
+     * Number of matches carrying each tag, for the tags any match carries.
+     */
+    public Map<String, Long> countByTag(TranslationSearchFilter filter) {
+        Map<String, Object> params = new HashMap<>();
+        String where = where(filter, List.of(), params);
+        TypedQuery<Object[]> query = entityManager.createQuery(
+            "SELECT counted.name, COUNT(t) FROM Translation t JOIN t.tags counted" + where + " GROUP BY counted.name",
+            Object[].class);
+        params.forEach(query::setParameter);
+        Map<String, Long> counts = new TreeMap<>();
+        for (Object[] row : query.getResultList()) {
+            counts.put((String) row[0], (Long) row[1]);
+        }
+        return counts;
+    }
+
+    private static String where(TranslationSearchFilter filter, List<String> extra, Map<String, Object> params) {
+        List<String> predicates = new ArrayList<>(extra);
+        if (filter.getKey() != null) {
+            predicates.add("t.key LIKE :key");
+            params.put("key", "%" + filter.getKey() + "%");
+        }
+        // Without a full-text index, full-text content is matched as a substring
+        if (filter.getContent() != null) {
+            predicates.add("t.content LIKE :content");
+            params.put("content", "%" + filter.getContent() + "%");
+        }
+        if (filter.getLocale() != null) {
+            predicates.add("t.locale = :locale");
+            params.put("locale", filter.getLocale());
+        }
+        if (filter.hasTags() && filter.getTagMatch() == TagMatch.ANY) {
+            predicates.add("EXISTS (SELECT 1 FROM t.tags tag WHERE tag.name IN :tags)");
+            params.put("tags", filter.getTags());
+        } else if (filter.hasTags()) {
+            List<String> tags = filter.getTags();
+            for (int i = 0; i < tags.size(); i++) {
+                predicates.add("EXISTS (SELECT 1 FROM t.tags tag" + i + " WHERE tag" + i + ".name = :tag" + i + ")");
+                params.put("tag" + i, tags.get(i));
+            }
+        }
+        if (filter.hasExcludedTags()) {
+            predicates.add("NOT EXISTS (SELECT 1 FROM t.tags excluded WHERE excluded.name IN :excludedTags)");
+            params.put("excludedTags", filter.getExcludedTags());
+        }
+        return predicates.isEmpty() ? "" : " WHERE " + String.join(" AND ", predicates);
+    }
+
+    private static String orderBy(Sort sort) {
+        StringBuilder order = new StringBuilder(" ORDER BY ");
+        for (Sort.Order property : sort) {
+            String path = SORTABLE.get(property.getProperty());
+            if (path == null) {
+                throw new IllegalArgumentException("Cannot sort translations by " + property.getProperty());
+            }
+            order.append(path).append(property.isAscending() ? " ASC, " : " DESC, ");
+        }
+        return order.append("t.id").toString();
+    }
+}
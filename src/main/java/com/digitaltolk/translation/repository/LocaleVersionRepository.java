@@ -0,0 +1,30 @@
+package com.digitaltolk.translation.repository;
+
+import com.digitaltolk.translation.entity.LocaleVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface LocaleVersionRepository extends JpaRepository<LocaleVersion, String> {
+    
+    @Modifying
+    @Query("UPDATE LocaleVersion v SET v.version = v.version + 1 WHERE v.locale = :locale")
+    int incrementVersion(@Param("locale") String locale);
+    
+    // Inserted rather than saved: save() merges an entity with an assigned id, overwriting a row created meanwhile
+    @Modifying
+    @Query(value = "INSERT INTO locale_versions (locale, catalog_version, created_at) VALUES (:locale, 0, :createdAt)",
+           nativeQuery = true)
+    int insertVersion(@Param("locale") String locale, @Param("createdAt") LocalDateTime createdAt);
+    
+    // Matches nothing once a later write has bumped the version
+    @Modifying
+    @Query("UPDATE LocaleVersion v SET v.exportHash = :hash, v.exportHashVersion = v.version " +
+           "WHERE v.locale = :locale AND v.version = :version")
+    int updateExportHash(@Param("locale") String locale, @Param("version") long version, @Param("hash") String hash);
+}
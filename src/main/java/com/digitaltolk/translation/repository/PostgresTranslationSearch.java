@@ -0,0 +1,200 @@
+package com.digitaltolk.translation.repository;
+
+import com.digitaltolk.translation.dto.SearchCursor;
+import com.digitaltolk.translation.dto.TranslationSearchFilter;
+import com.digitaltolk.translation.dto.TranslationSearchFilter.TagMatch;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Translation search in native PostgreSQL, served by the indexes of migration {@code V5__search_indexes}: trigram
+ * GIN indexes for key and content substrings and the stored, per-locale {@code content_search_vector} for full-text
+ * queries on content. Only active when the database is PostgreSQL; elsewhere the portable JPQL search is used.
+ * <p>
+ * Returns the ids of a page of matches, ordered by id, or by relevance for full-text queries. Filters mean what they
+ * mean in {@link JpqlTranslationSearch}: LIKE patterns are case-sensitive and keep their wildcards, and tags are
+ * tested with EXISTS only when the search names some.
+ */
+@Repository
+public class PostgresTranslationSearch {
+
+    private static final Logger log = LoggerFactory.getLogger(PostgresTranslationSearch.class);
+
+    private static final Pattern PLAN_ROWS = Pattern.compile(" rows=(\\d+) ");
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+
+    @Autowired
+    public PostgresTranslationSearch(NamedParameterJdbcTemplate jdbcTemplate, DataSource dataSource,
+                                     @Value("${translation.search.postgres-native.enabled:true}") boolean enabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled && isPostgres(dataSource);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * With {@code fullText}, {@code content} is a web-search style query ({@code "exact phrase"}, {@code or},
+     * {@code -excluded}) matched against stemmed content in the language of each translation's locale. Without a
+     * locale the query is parsed per row, which the full-text index cannot serve.
+     */
+    public Page<Long> search(TranslationSearchFilter filter, Pageable pageable) {
+        List<Long> ids = find(filter, pageable.getOffset(), pageable.getPageSize());
+        return PageableExecutionUtils.getPage(ids, pageable, () -> count(filter));
+    }
+
+    /**
+     * Ids of {@code limit} matches from {@code offset} on, in the order of {@link #search}, without counting them.
+     */
+    public List<Long> find(TranslationSearchFilter filter, long offset, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        Clauses clauses = clauses(filter, params);
+        String order = clauses.query() != null
+            ? " ORDER BY ts_rank(t.content_search_vector, " + clauses.query() + ") DESC, t.id"
+            : " ORDER BY t.id";
+        params.addValue("limit", limit);
+        params.addValue("offset", offset);
+        return jdbcTemplate.queryForList(
+            "SELECT t.id" + clauses.where() + order + " LIMIT :limit OFFSET :offset", params, Long.class);
+    }
+
+    public long count(TranslationSearchFilter filter) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        Clauses clauses = clauses(filter, params);
+        return jdbcTemplate.queryForObject("SELECT count(*)" + clauses.where(), params, Long.class);
+    }
+
+    /**
+     * The planner's estimate of the number of matches, from table statistics kept by ANALYZE and autovacuum: no
+     * rows are read, but the figure can be off by a wide margin for selective substring and full-text filters.
+     */
+    public long estimateCount(TranslationSearchFilter filter) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        Clauses clauses = clauses(filter, params);
+        // The first line of the plan describes its top node, which returns every match
+        List<String> plan = jdbcTemplate.queryForList("EXPLAIN SELECT t.id" + clauses.where(), params, String.class);
+        Matcher rows = PLAN_ROWS.matcher(plan.get(0));
+        if (!rows.find()) {
+            throw new IllegalStateException("No row estimate in query plan: " + plan.get(0));
+        }
+        return Long.parseLong(rows.group(1));
+    }
+
+    /**
+     * Positions of the next {@code limit} matches after {@code after} (from the start when null), in the order of
+     * {@link #search}. Seeking past the previous page instead of skipping an offset keeps every page as cheap as the
+     * first: id-ordered pages walk the primary key, and full-text pages, which have to rank all matches anyway,
+     * filter on the last (relevance, id) rather than ranking and discarding the earlier pages.
+     *
+     * @throws IllegalArgumentException if a full-text search continues from a cursor without a relevance
+     */
+    public List<SearchCursor> searchAfter(TranslationSearchFilter filter, SearchCursor after, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        Clauses clauses = clauses(filter, params);
+        StringBuilder sql = new StringBuilder();
+        if (clauses.query() != null) {
+            String rank = "ts_rank(t.content_search_vector, " + clauses.query() + ")";
+            sql.append("SELECT * FROM (SELECT t.id, ").append(rank).append(" AS rank").append(clauses.where())
+                .append(") ranked");
+            if (after != null) {
+                if (after.getRank() == null) {
+                    throw new IllegalArgumentException("Cursor does not belong to a full-text search");
+                }
+                sql.append(" WHERE rank < :afterRank OR (rank = :afterRank AND id > :afterId)");
+                params.addValue("afterRank", after.getRank());
+                params.addValue("afterId", after.getId());
+            }
+            sql.append(" ORDER BY rank DESC, id");
+        } else {
+            sql.append("SELECT t.id").append(clauses.where());
+            if (after != null) {
+                sql.append(" AND t.id > :afterId");
+                params.addValue("afterId", after.getId());
+            }
+            sql.append(" ORDER BY t.id");
+        }
+        sql.append(" LIMIT :limit");
+        params.addValue("limit", limit);
+        boolean ranked = clauses.query() != null;
+        return jdbcTemplate.query(sql.toString(), params, (rs, rowNum) ->
+            new SearchCursor(rs.getLong("id"), ranked ? rs.getFloat("rank") : null));
+    }
+
+    private static Clauses clauses(TranslationSearchFilter filter, MapSqlParameterSource params) {
+        // Always true, so that every predicate, and the keyset condition after them, can start with AND
+        StringBuilder where = new StringBuilder(" FROM translations t WHERE TRUE");
+        if (filter.getKey() != null) {
+            where.append(" AND t.translation_key LIKE :key");
+            params.addValue("key", "%" + filter.getKey() + "%");
+        }
+        String query = null;
+        if (filter.getContent() != null && filter.isFullText()) {
+            // As a sub-select the query is parsed once per statement, not once per row, even under a generic plan
+            query = filter.getLocale() != null
+                ? "(SELECT websearch_to_tsquery(translation_search_config(:locale), :content))"
+                : "websearch_to_tsquery(translation_search_config(t.locale), :content)";
+            where.append(" AND t.content_search_vector @@ ").append(query);
+            params.addValue("content", filter.getContent());
+        } else if (filter.getContent() != null) {
+            where.append(" AND t.content LIKE :content");
+            params.addValue("content", "%" + filter.getContent() + "%");
+        }
+        if (filter.getLocale() != null) {
+            where.append(" AND t.locale = :locale");
+            params.addValue("locale", filter.getLocale());
+        }
+        if (filter.hasTags() && filter.getTagMatch() == TagMatch.ANY) {
+            where.append(" AND EXISTS (SELECT 1 FROM translation_tags tt JOIN tags g ON g.id = tt.tag_id")
+                .append(" WHERE tt.translation_id = t.id AND g.name IN (:tags))");
+            params.addValue("tags", filter.getTags());
+        } else if (filter.hasTags()) {
+            List<String> tags = filter.getTags();
+            for (int i = 0; i < tags.size(); i++) {
+                where.append(" AND EXISTS (SELECT 1 FROM translation_tags tt JOIN tags g ON g.id = tt.tag_id")
+                    .append(" WHERE tt.translation_id = t.id AND g.name = :tag").append(i).append(")");
+                params.addValue("tag" + i, tags.get(i));
+            }
+        }
+        if (filter.hasExcludedTags()) {
+            where.append(" AND NOT EXISTS (SELECT 1 FROM translation_tags tt JOIN tags g ON g.id = tt.tag_id")
+                .append(" WHERE tt.translation_id = t.id AND g.name IN (:excludedTags))");
+            params.addValue("excludedTags", filter.getExcludedTags());
+        }
+        return new Clauses(where.toString(), query);
+    }
+
+    /**
+     * The FROM and WHERE clauses of a search, and the full-text query expression when it ranks by relevance.
+     */
+    private record Clauses(String where, String query) {
+    }
+
+    private static boolean isPostgres(DataSource dataSource) {
+        try {
+            String product = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+            return "PostgreSQL".equals(product);
+        } catch (MetaDataAccessException e) {
+            log.warn("Could not determine the database product, using the portable search", e);
+            return false;
+        }
+    }
+}
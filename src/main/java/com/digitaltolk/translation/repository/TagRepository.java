@@ -4,10 +4,13 @@ import com.digitaltolk.translation.entity.Tag;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface TagRepository extends JpaRepository<Tag, Long> {
     Optional<Tag> findByName(String name);
+    List<Tag> findByNameIn(Collection<String> names);
     boolean existsByName(String name);
 }
@@ -0,0 +1,32 @@
+package com.digitaltolk.translation.repository;
+
+import com.digitaltolk.translation.entity.TranslationChange;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface TranslationChangeRepository extends JpaRepository<TranslationChange, Long> {
+    
+    @Query("SELECT COALESCE(MAX(c.id), 0) FROM TranslationChange c")
+    long findMaxId();
+    
+    @Query("SELECT c FROM TranslationChange c WHERE c.id > :after ORDER BY c.id")
+    List<TranslationChange> findChangesAfter(@Param("after") long after, Pageable pageable);
+    
+    @Query("SELECT c FROM TranslationChange c WHERE c.id IN :ids ORDER BY c.id")
+    List<TranslationChange> findChangesIn(@Param("ids") Collection<Long> ids);
+    
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM TranslationChange c WHERE c.changedAt < :before")
+    int deleteChangesBefore(@Param("before") LocalDateTime before);
+}
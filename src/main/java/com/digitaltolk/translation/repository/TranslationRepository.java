@@ -1,15 +1,25 @@
 package com.digitaltolk.translation.repository;
 
+import com.digitaltolk.translation.dto.TranslationEntry;
+import com.digitaltolk.translation.dto.TranslationSearchRow;
+import com.digitaltolk.translation.dto.TranslationTagLink;
 import com.digitaltolk.translation.entity.Translation;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface TranslationRepository extends JpaRepository<Translation, Long> {
@@ -21,24 +31,77 @@ public interface TranslationRepository extends JpaRepository<Translation, Long>
     @Query("SELECT t FROM Translation t WHERE t.locale = :locale ORDER BY t.key")
     List<Translation> findByLocaleOrderByKey(@Param("locale") String locale);
     
+    @Query("SELECT new com.digitaltolk.translation.dto.TranslationEntry(t.key, t.content) " +
+           "FROM Translation t WHERE t.locale = :locale ORDER BY t.key")
+    List<TranslationEntry> findEntriesByLocale(@Param("locale") String locale);
+    
+    @Query("SELECT new com.digitaltolk.translation.dto.TranslationEntry(t.key, t.content) " +
+           "FROM Translation t WHERE t.locale = :locale AND t.key IN :keys ORDER BY t.key")
+    List<TranslationEntry> findEntriesByLocaleAndKeys(@Param("locale") String locale,
+                                                      @Param("keys") Collection<String> keys);
+    
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.digitaltolk.translation.dto.TranslationEntry(t.key, t.content) " +
+           "FROM Translation t WHERE t.locale = :locale ORDER BY t.key")
+    Stream<TranslationEntry> streamEntriesByLocale(@Param("locale") String locale);
+    
+    @Query("SELECT new com.digitaltolk.translation.dto.TranslationEntry(t.key, t.content) " +
+           "FROM Translation t WHERE t.locale = :locale AND (t.key = :namespace OR t.key LIKE :keyPrefix ESCAPE '\\') " +
+           "ORDER BY t.key")
+    List<TranslationEntry> findEntriesByLocaleAndNamespace(@Param("locale") String locale,
+                                                           @Param("namespace") String namespace,
+                                                           @Param("keyPrefix") String keyPrefix);
+    
+    @Query("SELECT new com.digitaltolk.translation.dto.TranslationEntry(t.key, t.content) " +
+           "FROM Translation t WHERE t.key = :key AND t.locale = :locale")
+    Optional<TranslationEntry> findEntryByKeyAndLocale(@Param("key") String key, @Param("locale") String locale);
+    
+    @Query("SELECT t FROM Translation t WHERE t.locale = :locale AND t.updatedAt > :since ORDER BY t.key")
+    List<Translation> findByLocaleChangedSince(@Param("locale") String locale, @Param("since") LocalDateTime since);
+    
+    @Query("SELECT DISTINCT t.key FROM Translation t WHERE t.locale = :locale AND t.key IN :keys")
+    List<String> findExistingKeys(@Param("locale") String locale, @Param("keys") Collection<String> keys);
+    
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT DISTINCT t.key FROM Translation t")
+    Stream<String> streamDistinctKeys();
+    
+    @Query("SELECT DISTINCT t.key FROM Translation t WHERE t.key IN :keys")
+    List<String> findDistinctKeysIn(@Param("keys") Collection<String> keys);
+    
+    @Query("SELECT DISTINCT t.key FROM Translation t WHERE t.key LIKE :keyPrefix ESCAPE '\\' ORDER BY t.key")
+    List<String> findDistinctKeysLike(@Param("keyPrefix") String keyPrefix, Pageable pageable);
+    
     @Query("SELECT t FROM Translation t WHERE t.key LIKE %:key% OR t.content LIKE %:content%")
     Page<Translation> searchByKeyOrContent(@Param("key") String key, @Param("content") String content, Pageable pageable);
     
     @Query("SELECT DISTINCT t FROM Translation t JOIN t.tags tag WHERE tag.name IN :tagNames")
     Page<Translation> findByTagNames(@Param("tagNames") List<String> tagNames, Pageable pageable);
     
-    @Query("SELECT DISTINCT t FROM Translation t JOIN t.tags tag WHERE " +
-           "(:key IS NULL OR t.key LIKE %:key%) AND " +
-           "(:content IS NULL OR t.content LIKE %:content%) AND " +
-           "(:locale IS NULL OR t.locale = :locale) AND " +
-           "(:tagName IS NULL OR tag.name = :tagName)")
-    Page<Translation> searchTranslations(
-        @Param("key") String key,
-        @Param("content") String content,
-        @Param("locale") String locale,
-        @Param("tagName") String tagName,
-        Pageable pageable
-    );
+    @Query("SELECT new com.digitaltolk.translation.dto.TranslationSearchRow(t.id, t.key, t.locale, t.content) " +
+           "FROM Translation t WHERE t.locale = :locale ORDER BY t.id")
+    List<TranslationSearchRow> findSearchRowsByLocale(@Param("locale") String locale);
+    
+    @Query("SELECT new com.digitaltolk.translation.dto.TranslationSearchRow(t.id, t.key, t.locale, t.content) " +
+           "FROM Translation t WHERE t.id IN :ids")
+    List<TranslationSearchRow> findSearchRowsByIds(@Param("ids") Collection<Long> ids);
+    
+    @Query("SELECT t.id FROM Translation t WHERE t.locale = :locale")
+    List<Long> findIdsByLocale(@Param("locale") String locale);
+    
+    @Query("SELECT t.id FROM Translation t WHERE t.id IN :ids")
+    List<Long> findIdsByIdIn(@Param("ids") Collection<Long> ids);
+    
+    @Query("SELECT new com.digitaltolk.translation.dto.TranslationTagLink(t.id, tag.id) " +
+           "FROM Translation t JOIN t.tags tag WHERE t.locale = :locale")
+    List<TranslationTagLink> findTagLinksByLocale(@Param("locale") String locale);
+    
+    @Query("SELECT new com.digitaltolk.translation.dto.TranslationTagLink(t.id, tag.id) " +
+           "FROM Translation t JOIN t.tags tag WHERE t.id IN :ids")
+    List<TranslationTagLink> findTagLinksByIds(@Param("ids") Collection<Long> ids);
+    
+    @Query("SELECT DISTINCT t FROM Translation t LEFT JOIN FETCH t.tags WHERE t.id IN :ids")
+    List<Translation> findWithTagsByIdIn(@Param("ids") Collection<Long> ids);
     
     @Query("SELECT COUNT(t) FROM Translation t")
     long countAll();
@@ -0,0 +1,24 @@
+package com.digitaltolk.translation.repository;
+
+import com.digitaltolk.translation.entity.TranslationTombstone;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TranslationTombstoneRepository extends JpaRepository<TranslationTombstone, Long> {
+    
+    @Query("SELECT DISTINCT t.key FROM TranslationTombstone t WHERE t.locale = :locale AND t.deletedAt > :since")
+    List<String> findDeletedKeysSince(@Param("locale") String locale, @Param("since") LocalDateTime since);
+    
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM TranslationTombstone t WHERE t.deletedAt < :before")
+    int deleteTombstonesBefore(@Param("before") LocalDateTime before);
+}
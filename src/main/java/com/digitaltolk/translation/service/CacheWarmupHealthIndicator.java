@@ -0,0 +1,31 @@
+package com.digitaltolk.translation.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Shows the progress of the startup cache warm-up. Always up: a warming node is healthy, it is only kept out of
+ * rotation, which {@link CacheWarmupService} does through the readiness state.
+ */
+@Component
+public class CacheWarmupHealthIndicator implements HealthIndicator {
+
+    private final CacheWarmupService cacheWarmupService;
+
+    @Autowired
+    public CacheWarmupHealthIndicator(CacheWarmupService cacheWarmupService) {
+        this.cacheWarmupService = cacheWarmupService;
+    }
+
+    @Override
+    public Health health() {
+        return Health.up()
+            .withDetail("state", cacheWarmupService.getState())
+            .withDetail("locales", cacheWarmupService.getLocaleCount())
+            .withDetail("failures", cacheWarmupService.getFailures())
+            .withDetail("durationMs", cacheWarmupService.getDurationMillis())
+            .build();
+    }
+}
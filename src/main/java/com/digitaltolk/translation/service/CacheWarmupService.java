@@ -0,0 +1,184 @@
+package com.digitaltolk.translation.service;
+
+import com.digitaltolk.translation.export.SnapshotFileStore;
+import com.digitaltolk.translation.repository.TranslationRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fills the per-locale caches in the background once the application has started, so the first requests after a
+ * deploy do not each pay for a full catalog load. Every locale gets its locale catalog and JSON export snapshot,
+ * plus the binary snapshot where a previous run persisted one; at most {@code concurrency} of these loads hit the
+ * database at a time.
+ * <p>
+ * Boot reports the node ready right after the ready event that starts the warm-up; while it is running, readiness is
+ * set back to {@code REFUSING_TRAFFIC} and restored once it has finished or the timeout has passed. Only the
+ * readiness probe goes {@code OUT_OF_SERVICE}, the overall health stays up. Key lookups need no warming here: they are
+ * answered by the {@link ResidentCatalogService}, which loads in its own ready-event listener and so before Boot
+ * reports ready, and otherwise read single rows uncached.
+ */
+@Service
+public class CacheWarmupService {
+
+    public enum State { PENDING, RUNNING, COMPLETED, TIMED_OUT, DISABLED }
+
+    private static final Logger log = LoggerFactory.getLogger(CacheWarmupService.class);
+
+    private final TranslationRepository translationRepository;
+    private final TranslationService translationService;
+    private final TranslationExportService translationExportService;
+    private final SnapshotFileStore snapshotStore;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean enabled;
+    private final Duration timeout;
+    private final ExecutorService executor;
+    private final AtomicInteger failures = new AtomicInteger();
+    private volatile State state = State.PENDING;
+    private volatile int localeCount;
+    private volatile long durationMillis;
+    // Whether readiness was taken back and still has to be restored; guarded by this
+    private boolean refusingTraffic;
+
+    @Autowired
+    public CacheWarmupService(TranslationRepository translationRepository, TranslationService translationService,
+                              TranslationExportService translationExportService, SnapshotFileStore snapshotStore,
+                              ApplicationEventPublisher eventPublisher,
+                              @Value("${translation.cache.warmup.enabled:true}") boolean enabled,
+                              @Value("${translation.cache.warmup.concurrency:2}") int concurrency,
+                              @Value("${translation.cache.warmup.timeout:PT2M}") Duration timeout) {
+        this.translationRepository = translationRepository;
+        this.translationService = translationService;
+        this.translationExportService = translationExportService;
+        this.snapshotStore = snapshotStore;
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+        this.timeout = timeout;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(Math.max(concurrency, 1), runnable -> {
+            Thread thread = new Thread(runnable, "cache-warmup-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public int getLocaleCount() {
+        return localeCount;
+    }
+
+    public int getFailures() {
+        return failures.get();
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        run();
+    }
+
+    @EventListener
+    public synchronized void onReadinessChanged(AvailabilityChangeEvent<ReadinessState> event) {
+        if (event.getState() == ReadinessState.ACCEPTING_TRAFFIC && state == State.RUNNING && !refusingTraffic) {
+            refusingTraffic = true;
+            AvailabilityChangeEvent.publish(eventPublisher, this, ReadinessState.REFUSING_TRAFFIC);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Starts the warm-up without waiting for it; the returned future completes once the node may be reported ready.
+     */
+    CompletableFuture<Void> run() {
+        if (!enabled) {
+            state = State.DISABLED;
+            return CompletableFuture.completedFuture(null);
+        }
+        state = State.RUNNING;
+        long start = System.currentTimeMillis();
+        return CompletableFuture.supplyAsync(translationRepository::findDistinctLocales, executor)
+            .thenCompose(this::warmUp)
+            .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+            .handle((ignored, error) -> {
+                durationMillis = System.currentTimeMillis() - start;
+                if (error instanceof TimeoutException) {
+                    log.warn("Cache warm-up did not finish within {}; reporting ready with caches partly cold",
+                        timeout);
+                    finish(State.TIMED_OUT);
+                } else {
+                    if (error != null) {
+                        failures.incrementAndGet();
+                        log.warn("Could not list locales for cache warm-up", error);
+                    }
+                    log.info("Warmed caches for {} locales in {} ms ({} failed)", localeCount, durationMillis,
+                        failures.get());
+                    finish(State.COMPLETED);
+                }
+                return null;
+            });
+    }
+
+    private synchronized void finish(State finalState) {
+        state = finalState;
+        if (refusingTraffic) {
+            refusingTraffic = false;
+            AvailabilityChangeEvent.publish(eventPublisher, this, ReadinessState.ACCEPTING_TRAFFIC);
+        }
+    }
+
+    private CompletableFuture<Void> warmUp(List<String> locales) {
+        localeCount = locales.size();
+        Set<String> storedBinary = snapshotStore.storedLocales(TranslationExportService.BINARY_FORMAT);
+        List<CompletableFuture<Void>> loads = new ArrayList<>();
+        for (String locale : locales) {
+            loads.add(load(locale, "locale catalog", () -> translationService.getTranslationsForLocale(locale)));
+            loads.add(load(locale, "export snapshot", () -> translationExportService.getExportSnapshot(locale)));
+            if (storedBinary.contains(locale)) {
+                loads.add(load(locale, "binary export snapshot",
+                    () -> translationExportService.getBinaryExportSnapshot(locale)));
+            }
+        }
+        return CompletableFuture.allOf(loads.toArray(CompletableFuture<?>[]::new));
+    }
+
+    // A failed load only leaves that cache cold; it must not hold back readiness
+    private CompletableFuture<Void> load(String locale, String what, Runnable loader) {
+        return CompletableFuture.runAsync(() -> {
+            try {
+                loader.run();
+            } catch (RuntimeException e) {
+                failures.incrementAndGet();
+                log.warn("Could not warm {} for {}", what, locale, e);
+            }
+        }, executor);
+    }
+}
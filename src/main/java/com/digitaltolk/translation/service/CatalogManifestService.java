@@ -0,0 +1,101 @@
+package com.digitaltolk.translation.service;
+
+import com.digitaltolk.translation.dto.LocaleManifestDto;
+import com.digitaltolk.translation.entity.LocaleVersion;
+import com.digitaltolk.translation.export.ExportSnapshot;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Lists the version and content hash of every locale, and resolves the hash-addressed bundle URLs it hands out.
+ * Hashes are the ones recorded with the locale versions whenever an export is built or patched, paired with the
+ * version they were built at, so polling the manifest reads neither translation rows nor export snapshots. A locale
+ * whose export is behind its version is listed at the version its hash belongs to, and has its export loaded in the
+ * background; one never exported yet is left out until then.
+ */
+@Service
+public class CatalogManifestService {
+    
+    public static final String BUNDLE_PATH = "/api/translations/bundles/";
+    
+    private static final Logger log = LoggerFactory.getLogger(CatalogManifestService.class);
+    
+    private final CatalogVersionService catalogVersionService;
+    private final TranslationExportService translationExportService;
+    private final Set<String> loading = ConcurrentHashMap.newKeySet();
+    private final ExecutorService loader = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "manifest-export-loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    @Autowired
+    public CatalogManifestService(CatalogVersionService catalogVersionService,
+                                  TranslationExportService translationExportService) {
+        this.catalogVersionService = catalogVersionService;
+        this.translationExportService = translationExportService;
+    }
+    
+    public Map<String, LocaleManifestDto> getManifest() {
+        Map<String, LocaleManifestDto> manifest = new TreeMap<>();
+        for (LocaleVersion localeVersion : catalogVersionService.getVersions()) {
+            String locale = localeVersion.getLocale();
+            String hash = localeVersion.getExportHash();
+            Long hashVersion = localeVersion.getExportHashVersion();
+            if (hash == null || hashVersion == null || hashVersion < localeVersion.getVersion()) {
+                loadInBackground(locale);
+            }
+            if (hash != null && hashVersion != null) {
+                manifest.put(locale, new LocaleManifestDto(hashVersion, hash, BUNDLE_PATH + locale + "/" + hash));
+            }
+        }
+        return manifest;
+    }
+    
+    /**
+     * Returns the locale's bundle only while its content still has the given hash. Hashes other than the recorded
+     * one are turned away without loading the export.
+     */
+    public Optional<ExportSnapshot> getBundle(String locale, String hash) {
+        boolean recorded = catalogVersionService.getVersion(locale)
+            .map(version -> hash.equals(version.getExportHash()))
+            .orElse(false);
+        if (!recorded) {
+            return Optional.empty();
+        }
+        ExportSnapshot snapshot = translationExportService.getExportSnapshot(locale);
+        return snapshot.getHash().equals(hash) ? Optional.of(snapshot) : Optional.empty();
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        loader.shutdownNow();
+    }
+    
+    // Through the cache, so this only builds when the export is missing, and records the hash when it does
+    private void loadInBackground(String locale) {
+        if (!loading.add(locale)) {
+            return;
+        }
+        loader.execute(() -> {
+            try {
+                translationExportService.getExportSnapshot(locale);
+            } catch (RuntimeException e) {
+                log.warn("Could not load export of {} for the manifest", locale, e);
+            } finally {
+                loading.remove(locale);
+            }
+        });
+    }
+}
@@ -0,0 +1,115 @@
+package com.digitaltolk.translation.service;
+
+import com.digitaltolk.translation.entity.LocaleVersion;
+import com.digitaltolk.translation.repository.LocaleVersionRepository;
+import com.digitaltolk.translation.repository.TranslationRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+
+/**
+ * Keeps a monotonic version per locale that every write bumps in the write's own transaction, so readers can tell a
+ * locale changed without looking at its rows. Locales that have translations but no version yet, such as those
+ * loaded before versions existed, are registered at version 0 on startup.
+ */
+@Service
+@Transactional
+public class CatalogVersionService {
+    
+    private final LocaleVersionRepository localeVersionRepository;
+    private final TranslationRepository translationRepository;
+    private final TransactionTemplate newTransaction;
+    
+    @Autowired
+    public CatalogVersionService(LocaleVersionRepository localeVersionRepository,
+                                 TranslationRepository translationRepository,
+                                 PlatformTransactionManager transactionManager) {
+        this.localeVersionRepository = localeVersionRepository;
+        this.translationRepository = translationRepository;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+    
+    public void bump(String locale) {
+        if (localeVersionRepository.incrementVersion(locale) == 0) {
+            register(locale);
+            localeVersionRepository.incrementVersion(locale);
+        }
+    }
+    
+    public void bump(Collection<String> locales) {
+        // Sorted so concurrent writers touching the same locales lock their rows in the same order
+        new TreeSet<>(locales).forEach(this::bump);
+    }
+    
+    @EventListener(ApplicationStartedEvent.class)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void registerLocales() {
+        Set<String> registered = new HashSet<>();
+        localeVersionRepository.findAll().forEach(version -> registered.add(version.getLocale()));
+        for (String locale : translationRepository.findDistinctLocales()) {
+            if (!registered.contains(locale)) {
+                register(locale);
+            }
+        }
+    }
+    
+    @Transactional(readOnly = true)
+    public List<LocaleVersion> getVersions() {
+        return localeVersionRepository.findAll();
+    }
+    
+    @Transactional(readOnly = true)
+    public Optional<LocaleVersion> getVersion(String locale) {
+        return localeVersionRepository.findById(locale);
+    }
+    
+    /**
+     * Records the hash of the locale's JSON export, built from rows read after {@code readAt} was, in a transaction
+     * of its own. Dropped when a write has bumped the version since, as the rows read may include some of it.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void recordExportHash(LocaleVersion readAt, String hash) {
+        if (Long.valueOf(readAt.getVersion()).equals(readAt.getExportHashVersion())
+                && hash.equals(readAt.getExportHash())) {
+            return;
+        }
+        newTransaction.executeWithoutResult(status ->
+            localeVersionRepository.updateExportHash(readAt.getLocale(), readAt.getVersion(), hash));
+    }
+    
+    /**
+     * Identifies the locale's current contents across restarts: the counter plus the time its row was created,
+     * so a recreated database that restarts counting cannot collide with snapshots stored for the previous one.
+     * Empty for locales not registered yet.
+     */
+    @Transactional(readOnly = true)
+    public Optional<String> getSnapshotKey(String locale) {
+        return localeVersionRepository.findById(locale)
+            .map(version -> version.getCreatedAt().toInstant(ZoneOffset.UTC).toEpochMilli() + "-" + version.getVersion());
+    }
+    
+    /**
+     * Creates the locale's row at version 0 in a transaction of its own, so that losing the race to a concurrent
+     * writer creating the same row fails only that transaction and not the caller's.
+     */
+    private void register(String locale) {
+        try {
+            newTransaction.executeWithoutResult(status ->
+                localeVersionRepository.insertVersion(locale, LocalDateTime.now()));
+        } catch (DataIntegrityViolationException e) {
+            // Another writer created it first
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.digitaltolk.translation.service;
+
+import com.digitaltolk.translation.entity.TranslationChange;
+import com.digitaltolk.translation.event.TranslationBatchChangedEvent;
+import com.digitaltolk.translation.event.TranslationChangedEvent;
+import com.digitaltolk.translation.repository.TranslationChangeRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the caches of every node in step without a message broker. Each write also inserts a row into
+ * {@code translation_changes} in the write's transaction, so the row commits or rolls back with the write; every node
+ * polls that table for rows written by other nodes and replays them as local {@link TranslationBatchChangedEvent}s,
+ * one per page of rows, so the usual listeners invalidate or patch their caches. Other nodes see a write within the
+ * poll interval plus the catalog patch debounce.
+ */
+@Service
+public class ChangeLogService {
+
+    private static final Logger log = LoggerFactory.getLogger(ChangeLogService.class);
+    private static final int BATCH_SIZE = 500;
+    // Ids are handed out at insert but become visible at commit, so a lower id can appear after a higher one.
+    // Skipped ids are looked up again until they show up or, for rolled back writes, this timeout passes.
+    private static final long GAP_TIMEOUT_MILLIS = Duration.ofMinutes(1).toMillis();
+    private static final int MAX_TRACKED_GAPS = 10_000;
+    private static final long PURGE_INTERVAL_MILLIS = Duration.ofMinutes(1).toMillis();
+
+    private final TranslationChangeRepository changeRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean enabled;
+    private final String nodeId;
+    private final Duration pollInterval;
+    private final Duration retention;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "change-log-poller");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Map<Long, Long> gaps = new HashMap<>();
+    private long cursor;
+    private long lastPurge;
+
+    @Autowired
+    public ChangeLogService(TranslationChangeRepository changeRepository, ApplicationEventPublisher eventPublisher,
+                            @Value("${translation.cluster.change-log.enabled:true}") boolean enabled,
+                            @Value("${translation.cluster.node-id:}") String nodeId,
+                            @Value("${translation.cluster.change-log.poll-interval:PT1S}") Duration pollInterval,
+                            @Value("${translation.cluster.change-log.retention:PT1H}") Duration retention) {
+        this.changeRepository = changeRepository;
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+        this.nodeId = nodeId.isBlank() ? UUID.randomUUID().toString() : nodeId;
+        this.pollInterval = pollInterval;
+        this.retention = retention;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Appends the change to the log as part of the caller's write transaction.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(TranslationChangedEvent event) {
+        if (enabled) {
+            changeRepository.save(new TranslationChange(nodeId, event));
+        }
+    }
+
+    /**
+     * Appends the changes of a batch write to the log as part of the caller's write transaction.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAll(List<TranslationChangedEvent> events) {
+        if (enabled && !events.isEmpty()) {
+            changeRepository.saveAll(events.stream().map(event -> new TranslationChange(nodeId, event)).toList());
+        }
+    }
+
+    /**
+     * Starts from the current end of the log: caches are still empty here, so older changes are already
+     * reflected in whatever they load.
+     */
+    @PostConstruct
+    public void init() {
+        if (enabled) {
+            cursor = changeRepository.findMaxId();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (enabled) {
+            scheduler.scheduleWithFixedDelay(this::pollSafely, pollInterval.toMillis(), pollInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    synchronized void poll() {
+        long now = System.currentTimeMillis();
+        List<TranslationChange> changes = new ArrayList<>();
+        if (!gaps.isEmpty()) {
+            changes.addAll(changeRepository.findChangesIn(gaps.keySet()));
+        }
+        List<TranslationChange> batch;
+        do {
+            batch = changeRepository.findChangesAfter(cursor, PageRequest.of(0, BATCH_SIZE));
+            for (TranslationChange change : batch) {
+                trackGaps(change.getId(), now);
+                cursor = change.getId();
+            }
+            changes.addAll(batch);
+        } while (batch.size() == BATCH_SIZE);
+
+        List<TranslationChangedEvent> replayed = new ArrayList<>();
+        for (TranslationChange change : changes) {
+            gaps.remove(change.getId());
+            if (!nodeId.equals(change.getNodeId())) {
+                replayed.add(change.toEvent());
+            }
+        }
+        for (int from = 0; from < replayed.size(); from += BATCH_SIZE) {
+            eventPublisher.publishEvent(new TranslationBatchChangedEvent(
+                replayed.subList(from, Math.min(from + BATCH_SIZE, replayed.size()))));
+        }
+        gaps.values().removeIf(skippedAt -> now - skippedAt > GAP_TIMEOUT_MILLIS);
+
+        if (now - lastPurge >= PURGE_INTERVAL_MILLIS) {
+            lastPurge = now;
+            changeRepository.deleteChangesBefore(LocalDateTime.now().minus(retention));
+        }
+    }
+
+    private void trackGaps(long id, long now) {
+        for (long missing = cursor + 1; missing < id; missing++) {
+            if (gaps.size() >= MAX_TRACKED_GAPS) {
+                log.warn("Not tracking change log ids {} to {}; writes committed late may be missed", missing, id - 1);
+                return;
+            }
+            gaps.put(missing, now);
+        }
+    }
+
+    private void pollSafely() {
+        try {
+            poll();
+        } catch (RuntimeException e) {
+            log.warn("Could not poll the translation change log", e);
+        }
+    }
+}
@@ -3,13 +3,18 @@ package com.digitaltolk.translation.service;
 import com.digitaltolk.translation.entity.Tag;
 import com.digitaltolk.translation.entity.Translation;
 import com.digitaltolk.translation.entity.User;
+import com.digitaltolk.translation.event.TranslationBatchChangedEvent;
+import com.digitaltolk.translation.event.TranslationChangedEvent;
 import com.digitaltolk.translation.repository.TagRepository;
 import com.digitaltolk.translation.repository.TranslationRepository;
 import com.digitaltolk.translation.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.*;
 import java.util.concurrent.ThreadLocalRandom;
@@ -21,6 +26,10 @@ public class DataLoaderService {
     private final TagRepository tagRepository;
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final CatalogVersionService catalogVersionService;
+    private final ChangeLogService changeLog;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transaction;
 
     private static final String[] LOCALES = {"en", "fr", "es"};
     private static final String[] TAG_NAMES = {"mobile", "desktop", "web", "api", "ui", "error", "success", "warning"};
@@ -31,11 +40,17 @@ public class DataLoaderService {
 
     @Autowired
     public DataLoaderService(TranslationRepository translationRepository, TagRepository tagRepository,
-                             UserRepository userRepository, PasswordEncoder passwordEncoder) {
+                             UserRepository userRepository, PasswordEncoder passwordEncoder,
+                             CatalogVersionService catalogVersionService, ChangeLogService changeLog,
+                             ApplicationEventPublisher eventPublisher, PlatformTransactionManager transactionManager) {
         this.translationRepository = translationRepository;
         this.tagRepository = tagRepository;
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.catalogVersionService = catalogVersionService;
+        this.changeLog = changeLog;
+        this.eventPublisher = eventPublisher;
+        this.transaction = new TransactionTemplate(transactionManager);
     }
 
     public String load() throws Exception {
@@ -113,7 +128,7 @@ public class DataLoaderService {
                 }
             }
 
-            translationRepository.saveAll(translations);
+            saveBatch(translations);
             totalCreated += translations.size();
 
             if (batch % 10 == 0) {
@@ -124,6 +139,20 @@ public class DataLoaderService {
         return totalCreated;
     }
 
+    /**
+     * Saves the batch as one write: locale versions are bumped, the translations are logged for other nodes, and the
+     * local caches and indexes hear of the whole batch in one event instead of one per translation.
+     */
+    private void saveBatch(List<Translation> translations) {
+        transaction.executeWithoutResult(status -> {
+            List<Translation> saved = translationRepository.saveAll(translations);
+            catalogVersionService.bump(Arrays.asList(LOCALES));
+            List<TranslationChangedEvent> changes = saved.stream().map(TranslationChangedEvent::created).toList();
+            changeLog.recordAll(changes);
+            eventPublisher.publishEvent(new TranslationBatchChangedEvent(changes));
+        });
+    }
+
     private String generateContent(String key, String locale) {
         Map<String, Map<String, String>> contentTemplates = Map.of(
                 "en", Map.of(
@@ -0,0 +1,176 @@
+package com.digitaltolk.translation.service;
+
+import com.digitaltolk.translation.export.ExportSnapshot;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Stale-while-revalidate for locale export snapshots. A write leaves the cached snapshot in place and marks it
+ * stale; readers keep getting it, together with its ETag and delta cursor, while one background refresh per
+ * snapshot rebuilds it and swaps the result in. Writes arriving during a rebuild make it run once more instead of
+ * queueing a refresh each. A snapshot still stale after {@code max-staleness} is evicted and no longer tracked, so
+ * readers fall back to loading it themselves and the rebuild still running is discarded.
+ * <p>
+ * Disabled, or for snapshots that are not cached, invalidating simply evicts.
+ */
+@Component
+public class ExportSnapshotRefresher {
+
+    private static final Logger log = LoggerFactory.getLogger(ExportSnapshotRefresher.class);
+
+    private final CacheManager cacheManager;
+    private final Map<String, Function<String, ExportSnapshot>> builders = new HashMap<>();
+    private final boolean enabled;
+    private final Duration maxStaleness;
+    private final Map<StaleKey, Stale> staleSnapshots = new ConcurrentHashMap<>();
+    // Single thread: a bulk import rebuilds one snapshot at a time instead of one per locale at once
+    private final ExecutorService refresher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "export-snapshot-refresher");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Separate from the refresher, so the staleness bound holds while a slow rebuild is running
+    private final ScheduledExecutorService expiry = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "export-snapshot-expiry");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Autowired
+    public ExportSnapshotRefresher(CacheManager cacheManager, TranslationExportService translationExportService,
+                                   @Value("${translation.export.stale-while-revalidate.enabled:false}") boolean enabled,
+                                   @Value("${translation.export.stale-while-revalidate.max-staleness:PT30S}") Duration maxStaleness) {
+        this.cacheManager = cacheManager;
+        this.builders.put(TranslationExportService.JSON_CACHE, translationExportService::buildExportSnapshot);
+        this.builders.put(TranslationExportService.BINARY_CACHE, translationExportService::buildBinaryExportSnapshot);
+        this.enabled = enabled;
+        this.maxStaleness = maxStaleness;
+    }
+
+    /**
+     * Called after a write to the locale has committed.
+     */
+    public void invalidate(String cacheName, String locale) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null) {
+            return;
+        }
+        if (!enabled || !builders.containsKey(cacheName)) {
+            cache.evict(locale);
+            return;
+        }
+        StaleKey key = new StaleKey(cacheName, locale);
+        Stale stale;
+        synchronized (this) {
+            stale = staleSnapshots.get(key);
+            if (stale != null) {
+                stale.generation++;
+                return;
+            }
+            // Does not wait for a load in flight; that case falls through to the evict below, which does
+            Cache.ValueWrapper cached = cache.get(locale);
+            if (cached != null && cached.get() instanceof ExportSnapshot snapshot) {
+                stale = new Stale(snapshot);
+                staleSnapshots.put(key, stale);
+            }
+        }
+        if (stale == null) {
+            cache.evict(locale);
+            return;
+        }
+        Stale marked = stale;
+        refresher.execute(() -> refresh(key, cache));
+        expiry.schedule(() -> expire(key, cache, marked), maxStaleness.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Whether the given snapshot, as served from the cache, has been superseded by a write not yet rebuilt.
+     */
+    public boolean isStale(String cacheName, String locale, ExportSnapshot snapshot) {
+        Stale stale = staleSnapshots.get(new StaleKey(cacheName, locale));
+        return stale != null && stale.snapshot == snapshot;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+        expiry.shutdownNow();
+    }
+
+    void refresh(StaleKey key, Cache cache) {
+        while (true) {
+            int generation;
+            synchronized (this) {
+                Stale stale = staleSnapshots.get(key);
+                if (stale == null) {
+                    return;
+                }
+                generation = stale.generation;
+            }
+            ExportSnapshot fresh;
+            try {
+                fresh = builders.get(key.cacheName()).apply(key.locale());
+            } catch (RuntimeException e) {
+                log.warn("Could not refresh {} for {}, evicting it instead", key.cacheName(), key.locale(), e);
+                synchronized (this) {
+                    staleSnapshots.remove(key);
+                }
+                cache.evict(key.locale());
+                return;
+            }
+            // Built from rows read after every write counted up to this generation; later writes bumped it
+            synchronized (this) {
+                Stale stale = staleSnapshots.get(key);
+                if (stale == null) {
+                    // Expired meanwhile; a write since then found nothing to mark and relies on the eviction
+                    return;
+                }
+                cache.put(key.locale(), fresh);
+                if (stale.generation == generation) {
+                    staleSnapshots.remove(key);
+                    return;
+                }
+                stale.snapshot = fresh;
+            }
+        }
+    }
+
+    private void expire(StaleKey key, Cache cache, Stale marked) {
+        synchronized (this) {
+            if (!staleSnapshots.remove(key, marked)) {
+                return;
+            }
+        }
+        log.warn("{} for {} still stale after {}, evicting it", key.cacheName(), key.locale(), maxStaleness);
+        cache.evict(key.locale());
+    }
+
+    record StaleKey(String cacheName, String locale) {
+    }
+
+    private static final class Stale {
+
+        private volatile ExportSnapshot snapshot;
+        private int generation;
+
+        private Stale(ExportSnapshot snapshot) {
+            this.snapshot = snapshot;
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.digitaltolk.translation.service;
+
+import com.digitaltolk.translation.catalog.KeyPrefixIndex;
+import com.digitaltolk.translation.dto.KeyNamespaceDto;
+import com.digitaltolk.translation.event.TranslationBatchChangedEvent;
+import com.digitaltolk.translation.event.TranslationChangedEvent;
+import com.digitaltolk.translation.repository.TranslationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Completes key prefixes and lists key namespaces from an in-memory {@link KeyPrefixIndex} of every distinct key,
+ * instead of scanning {@code translations} with {@code LIKE} (disable with
+ * {@code translation.search.key-prefix.enabled=false}). Loaded once the application is ready and kept in sync by
+ * re-reading whether the keys a committed write touches still exist. Until the first load has finished, completions
+ * come from SQL and namespaces are not available.
+ */
+@Service
+public class KeyPrefixIndexService {
+
+    public static final int MAX_COMPLETIONS = 100;
+
+    private static final Logger log = LoggerFactory.getLogger(KeyPrefixIndexService.class);
+    // Keys re-read per query; a batch of writes or a backlog drained at once can touch many more
+    private static final int REFRESH_BATCH_SIZE = 1000;
+
+    private final TranslationRepository translationRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final boolean enabled;
+    private volatile KeyPrefixIndex index;
+    // Keys written while a load is running, re-read once it finishes; null when no load is running
+    private Set<String> changedDuringLoad;
+    // Keys waiting to be re-read into the published index, by the one thread that is draining them if any
+    private final Set<String> pending = new HashSet<>();
+    private boolean draining;
+
+    @Autowired
+    public KeyPrefixIndexService(TranslationRepository translationRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${translation.search.key-prefix.enabled:true}") boolean enabled) {
+        this.translationRepository = translationRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.enabled = enabled;
+    }
+
+    public boolean isReady() {
+        return index != null;
+    }
+
+    /**
+     * Returns up to {@code limit} keys, at most {@link #MAX_COMPLETIONS}, starting with {@code prefix}, in key order.
+     */
+    public List<String> complete(String prefix, int limit) {
+        int capped = Math.max(1, Math.min(limit, MAX_COMPLETIONS));
+        KeyPrefixIndex current = index;
+        if (current != null) {
+            return current.complete(prefix, capped);
+        }
+        return translationRepository.findDistinctKeysLike(NamespaceExportService.escapeLike(prefix) + "%",
+            PageRequest.of(0, capped));
+    }
+
+    /**
+     * Returns the namespaces directly below {@code namespace}, or the top-level ones when it is null or empty, with
+     * their key counts; empty while the index is not loaded, as counting them in SQL means reading every key below.
+     */
+    public Optional<List<KeyNamespaceDto>> children(String namespace) {
+        KeyPrefixIndex current = index;
+        if (current == null) {
+            return Optional.empty();
+        }
+        String parent = namespace == null ? "" : namespace;
+        List<KeyNamespaceDto> children = new ArrayList<>();
+        for (KeyPrefixIndex.Namespace child : current.children(parent)) {
+            String path = parent.isEmpty() ? child.name() : parent + "." + child.name();
+            children.add(new KeyNamespaceDto(child.name(), path, child.keyCount(), child.directKeyCount()));
+        }
+        return Optional.of(children);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        synchronized (this) {
+            changedDuringLoad = new HashSet<>();
+        }
+        try {
+            KeyPrefixIndex loaded = new KeyPrefixIndex();
+            // Streamed, so only the index holds the keys, not a result list besides it
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<String> keys = translationRepository.streamDistinctKeys()) {
+                    keys.forEach(loaded::add);
+                }
+            });
+            // Re-read what was written meanwhile outside the lock, until no write slipped in during the last round
+            while (true) {
+                Set<String> changed;
+                synchronized (this) {
+                    if (changedDuringLoad.isEmpty()) {
+                        index = loaded;
+                        break;
+                    }
+                    changed = changedDuringLoad;
+                    changedDuringLoad = new HashSet<>();
+                }
+                refresh(loaded, changed);
+            }
+            log.info("Indexed {} keys for prefix search in {} ms", loaded.size(), System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            log.error("Could not index keys for prefix search, completions keep going to the database", e);
+        } finally {
+            synchronized (this) {
+                changedDuringLoad = null;
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTranslationChanged(TranslationChangedEvent event) {
+        enqueue(List.of(event));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTranslationsChanged(TranslationBatchChangedEvent event) {
+        enqueue(event.getChanges());
+    }
+
+    /**
+     * Queues the written keys for re-reading. The first thread to find no drain running drains the queue, so the
+     * lock is never held across a query and re-reads are applied in the order they were made.
+     */
+    private void enqueue(List<TranslationChangedEvent> changes) {
+        Set<String> keys = new HashSet<>();
+        for (TranslationChangedEvent change : changes) {
+            if (change.getPreviousKey() != null) {
+                keys.add(change.getPreviousKey());
+            }
+            if (change.getKey() != null) {
+                keys.add(change.getKey());
+            }
+        }
+        synchronized (this) {
+            if (changedDuringLoad != null) {
+                changedDuringLoad.addAll(keys);
+            }
+            if (index == null) {
+                return;
+            }
+            pending.addAll(keys);
+            if (draining) {
+                return;
+            }
+            draining = true;
+        }
+        drain();
+    }
+
+    private void drain() {
+        while (true) {
+            Set<String> batch;
+            KeyPrefixIndex target;
+            synchronized (this) {
+                if (pending.isEmpty()) {
+                    draining = false;
+                    return;
+                }
+                batch = new HashSet<>(pending);
+                pending.clear();
+                target = index;
+            }
+            try {
+                refresh(target, batch);
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    draining = false;
+                }
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Keeps each given key in the index only while some translation still has it; a key stays as long as any locale
+     * has it, so this asks the database rather than counting writes.
+     */
+    private void refresh(KeyPrefixIndex target, Set<String> keys) {
+        List<String> all = new ArrayList<>(keys);
+        for (int from = 0; from < all.size(); from += REFRESH_BATCH_SIZE) {
+            List<String> batch = all.subList(from, Math.min(from + REFRESH_BATCH_SIZE, all.size()));
+            Set<String> missing = new HashSet<>(batch);
+            for (String key : translationRepository.findDistinctKeysIn(batch)) {
+                target.add(key);
+                missing.remove(key);
+            }
+            missing.forEach(target::remove);
+        }
+    }
+}
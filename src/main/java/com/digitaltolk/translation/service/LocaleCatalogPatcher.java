@@ -0,0 +1,192 @@
+package com.digitaltolk.translation.service;
+
+import com.digitaltolk.translation.dto.TranslationEntry;
+import com.digitaltolk.translation.entity.LocaleVersion;
+import com.digitaltolk.translation.event.LocaleCatalogChangedEvent;
+import com.digitaltolk.translation.event.TranslationBatchChangedEvent;
+import com.digitaltolk.translation.event.TranslationChangedEvent;
+import com.digitaltolk.translation.export.ExportSnapshot;
+import com.digitaltolk.translation.repository.TranslationRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps cached locale catalogs current without rebuilding them from the database. Committed writes mark their
+ * keys dirty; one debounce window after the first of them, the dirty keys of the locale are re-read in a single
+ * query and applied to a copy of the cached catalog, which then replaces it atomically. Readers keep the previous
+ * immutable map until the swap, and a burst of edits costs one copy instead of one rebuild per edit.
+ * <p>
+ * The JSON export snapshot of the locale is swapped at the same time, serialized from the patched catalog. Only when
+ * there is no patched catalog to build it from, because none was cached or patching gave up, is the export
+ * invalidated and rebuilt from the database.
+ */
+@Component
+public class LocaleCatalogPatcher {
+
+    static final String CACHE_NAME = "localeCatalogs";
+
+    private static final Logger log = LoggerFactory.getLogger(LocaleCatalogPatcher.class);
+    // Beyond this many keys a full reload costs about as much as re-reading them one batch at a time
+    private static final int MAX_PATCH_KEYS = 1000;
+
+    private final TranslationRepository translationRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TranslationExportService translationExportService;
+    private final ExportSnapshotRefresher exportSnapshotRefresher;
+    private final CatalogVersionService catalogVersionService;
+    private final Cache cache;
+    private final Cache exportSnapshots;
+    private final Duration debounce;
+    private final Map<String, Set<String>> dirtyKeys = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "locale-catalog-patcher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Autowired
+    public LocaleCatalogPatcher(TranslationRepository translationRepository, ApplicationEventPublisher eventPublisher,
+                                CacheManager cacheManager, TranslationExportService translationExportService,
+                                ExportSnapshotRefresher exportSnapshotRefresher,
+                                CatalogVersionService catalogVersionService,
+                                @Value("${translation.cache.locale-catalogs.patch-debounce:PT0.2S}") Duration debounce) {
+        this.translationRepository = translationRepository;
+        this.eventPublisher = eventPublisher;
+        this.translationExportService = translationExportService;
+        this.exportSnapshotRefresher = exportSnapshotRefresher;
+        this.catalogVersionService = catalogVersionService;
+        this.cache = cacheManager.getCache(CACHE_NAME);
+        this.exportSnapshots = cacheManager.getCache(TranslationExportService.JSON_CACHE);
+        this.debounce = debounce;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTranslationChanged(TranslationChangedEvent event) {
+        markDirty(List.of(event));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTranslationsChanged(TranslationBatchChangedEvent event) {
+        markDirty(event.getChanges());
+    }
+
+    /**
+     * Applies the pending changes of a locale now. Normally called by the scheduler once the debounce window ends.
+     */
+    public void flush(String locale) {
+        Set<String> keys = dirtyKeys.remove(locale);
+        if (keys == null) {
+            return;
+        }
+        // Taken before the dirty rows are read, so the export's delta cursor covers every write applied here
+        long readAt = System.currentTimeMillis();
+        boolean exported = false;
+        try {
+            // Read before the rows too, so the hash recorded for the manifest is never paired with an older version
+            Optional<LocaleVersion> version = catalogVersionService.getVersion(locale);
+            Map<String, String> patched = patch(locale, keys);
+            if (patched != null && exportSnapshots != null) {
+                ExportSnapshot snapshot = translationExportService.buildExportSnapshot(patched, readAt);
+                exportSnapshots.put(locale, snapshot);
+                exported = true;
+                version.ifPresent(readAtVersion -> catalogVersionService.recordExportHash(readAtVersion,
+                    snapshot.getHash()));
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not patch catalog of {}, evicting it instead", locale, e);
+            cache.evict(locale);
+        }
+        if (!exported) {
+            exportSnapshotRefresher.invalidate(TranslationExportService.JSON_CACHE, locale);
+        }
+        eventPublisher.publishEvent(new LocaleCatalogChangedEvent(locale));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private void markDirty(List<TranslationChangedEvent> changes) {
+        Map<String, Set<String>> changed = new HashMap<>();
+        for (TranslationChangedEvent change : changes) {
+            if (change.getPreviousKey() != null) {
+                changed.computeIfAbsent(change.getPreviousLocale(), locale -> new HashSet<>())
+                    .add(change.getPreviousKey());
+            }
+            if (change.getKey() != null) {
+                changed.computeIfAbsent(change.getLocale(), locale -> new HashSet<>()).add(change.getKey());
+            }
+        }
+        changed.forEach(this::markDirty);
+    }
+
+    private void markDirty(String locale, Set<String> changedKeys) {
+        boolean[] firstChange = {false};
+        dirtyKeys.compute(locale, (ignored, keys) -> {
+            if (keys == null) {
+                keys = new HashSet<>();
+                firstChange[0] = true;
+            }
+            keys.addAll(changedKeys);
+            return keys;
+        });
+        if (!firstChange[0]) {
+            return;
+        }
+        if (debounce.isZero()) {
+            flush(locale);
+        } else {
+            scheduler.schedule(() -> flush(locale), debounce.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Returns the patched catalog, or {@code null} when none was cached or it was evicted instead.
+     */
+    @SuppressWarnings("unchecked")
+    private Map<String, String> patch(String locale, Set<String> keys) {
+        if (keys.size() > MAX_PATCH_KEYS || !(cache instanceof CaffeineCache caffeineCache)) {
+            cache.evict(locale);
+            return null;
+        }
+        // Read after commit, so this is at least as new as every write that marked these keys
+        Map<String, String> current = new HashMap<>();
+        for (TranslationEntry entry : translationRepository.findEntriesByLocaleAndKeys(locale, keys)) {
+            current.putIfAbsent(entry.getKey(), entry.getContent());
+        }
+        // Waits for a load of the same catalog that is still in flight, then patches its result
+        return (Map<String, String>) caffeineCache.getNativeCache().asMap().computeIfPresent(locale,
+            (ignored, catalog) -> apply((Map<String, String>) catalog, keys, current));
+    }
+
+    static Map<String, String> apply(Map<String, String> catalog, Set<String> keys, Map<String, String> current) {
+        // Sorted like a freshly loaded catalog, so keys added by a patch are not listed after all the others
+        SortedMap<String, String> patched = new TreeMap<>(catalog);
+        for (String key : keys) {
+            String content = current.get(key);
+            if (content == null) {
+                patched.remove(key);
+            } else {
+                patched.put(key, content);
+            }
+        }
+        return Collections.unmodifiableSortedMap(patched);
+    }
+}
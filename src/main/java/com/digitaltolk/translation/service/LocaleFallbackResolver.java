@@ -0,0 +1,63 @@
+package com.digitaltolk.translation.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * Resolves the ordered list of locales a bundle is merged from, most specific first.
+ * Chains come from {@code translation.locale.fallback-chains} (e.g. {@code pt-BR>pt>en,fr-CA>fr}); locales
+ * without an explicit chain fall back to their BCP 47 parents ({@code zh-Hant-TW > zh-Hant > zh}), and the
+ * optional {@code translation.locale.default} locale closes every chain.
+ */
+@Component
+public class LocaleFallbackResolver {
+
+    private final Map<String, List<String>> configuredChains;
+    private final String defaultLocale;
+
+    public LocaleFallbackResolver(@Value("${translation.locale.fallback-chains:}") String fallbackChains,
+                                  @Value("${translation.locale.default:}") String defaultLocale) {
+        this.configuredChains = parseChains(fallbackChains);
+        this.defaultLocale = defaultLocale.isBlank() ? null : defaultLocale.trim();
+    }
+
+    public List<String> resolveChain(String locale) {
+        List<String> configured = configuredChains.get(locale);
+        LinkedHashSet<String> chain = new LinkedHashSet<>();
+        if (configured != null) {
+            chain.addAll(configured);
+        } else {
+            String current = locale;
+            chain.add(current);
+            for (int separator = lastSeparator(current); separator > 0; separator = lastSeparator(current)) {
+                current = current.substring(0, separator);
+                chain.add(current);
+            }
+        }
+        if (defaultLocale != null) {
+            chain.add(defaultLocale);
+        }
+        return List.copyOf(chain);
+    }
+
+    private static int lastSeparator(String locale) {
+        return Math.max(locale.lastIndexOf('-'), locale.lastIndexOf('_'));
+    }
+
+    private static Map<String, List<String>> parseChains(String fallbackChains) {
+        Map<String, List<String>> chains = new HashMap<>();
+        for (String definition : fallbackChains.split(",")) {
+            if (definition.isBlank()) {
+                continue;
+            }
+            List<String> chain = Arrays.stream(definition.split(">"))
+                .map(String::trim)
+                .filter(locale -> !locale.isEmpty())
+                .toList();
+            chains.put(chain.get(0), chain);
+        }
+        return chains;
+    }
+}
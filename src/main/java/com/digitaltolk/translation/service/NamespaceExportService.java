@@ -0,0 +1,195 @@
+package com.digitaltolk.translation.service;
+
+import com.digitaltolk.translation.dto.TranslationEntry;
+import com.digitaltolk.translation.event.TranslationBatchChangedEvent;
+import com.digitaltolk.translation.event.TranslationChangedEvent;
+import com.digitaltolk.translation.export.ExportSnapshot;
+import com.digitaltolk.translation.repository.TranslationRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Serves export bundles restricted to one or more key namespaces, where the namespace of a key is the part
+ * before its first dot ({@code navigation.home.title} belongs to {@code navigation}). Each (locale, namespace)
+ * bundle is cached separately and only evicted when a key in that namespace changes. Bundles of several namespaces
+ * are stitched together from those once and cached too, evicted along with any of their namespaces.
+ */
+@Service
+public class NamespaceExportService {
+
+    public static final String CACHE_NAME = "namespaceExportSnapshots";
+
+    private final TranslationRepository translationRepository;
+    private final ObjectMapper objectMapper;
+    private final SingleFlightLoader singleFlight;
+    private final Cache cache;
+    private final Map<String, AtomicLong> bundleGenerations = new ConcurrentHashMap<>();
+    // Cached multi-namespace bundles containing each (locale, namespace) bundle, evicted with it
+    private final Map<String, Set<String>> combinedBundles = new ConcurrentHashMap<>();
+
+    @Autowired
+    public NamespaceExportService(TranslationRepository translationRepository, ObjectMapper objectMapper,
+                                  SingleFlightLoader singleFlight, CacheManager cacheManager) {
+        this.translationRepository = translationRepository;
+        this.objectMapper = objectMapper;
+        this.singleFlight = singleFlight;
+        this.cache = cacheManager.getCache(CACHE_NAME);
+    }
+
+    public static String namespaceOf(String key) {
+        int dot = key.indexOf('.');
+        return dot < 0 ? key : key.substring(0, dot);
+    }
+
+    /**
+     * Returns one bundle holding every requested namespace, in whatever order they are given.
+     */
+    public ExportSnapshot getNamespaceSnapshot(String locale, Collection<String> namespaces) {
+        SortedSet<String> sorted = new TreeSet<>(namespaces);
+        if (sorted.size() == 1) {
+            return getNamespaceSnapshot(locale, sorted.first());
+        }
+        String combinedKey = locale + ":" + String.join(",", sorted);
+        ExportSnapshot cached = cache.get(combinedKey, ExportSnapshot.class);
+        if (cached != null) {
+            return cached;
+        }
+        return singleFlight.load(CACHE_NAME, combinedKey, () -> loadCombined(locale, sorted, combinedKey));
+    }
+
+    public ExportSnapshot getNamespaceSnapshot(String locale, String namespace) {
+        String bundleKey = bundleKey(locale, namespace);
+        ExportSnapshot cached = cache.get(bundleKey, ExportSnapshot.class);
+        if (cached != null) {
+            return cached;
+        }
+        return singleFlight.load(CACHE_NAME, bundleKey, () -> load(locale, namespace, bundleKey));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTranslationChanged(TranslationChangedEvent event) {
+        evict(List.of(event));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTranslationsChanged(TranslationBatchChangedEvent event) {
+        evict(event.getChanges());
+    }
+
+    private void evict(List<TranslationChangedEvent> changes) {
+        Set<String> affectedBundles = new HashSet<>();
+        for (TranslationChangedEvent change : changes) {
+            if (change.getPreviousKey() != null) {
+                affectedBundles.add(bundleKey(change.getPreviousLocale(), namespaceOf(change.getPreviousKey())));
+            }
+            if (change.getKey() != null) {
+                affectedBundles.add(bundleKey(change.getLocale(), namespaceOf(change.getKey())));
+            }
+        }
+        for (String bundleKey : affectedBundles) {
+            bundleGenerations.computeIfAbsent(bundleKey, key -> new AtomicLong()).incrementAndGet();
+            cache.evict(bundleKey);
+            Set<String> combined = combinedBundles.remove(bundleKey);
+            if (combined != null) {
+                combined.forEach(cache::evict);
+            }
+        }
+    }
+
+    private ExportSnapshot load(String locale, String namespace, String bundleKey) {
+        // The previous load may have finished between the cache check and joining the flight
+        ExportSnapshot cached = cache.get(bundleKey, ExportSnapshot.class);
+        if (cached != null) {
+            return cached;
+        }
+
+        long generation = generationOf(bundleKey);
+        ExportSnapshot snapshot = build(locale, namespace);
+        cache.put(bundleKey, snapshot);
+        // A write to the namespace landed while building; drop the result rather than serve it until the next write
+        if (generationOf(bundleKey) != generation) {
+            cache.evict(bundleKey);
+        }
+        return snapshot;
+    }
+
+    private ExportSnapshot loadCombined(String locale, SortedSet<String> namespaces, String combinedKey) {
+        ExportSnapshot cached = cache.get(combinedKey, ExportSnapshot.class);
+        if (cached != null) {
+            return cached;
+        }
+
+        // Registered before the generations are read, so a write from here on either evicts it or is noticed below
+        List<String> bundleKeys = new ArrayList<>();
+        for (String namespace : namespaces) {
+            String bundleKey = bundleKey(locale, namespace);
+            combinedBundles.computeIfAbsent(bundleKey, key -> ConcurrentHashMap.newKeySet()).add(combinedKey);
+            bundleKeys.add(bundleKey);
+        }
+        long generation = bundleKeys.stream().mapToLong(this::generationOf).sum();
+        ExportSnapshot snapshot = combine(locale, namespaces);
+        cache.put(combinedKey, snapshot);
+        if (bundleKeys.stream().mapToLong(this::generationOf).sum() != generation) {
+            cache.evict(combinedKey);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Stitches the per-namespace bundles together; they are compact JSON objects, so this copies their members
+     * rather than parsing and serializing them again.
+     */
+    private ExportSnapshot combine(String locale, SortedSet<String> namespaces) {
+        ByteArrayOutputStream combined = new ByteArrayOutputStream();
+        combined.write('{');
+        boolean first = true;
+        for (String namespace : namespaces) {
+            byte[] body = getNamespaceSnapshot(locale, namespace).getBody();
+            if (body.length > 2) {
+                if (!first) {
+                    combined.write(',');
+                }
+                combined.write(body, 1, body.length - 2);
+                first = false;
+            }
+        }
+        combined.write('}');
+        return ExportSnapshot.of(combined.toByteArray());
+    }
+
+    private ExportSnapshot build(String locale, String namespace) {
+        Map<String, String> entries = new LinkedHashMap<>();
+        for (TranslationEntry entry : translationRepository.findEntriesByLocaleAndNamespace(
+                locale, namespace, escapeLike(namespace) + ".%")) {
+            entries.putIfAbsent(entry.getKey(), entry.getContent());
+        }
+        try {
+            return ExportSnapshot.of(objectMapper.writeValueAsBytes(entries));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize bundle for " + bundleKey(locale, namespace), e);
+        }
+    }
+
+    private long generationOf(String bundleKey) {
+        AtomicLong counter = bundleGenerations.get(bundleKey);
+        return counter == null ? 0 : counter.get();
+    }
+
+    private static String bundleKey(String locale, String namespace) {
+        return locale + ":" + namespace;
+    }
+
+    static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
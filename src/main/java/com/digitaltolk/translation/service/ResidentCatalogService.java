@@ -0,0 +1,213 @@
+package com.digitaltolk.translation.service;
+
+import com.digitaltolk.translation.catalog.ResidentCatalog;
+import com.digitaltolk.translation.dto.TranslationEntry;
+import com.digitaltolk.translation.event.TranslationBatchChangedEvent;
+import com.digitaltolk.translation.event.TranslationChangedEvent;
+import com.digitaltolk.translation.repository.TranslationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.*;
+
+/**
+ * Optional, fully resident copy of every translation for key/locale lookups (enable with
+ * {@code translation.catalog.resident.enabled}). Loaded once the application is ready and kept in sync by
+ * re-reading the keys of every committed write; the database stays the source of truth and callers fall back to
+ * it until the first load has finished. With {@code translation.catalog.resident.off-heap} the contents are kept
+ * in direct buffers instead of as heap strings.
+ */
+@Service
+public class ResidentCatalogService {
+
+    private static final Logger log = LoggerFactory.getLogger(ResidentCatalogService.class);
+    // Keys of a locale per re-read query, so a bulk write or a long backlog never becomes one huge IN list
+    private static final int REFRESH_BATCH_SIZE = 1000;
+
+    private final TranslationRepository translationRepository;
+    private final boolean enabled;
+    private final boolean offHeap;
+    private volatile ResidentCatalog catalog;
+    // Writes committed while a load is running, re-read once it finishes; null when no load is running
+    private Map<String, Set<String>> changedDuringLoad;
+    // Writes waiting to be re-read into the published catalog, by the one thread that is draining them if any
+    private final Map<String, Set<String>> pending = new HashMap<>();
+    private boolean draining;
+
+    @Autowired
+    public ResidentCatalogService(TranslationRepository translationRepository,
+                                  @Value("${translation.catalog.resident.enabled:false}") boolean enabled,
+                                  @Value("${translation.catalog.resident.off-heap:false}") boolean offHeap) {
+        this.translationRepository = translationRepository;
+        this.enabled = enabled;
+        this.offHeap = offHeap;
+    }
+
+    public boolean isReady() {
+        return catalog != null;
+    }
+
+    public Optional<String> get(String key, String locale) {
+        ResidentCatalog current = catalog;
+        return current == null ? Optional.empty() : current.get(key, locale);
+    }
+
+    /**
+     * Writes the locale as a JSON object if the catalog is loaded; returns false, having written nothing, otherwise.
+     */
+    public boolean writeJson(String locale, OutputStream out) throws IOException {
+        ResidentCatalog current = catalog;
+        if (current == null) {
+            return false;
+        }
+        current.writeJson(locale, out);
+        return true;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        synchronized (this) {
+            changedDuringLoad = new HashMap<>();
+        }
+        try {
+            ResidentCatalog loaded = new ResidentCatalog((int) Math.min(translationRepository.countAll(), 1 << 24),
+                offHeap);
+            for (String locale : translationRepository.findDistinctLocales()) {
+                String previousKey = null;
+                for (TranslationEntry entry : translationRepository.findEntriesByLocale(locale)) {
+                    // Rows arrive ordered by key, so duplicates are adjacent; keep the first like the exports do
+                    if (!entry.getKey().equals(previousKey)) {
+                        loaded.put(entry.getKey(), locale, entry.getContent());
+                        previousKey = entry.getKey();
+                    }
+                }
+            }
+            // Re-read what was written meanwhile outside the lock, until no write slipped in during the last round
+            while (true) {
+                Map<String, Set<String>> changed;
+                synchronized (this) {
+                    if (changedDuringLoad.isEmpty()) {
+                        catalog = loaded;
+                        break;
+                    }
+                    changed = changedDuringLoad;
+                    changedDuringLoad = new HashMap<>();
+                }
+                changed.forEach((locale, keys) -> refresh(loaded, locale, keys));
+            }
+            log.info("Loaded {} keys in {} locales into the resident catalog in {} ms ({} KB off-heap)",
+                loaded.keyCount(), loaded.locales().size(), System.currentTimeMillis() - start,
+                loaded.offHeapBytes() / 1024);
+        } catch (RuntimeException e) {
+            log.error("Could not load the resident catalog, lookups keep going to the database", e);
+        } finally {
+            synchronized (this) {
+                changedDuringLoad = null;
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTranslationChanged(TranslationChangedEvent event) {
+        enqueue(List.of(event));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTranslationsChanged(TranslationBatchChangedEvent event) {
+        enqueue(event.getChanges());
+    }
+
+    /**
+     * Queues the written keys for re-reading. The first thread to find no drain running drains the queue, so the
+     * lock is never held across a query and re-reads are applied in the order they were made.
+     */
+    private void enqueue(List<TranslationChangedEvent> changes) {
+        Map<String, Set<String>> changed = new HashMap<>();
+        for (TranslationChangedEvent change : changes) {
+            if (change.getPreviousKey() != null) {
+                changed.computeIfAbsent(change.getPreviousLocale(), locale -> new HashSet<>())
+                    .add(change.getPreviousKey());
+            }
+            if (change.getKey() != null) {
+                changed.computeIfAbsent(change.getLocale(), locale -> new HashSet<>()).add(change.getKey());
+            }
+        }
+        synchronized (this) {
+            if (changedDuringLoad != null) {
+                merge(changedDuringLoad, changed);
+            }
+            if (catalog == null) {
+                return;
+            }
+            merge(pending, changed);
+            if (draining) {
+                return;
+            }
+            draining = true;
+        }
+        drain();
+    }
+
+    private void drain() {
+        while (true) {
+            Map<String, Set<String>> batch;
+            ResidentCatalog target;
+            synchronized (this) {
+                if (pending.isEmpty()) {
+                    draining = false;
+                    return;
+                }
+                batch = new HashMap<>(pending);
+                pending.clear();
+                target = catalog;
+            }
+            try {
+                batch.forEach((locale, keys) -> refresh(target, locale, keys));
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    draining = false;
+                }
+                throw e;
+            }
+        }
+    }
+
+    private static void merge(Map<String, Set<String>> target, Map<String, Set<String>> changed) {
+        changed.forEach((locale, keys) -> target.computeIfAbsent(locale, ignored -> new HashSet<>()).addAll(keys));
+    }
+
+    /**
+     * Copies the committed state of the given keys into the catalog; re-reading rather than trusting the event
+     * keeps the result right when events for the same key arrive out of commit order.
+     */
+    private void refresh(ResidentCatalog target, String locale, Set<String> keys) {
+        List<String> all = new ArrayList<>(keys);
+        for (int from = 0; from < all.size(); from += REFRESH_BATCH_SIZE) {
+            List<String> batch = all.subList(from, Math.min(from + REFRESH_BATCH_SIZE, all.size()));
+            Map<String, String> current = new HashMap<>();
+            for (TranslationEntry entry : translationRepository.findEntriesByLocaleAndKeys(locale, batch)) {
+                current.putIfAbsent(entry.getKey(), entry.getContent());
+            }
+            for (String key : batch) {
+                String content = current.get(key);
+                if (content == null) {
+                    target.remove(key, locale);
+                } else {
+                    target.put(key, locale, content);
+                }
+            }
+        }
+    }
+}
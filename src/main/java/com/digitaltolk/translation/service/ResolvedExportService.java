@@ -0,0 +1,109 @@
+package com.digitaltolk.translation.service;
+
+import com.digitaltolk.translation.event.LocaleCatalogChangedEvent;
+import com.digitaltolk.translation.export.ExportSnapshot;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Serves locale bundles merged along their fallback chain. Each merged bundle is built once per chain from the
+ * cached locale catalogs and only evicted when the catalog of one of the chain's locales changes.
+ */
+@Service
+public class ResolvedExportService {
+
+    public static final String CACHE_NAME = "resolvedExportSnapshots";
+
+    private final TranslationService translationService;
+    private final LocaleFallbackResolver fallbackResolver;
+    private final ObjectMapper objectMapper;
+    private final SingleFlightLoader singleFlight;
+    private final Cache cache;
+    private final Map<String, List<String>> cachedChains = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> localeGenerations = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ResolvedExportService(TranslationService translationService, LocaleFallbackResolver fallbackResolver,
+                                 ObjectMapper objectMapper, SingleFlightLoader singleFlight,
+                                 CacheManager cacheManager) {
+        this.translationService = translationService;
+        this.fallbackResolver = fallbackResolver;
+        this.objectMapper = objectMapper;
+        this.singleFlight = singleFlight;
+        this.cache = cacheManager.getCache(CACHE_NAME);
+    }
+
+    public List<String> resolveChain(String locale) {
+        return fallbackResolver.resolveChain(locale);
+    }
+
+    public ExportSnapshot getResolvedSnapshot(String locale) {
+        List<String> chain = fallbackResolver.resolveChain(locale);
+        String chainKey = String.join(">", chain);
+        ExportSnapshot cached = cache.get(chainKey, ExportSnapshot.class);
+        if (cached != null) {
+            return cached;
+        }
+        return singleFlight.load(CACHE_NAME, chainKey, () -> build(chain, chainKey));
+    }
+
+    private ExportSnapshot build(List<String> chain, String chainKey) {
+        // The previous load may have finished between the cache check and joining the flight
+        ExportSnapshot cached = cache.get(chainKey, ExportSnapshot.class);
+        if (cached != null) {
+            return cached;
+        }
+
+        long generation = generationOf(chain);
+        ExportSnapshot snapshot = merge(chain);
+        cachedChains.put(chainKey, chain);
+        cache.put(chainKey, snapshot);
+        // A write to the chain landed while merging; drop the result rather than serve it until the next write
+        if (generationOf(chain) != generation) {
+            cache.evict(chainKey);
+        }
+        return snapshot;
+    }
+
+    @EventListener
+    public void onCatalogChanged(LocaleCatalogChangedEvent event) {
+        String locale = event.getLocale();
+        localeGenerations.computeIfAbsent(locale, key -> new AtomicLong()).incrementAndGet();
+        cachedChains.forEach((chainKey, chain) -> {
+            if (chain.contains(locale)) {
+                cachedChains.remove(chainKey, chain);
+                cache.evict(chainKey);
+            }
+        });
+    }
+
+    private ExportSnapshot merge(List<String> chain) {
+        Map<String, String> merged = new TreeMap<>();
+        for (String locale : chain) {
+            translationService.getTranslationsForLocale(locale).forEach(merged::putIfAbsent);
+        }
+        try {
+            return ExportSnapshot.of(objectMapper.writeValueAsBytes(merged));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize merged bundle for " + chain, e);
+        }
+    }
+
+    private long generationOf(List<String> chain) {
+        long generation = 0;
+        for (String locale : chain) {
+            AtomicLong counter = localeGenerations.get(locale);
+            generation += counter == null ? 0 : counter.get();
+        }
+        return generation;
+    }
+}
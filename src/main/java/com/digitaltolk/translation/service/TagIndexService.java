@@ -0,0 +1,237 @@
+package com.digitaltolk.translation.service;
+
+import com.digitaltolk.translation.catalog.TagBitmapIndex;
+import com.digitaltolk.translation.dto.TranslationSearchFilter;
+import com.digitaltolk.translation.dto.TranslationSearchFilter.TagMatch;
+import com.digitaltolk.translation.dto.TranslationTagLink;
+import com.digitaltolk.translation.entity.Tag;
+import com.digitaltolk.translation.event.TranslationBatchChangedEvent;
+import com.digitaltolk.translation.event.TranslationChangedEvent;
+import com.digitaltolk.translation.repository.TagRepository;
+import com.digitaltolk.translation.repository.TranslationRepository;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+
+/**
+ * Answers the tag part of searches, and counts translations per tag, from an in-memory {@link TagBitmapIndex}
+ * instead of {@code translation_tags} (disable with {@code translation.search.tag-bitmap.enabled=false}). Loaded once
+ * the application is ready and kept in sync by re-reading the tags of every translation a committed write touches;
+ * callers use SQL until the first load has finished.
+ */
+@Service
+public class TagIndexService {
+
+    private static final Logger log = LoggerFactory.getLogger(TagIndexService.class);
+    // Translations re-read per pair of queries, to keep their IN lists short
+    private static final int REFRESH_BATCH_SIZE = 1000;
+
+    private final TranslationRepository translationRepository;
+    private final TagRepository tagRepository;
+    private final boolean enabled;
+    private volatile TagBitmapIndex index;
+    // Translations written while a load is running, re-read once it finishes; null when no load is running
+    private Set<Long> changedDuringLoad;
+    // Translations waiting to be re-read into the published index, by the one thread that is draining them if any
+    private final Set<Long> pending = new HashSet<>();
+    private boolean draining;
+
+    @Autowired
+    public TagIndexService(TranslationRepository translationRepository, TagRepository tagRepository,
+                           @Value("${translation.search.tag-bitmap.enabled:true}") boolean enabled) {
+        this.translationRepository = translationRepository;
+        this.tagRepository = tagRepository;
+        this.enabled = enabled;
+    }
+
+    public boolean isReady() {
+        return index != null;
+    }
+
+    /**
+     * Returns the translations the tags and excluded tags of the filter admit, whatever else it asks; empty when the
+     * index is not loaded yet or the filter names no tags.
+     */
+    public Optional<Roaring64Bitmap> select(TranslationSearchFilter filter) {
+        TagBitmapIndex current = index;
+        if (current == null || (!filter.hasTags() && !filter.hasExcludedTags())) {
+            return Optional.empty();
+        }
+        long[] tags = filter.hasTags() ? tagIds(filter.getTags()) : null;
+        // No translation carries a tag that does not exist
+        if (filter.getTagMatch() == TagMatch.ALL && tags != null && tags.length < filter.getTags().size()) {
+            return Optional.of(new Roaring64Bitmap());
+        }
+        long[] excluded = filter.hasExcludedTags() ? tagIds(filter.getExcludedTags()) : null;
+        return Optional.of(filter.getTagMatch() == TagMatch.ALL
+            ? current.select(null, tags, excluded)
+            : current.select(tags, null, excluded));
+    }
+
+    /**
+     * Returns the number of translations carrying each tag, by tag name, among {@code within} when not null; empty
+     * when the index is not loaded yet.
+     */
+    public Optional<Map<String, Long>> countsByTag(Roaring64Bitmap within) {
+        TagBitmapIndex current = index;
+        if (current == null) {
+            return Optional.empty();
+        }
+        Map<Long, Long> counts = current.counts(within);
+        Map<String, Long> byName = new TreeMap<>();
+        // A tag deleted since it was indexed has no name left to report it under
+        for (Tag tag : tagRepository.findAllById(counts.keySet())) {
+            byName.put(tag.getName(), counts.get(tag.getId()));
+        }
+        return Optional.of(byName);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        synchronized (this) {
+            changedDuringLoad = new HashSet<>();
+        }
+        try {
+            TagBitmapIndex loaded = new TagBitmapIndex();
+            for (String locale : translationRepository.findDistinctLocales()) {
+                Map<Long, long[]> tags = tagsByTranslation(translationRepository.findTagLinksByLocale(locale));
+                for (Long id : translationRepository.findIdsByLocale(locale)) {
+                    loaded.put(id, tags.getOrDefault(id, new long[0]));
+                }
+            }
+            loaded.optimize();
+            // Re-read what was written meanwhile outside the lock, until no write slipped in during the last round
+            while (true) {
+                Set<Long> changed;
+                synchronized (this) {
+                    if (changedDuringLoad.isEmpty()) {
+                        index = loaded;
+                        break;
+                    }
+                    changed = changedDuringLoad;
+                    changedDuringLoad = new HashSet<>();
+                }
+                refresh(loaded, changed);
+            }
+            log.info("Indexed tags of {} translations in {} ms ({} KB)", loaded.size(),
+                System.currentTimeMillis() - start, loaded.sizeInBytes() / 1024);
+        } catch (RuntimeException e) {
+            log.error("Could not index translation tags, tag searches keep going to the database", e);
+        } finally {
+            synchronized (this) {
+                changedDuringLoad = null;
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTranslationChanged(TranslationChangedEvent event) {
+        enqueue(List.of(event));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTranslationsChanged(TranslationBatchChangedEvent event) {
+        enqueue(event.getChanges());
+    }
+
+    /**
+     * Queues the written translations for re-reading; as in {@link KeyPrefixIndexService}, whichever thread finds no
+     * drain running drains the queue, so no query runs under the lock.
+     */
+    private void enqueue(List<TranslationChangedEvent> changes) {
+        Set<Long> ids = new HashSet<>();
+        for (TranslationChangedEvent change : changes) {
+            if (change.getTranslationId() != null) {
+                ids.add(change.getTranslationId());
+            }
+        }
+        if (ids.isEmpty()) {
+            return;
+        }
+        synchronized (this) {
+            if (changedDuringLoad != null) {
+                changedDuringLoad.addAll(ids);
+            }
+            if (index == null) {
+                return;
+            }
+            pending.addAll(ids);
+            if (draining) {
+                return;
+            }
+            draining = true;
+        }
+        drain();
+    }
+
+    private void drain() {
+        while (true) {
+            Set<Long> batch;
+            TagBitmapIndex target;
+            synchronized (this) {
+                if (pending.isEmpty()) {
+                    draining = false;
+                    return;
+                }
+                batch = new HashSet<>(pending);
+                pending.clear();
+                target = index;
+            }
+            try {
+                refresh(target, batch);
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    draining = false;
+                }
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Copies the committed tags of the given translations into the index; re-reading rather than trusting the event
+     * keeps events arriving out of commit order from leaving old tags behind.
+     */
+    private void refresh(TagBitmapIndex target, Set<Long> ids) {
+        List<Long> all = new ArrayList<>(ids);
+        for (int from = 0; from < all.size(); from += REFRESH_BATCH_SIZE) {
+            List<Long> batch = all.subList(from, Math.min(from + REFRESH_BATCH_SIZE, all.size()));
+            Map<Long, long[]> tags = tagsByTranslation(translationRepository.findTagLinksByIds(batch));
+            Set<Long> missing = new HashSet<>(batch);
+            for (Long id : translationRepository.findIdsByIdIn(batch)) {
+                target.put(id, tags.getOrDefault(id, new long[0]));
+                missing.remove(id);
+            }
+            missing.forEach(target::remove);
+        }
+    }
+
+    // Tags that do not exist are left out
+    private long[] tagIds(List<String> names) {
+        return tagRepository.findByNameIn(names).stream().mapToLong(Tag::getId).toArray();
+    }
+
+    private static Map<Long, long[]> tagsByTranslation(List<TranslationTagLink> links) {
+        Map<Long, long[]> tags = new HashMap<>();
+        for (TranslationTagLink link : links) {
+            tags.merge(link.getTranslationId(), new long[]{link.getTagId()}, (existing, added) -> {
+                long[] merged = Arrays.copyOf(existing, existing.length + 1);
+                merged[existing.length] = added[0];
+                return merged;
+            });
+        }
+        return tags;
+    }
+}
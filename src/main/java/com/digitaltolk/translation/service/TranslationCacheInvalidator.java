@@ -0,0 +1,62 @@
+package com.digitaltolk.translation.service;
+
+import com.digitaltolk.translation.event.TranslationBatchChangedEvent;
+import com.digitaltolk.translation.event.TranslationChangedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Evicts exactly what a committed write affects: the translation's id entry and the binary export snapshots of its
+ * old and new locale, the latter through {@link ExportSnapshotRefresher} so they can be served stale while rebuilt.
+ * Locale catalogs and their JSON export snapshots are patched rather than evicted, see {@link LocaleCatalogPatcher}.
+ * Eviction happens after commit; Caffeine blocks it behind any load of the same key already in flight, so a
+ * snapshot read before the commit cannot be cached after it.
+ */
+@Component
+public class TranslationCacheInvalidator {
+    
+    static final List<String> LOCALE_CACHES = List.of(TranslationExportService.BINARY_CACHE);
+    
+    private final CacheManager cacheManager;
+    private final ExportSnapshotRefresher exportSnapshotRefresher;
+    
+    @Autowired
+    public TranslationCacheInvalidator(CacheManager cacheManager, ExportSnapshotRefresher exportSnapshotRefresher) {
+        this.cacheManager = cacheManager;
+        this.exportSnapshotRefresher = exportSnapshotRefresher;
+    }
+    
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTranslationChanged(TranslationChangedEvent event) {
+        invalidate(List.of(event), event.getAffectedLocales());
+    }
+    
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTranslationsChanged(TranslationBatchChangedEvent event) {
+        invalidate(event.getChanges(), event.getAffectedLocales());
+    }
+    
+    private void invalidate(List<TranslationChangedEvent> changes, Set<String> locales) {
+        Cache translationsById = cacheManager.getCache("translationsById");
+        if (translationsById != null) {
+            for (TranslationChangedEvent change : changes) {
+                if (change.getTranslationId() != null) {
+                    translationsById.evict(change.getTranslationId());
+                }
+            }
+        }
+        for (String cacheName : LOCALE_CACHES) {
+            locales.forEach(locale -> exportSnapshotRefresher.invalidate(cacheName, locale));
+        }
+    }
+}
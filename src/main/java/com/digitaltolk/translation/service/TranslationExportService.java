@@ -0,0 +1,262 @@
+package com.digitaltolk.translation.service;
+
+import com.digitaltolk.translation.dto.TranslationDeltaDto;
+import com.digitaltolk.translation.dto.TranslationEntry;
+import com.digitaltolk.translation.entity.LocaleVersion;
+import com.digitaltolk.translation.entity.Translation;
+import com.digitaltolk.translation.export.BinaryBundleWriter;
+import com.digitaltolk.translation.export.ExportSnapshot;
+import com.digitaltolk.translation.export.SnapshotFileStore;
+import com.digitaltolk.translation.repository.TranslationRepository;
+import com.digitaltolk.translation.repository.TranslationTombstoneRepository;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+@Service
+public class TranslationExportService {
+
+    public static final String JSON_FORMAT = "json";
+    public static final String BINARY_FORMAT = "binary";
+    public static final String JSON_CACHE = "exportSnapshots";
+    public static final String BINARY_CACHE = "binaryExportSnapshots";
+
+    private static final Logger log = LoggerFactory.getLogger(TranslationExportService.class);
+    private static final int KEY_LOOKUP_BATCH_SIZE = 1000;
+    private static final Duration TOMBSTONE_PURGE_INTERVAL = Duration.ofHours(1);
+
+    private final TranslationRepository translationRepository;
+    private final TranslationTombstoneRepository tombstoneRepository;
+    private final ObjectMapper objectMapper;
+    private final SnapshotFileStore snapshotStore;
+    private final CatalogVersionService catalogVersionService;
+    private final long deltaOverlapMillis;
+    private final Duration tombstoneRetention;
+    private final ScheduledExecutorService purger = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "tombstone-purger");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Autowired
+    public TranslationExportService(TranslationRepository translationRepository,
+                                    TranslationTombstoneRepository tombstoneRepository,
+                                    ObjectMapper objectMapper,
+                                    SnapshotFileStore snapshotStore,
+                                    CatalogVersionService catalogVersionService,
+                                    @Value("${translation.export.delta-overlap-ms:5000}") long deltaOverlapMillis,
+                                    @Value("${translation.export.tombstone-retention:P30D}") Duration tombstoneRetention) {
+        this.translationRepository = translationRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.objectMapper = objectMapper;
+        this.snapshotStore = snapshotStore;
+        this.catalogVersionService = catalogVersionService;
+        this.deltaOverlapMillis = deltaOverlapMillis;
+        this.tombstoneRetention = tombstoneRetention;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        purger.scheduleWithFixedDelay(this::purgeTombstones, 0, TOMBSTONE_PURGE_INTERVAL.toMillis(),
+            TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        purger.shutdownNow();
+    }
+
+    @Cacheable(value = JSON_CACHE, key = "#locale", sync = true)
+    @Transactional(readOnly = true)
+    public ExportSnapshot getExportSnapshot(String locale) {
+        return buildExportSnapshot(locale);
+    }
+
+    /**
+     * Builds the snapshot without going through the cache, for {@link ExportSnapshotRefresher}. Keys are sorted in
+     * Java rather than by the database collation, like a patched catalog's, so the same content gives the same bytes
+     * and ETag whichever way the snapshot was built. Its hash is recorded for the manifest against the version read
+     * before the rows.
+     */
+    @Transactional(readOnly = true)
+    public ExportSnapshot buildExportSnapshot(String locale) {
+        Optional<LocaleVersion> version = catalogVersionService.getVersion(locale);
+        ExportSnapshot snapshot = storedSnapshot(JSON_FORMAT, locale, () -> {
+            long cursor = nextCursor(0);
+            SortedMap<String, String> catalog = new TreeMap<>();
+            try (Stream<TranslationEntry> rows = translationRepository.streamEntriesByLocale(locale)) {
+                rows.forEach(entry -> catalog.putIfAbsent(entry.getKey(), entry.getContent()));
+            }
+            return ExportSnapshot.of(toJson(catalog), cursor);
+        });
+        version.ifPresent(readAt -> catalogVersionService.recordExportHash(readAt, snapshot.getHash()));
+        return snapshot;
+    }
+
+    /**
+     * Serializes a catalog already in memory, so {@link LocaleCatalogPatcher} can swap in the export of a patched
+     * catalog without reading the locale again. Byte for byte what {@link #buildExportSnapshot(String)} builds for
+     * the same content.
+     *
+     * @param readAt when the newest rows of the catalog were read; the delta cursor trails it like a rebuild's would
+     */
+    public ExportSnapshot buildExportSnapshot(Map<String, String> catalog, long readAt) {
+        SortedMap<String, String> sorted = catalog instanceof SortedMap<String, String> sortedCatalog
+            && sortedCatalog.comparator() == null ? sortedCatalog : new TreeMap<>(catalog);
+        return ExportSnapshot.of(toJson(sorted), Math.max(0, readAt - deltaOverlapMillis));
+    }
+
+    @Cacheable(value = BINARY_CACHE, key = "#locale", sync = true)
+    @Transactional(readOnly = true)
+    public ExportSnapshot getBinaryExportSnapshot(String locale) {
+        return buildBinaryExportSnapshot(locale);
+    }
+
+    @Transactional(readOnly = true)
+    public ExportSnapshot buildBinaryExportSnapshot(String locale) {
+        return storedSnapshot(BINARY_FORMAT, locale, () -> {
+            long cursor = nextCursor(0);
+            Map<String, String> entries = new TreeMap<>();
+            for (TranslationEntry entry : translationRepository.findEntriesByLocale(locale)) {
+                entries.putIfAbsent(entry.getKey(), entry.getContent());
+            }
+            return ExportSnapshot.of(BinaryBundleWriter.encode(entries), cursor);
+        });
+    }
+
+    /**
+     * Returns what changed in a locale after the given cursor. The returned cursor trails the read by the
+     * configured overlap so rows committed late with an earlier timestamp are picked up by the next call;
+     * clients apply deletes before upserts, which makes replaying the overlap harmless. A cursor older than the
+     * tombstone retention may have missed deletes that are no longer remembered, so it gets the whole catalog,
+     * flagged as full, instead.
+     */
+    @Transactional(readOnly = true)
+    public TranslationDeltaDto getTranslationDelta(String locale, long since) {
+        if (since < System.currentTimeMillis() - tombstoneRetention.toMillis()) {
+            long cursor = nextCursor(0);
+            SortedMap<String, String> catalog = new TreeMap<>();
+            try (Stream<TranslationEntry> rows = translationRepository.streamEntriesByLocale(locale)) {
+                rows.forEach(entry -> catalog.putIfAbsent(entry.getKey(), entry.getContent()));
+            }
+            return new TranslationDeltaDto(locale, catalog, List.of(), cursor, true);
+        }
+        long cursor = nextCursor(since);
+        LocalDateTime sinceTime = LocalDateTime.ofInstant(Instant.ofEpochMilli(since), ZoneId.systemDefault());
+
+        Map<String, String> upserts = new LinkedHashMap<>();
+        for (Translation translation : translationRepository.findByLocaleChangedSince(locale, sinceTime)) {
+            upserts.putIfAbsent(translation.getKey(), translation.getContent());
+        }
+
+        // A key may have been deleted and re-created, or moved away from while a duplicate row remains
+        List<String> deletedKeys = tombstoneRepository.findDeletedKeysSince(locale, sinceTime);
+        Set<String> stillPresent = new HashSet<>(upserts.keySet());
+        for (int from = 0; from < deletedKeys.size(); from += KEY_LOOKUP_BATCH_SIZE) {
+            List<String> batch = deletedKeys.subList(from, Math.min(from + KEY_LOOKUP_BATCH_SIZE, deletedKeys.size()));
+            stillPresent.addAll(translationRepository.findExistingKeys(locale, batch));
+        }
+        List<String> deletes = deletedKeys.stream()
+            .filter(key -> !stillPresent.contains(key))
+            .sorted()
+            .toList();
+
+        return new TranslationDeltaDto(locale, upserts, deletes, cursor);
+    }
+
+    /**
+     * Writes the locale catalog as a JSON object straight from a forward-only cursor.
+     * Rows are read as unmanaged (key, content) projections, so heap use does not grow with the catalog size.
+     */
+    @Transactional(readOnly = true)
+    public void writeTranslationsForLocale(String locale, OutputStream out) throws IOException {
+        try (Stream<TranslationEntry> rows = translationRepository.streamEntriesByLocale(locale);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.writeStartObject();
+
+            String previousKey = null;
+            Iterator<TranslationEntry> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                TranslationEntry entry = iterator.next();
+                // Rows arrive ordered by key, so duplicates are adjacent; keep the first like the map export does
+                if (!entry.getKey().equals(previousKey)) {
+                    generator.writeStringField(entry.getKey(), entry.getContent());
+                    previousKey = entry.getKey();
+                }
+            }
+
+            generator.writeEndObject();
+        }
+    }
+
+    /**
+     * Forgets deletes older than the retention; deltas from cursors that old are answered with the full catalog.
+     */
+    void purgeTombstones() {
+        try {
+            int purged = tombstoneRepository.deleteTombstonesBefore(LocalDateTime.now().minus(tombstoneRetention));
+            if (purged > 0) {
+                log.info("Purged {} translation tombstones older than {}", purged, tombstoneRetention);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not purge translation tombstones", e);
+        }
+    }
+
+    private byte[] toJson(SortedMap<String, String> catalog) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            generator.writeStartObject();
+            for (Map.Entry<String, String> entry : catalog.entrySet()) {
+                generator.writeStringField(entry.getKey(), entry.getValue());
+            }
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Serves the snapshot from the file store when one exists for the locale's current catalog version, otherwise
+     * builds and stores it. The version is read before the rows, so a stored body is never older than its version.
+     */
+    private ExportSnapshot storedSnapshot(String format, String locale, Supplier<ExportSnapshot> builder) {
+        Optional<String> version = snapshotStore.isEnabled() ? catalogVersionService.getSnapshotKey(locale) : Optional.empty();
+        if (version.isEmpty()) {
+            return builder.get();
+        }
+        return snapshotStore.load(format, locale, version.get())
+            .orElseGet(() -> snapshotStore.save(format, locale, version.get(), builder.get()));
+    }
+
+    private long nextCursor(long since) {
+        return Math.max(since, System.currentTimeMillis() - deltaOverlapMillis);
+    }
+}
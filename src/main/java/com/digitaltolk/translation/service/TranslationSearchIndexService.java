@@ -0,0 +1,287 @@
+package com.digitaltolk.translation.service;
+
+import com.digitaltolk.translation.catalog.TrigramIndex;
+import com.digitaltolk.translation.dto.TranslationSearchFilter;
+import com.digitaltolk.translation.dto.TranslationSearchFilter.TagMatch;
+import com.digitaltolk.translation.dto.TranslationSearchRow;
+import com.digitaltolk.translation.dto.TranslationTagLink;
+import com.digitaltolk.translation.entity.Tag;
+import com.digitaltolk.translation.event.TranslationBatchChangedEvent;
+import com.digitaltolk.translation.event.TranslationChangedEvent;
+import com.digitaltolk.translation.repository.TagRepository;
+import com.digitaltolk.translation.repository.TranslationRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Answers key/content substring searches from an in-memory {@link TrigramIndex} instead of a {@code LIKE '%...%'}
+ * table scan (enable with {@code translation.search.trigram-index.enabled}). Loaded once the application is ready
+ * and kept in sync by re-reading every translation a committed write touches; callers use the SQL search until the
+ * first load has finished. Once replaced and deleted translations make up a good part of the index, it is compacted
+ * on a background thread rather than by the write that tipped it over.
+ */
+@Service
+public class TranslationSearchIndexService {
+
+    private static final Logger log = LoggerFactory.getLogger(TranslationSearchIndexService.class);
+    // Rebuild without retired documents once there are this many and they make up a quarter of the index
+    private static final int MIN_RETIRED_FOR_COMPACTION = 10_000;
+    private static final int REFRESH_BATCH_SIZE = 1000;
+
+    private final TranslationRepository translationRepository;
+    private final TagRepository tagRepository;
+    private final boolean enabled;
+    private volatile TrigramIndex index;
+    // Translations written while a load is running, re-read once it finishes; null when no load is running
+    private Set<Long> changedDuringLoad;
+    // Translations waiting to be re-read into the published index, by the one thread that is draining them if any;
+    // a compaction holds the drain too, so nothing is written to the index it is copying
+    private final Set<Long> pending = new HashSet<>();
+    private boolean draining;
+    private boolean compactionScheduled;
+    private final ExecutorService compactor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "search-index-compactor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Autowired
+    public TranslationSearchIndexService(TranslationRepository translationRepository, TagRepository tagRepository,
+                                         @Value("${translation.search.trigram-index.enabled:false}") boolean enabled) {
+        this.translationRepository = translationRepository;
+        this.tagRepository = tagRepository;
+        this.enabled = enabled;
+    }
+
+    public boolean isReady() {
+        return index != null;
+    }
+
+    /**
+     * Returns the ids, ascending, of the translations the SQL search matches for this filter; empty when the index
+     * is not loaded yet, a pattern contains LIKE wildcards, which only the SQL search interprets, or tags are
+     * excluded, which the index does not support. Full-text queries are the caller's to route elsewhere: here the
+     * content is matched as a substring.
+     */
+    public Optional<long[]> search(TranslationSearchFilter filter) {
+        TrigramIndex current = index;
+        if (current == null || hasWildcard(filter.getKey()) || hasWildcard(filter.getContent())
+                || filter.hasExcludedTags()) {
+            return Optional.empty();
+        }
+        long[] tagIds = null;
+        if (filter.hasTags()) {
+            tagIds = tagRepository.findByNameIn(filter.getTags()).stream().mapToLong(Tag::getId).toArray();
+            // No translation carries a tag that does not exist
+            if (filter.getTagMatch() == TagMatch.ALL && tagIds.length < filter.getTags().size()) {
+                return Optional.of(new long[0]);
+            }
+        }
+        return Optional.of(current.search(filter.getKey(), filter.getContent(), filter.getLocale(), tagIds,
+            filter.getTagMatch() == TagMatch.ALL));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        synchronized (this) {
+            changedDuringLoad = new HashSet<>();
+        }
+        try {
+            TrigramIndex loaded = new TrigramIndex();
+            for (String locale : translationRepository.findDistinctLocales()) {
+                Map<Long, long[]> tags = tagsByTranslation(translationRepository.findTagLinksByLocale(locale));
+                for (TranslationSearchRow row : translationRepository.findSearchRowsByLocale(locale)) {
+                    loaded.put(row.getId(), row.getKey(), row.getLocale(), row.getContent(),
+                        tags.getOrDefault(row.getId(), new long[0]));
+                }
+            }
+            // Re-read what was written meanwhile outside the lock, until no write slipped in during the last round
+            while (true) {
+                Set<Long> changed;
+                synchronized (this) {
+                    if (changedDuringLoad.isEmpty()) {
+                        index = loaded;
+                        break;
+                    }
+                    changed = changedDuringLoad;
+                    changedDuringLoad = new HashSet<>();
+                }
+                refresh(loaded, changed);
+            }
+            log.info("Indexed {} translations for search in {} ms", loaded.size(), System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            log.error("Could not index translations for search, searches keep going to the database", e);
+        } finally {
+            synchronized (this) {
+                changedDuringLoad = null;
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        compactor.shutdownNow();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTranslationChanged(TranslationChangedEvent event) {
+        enqueue(List.of(event));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTranslationsChanged(TranslationBatchChangedEvent event) {
+        enqueue(event.getChanges());
+    }
+
+    /**
+     * Queues the written translations for re-reading. Whichever thread finds no drain running drains the queue, so
+     * no query runs under the lock and writes never wait for one another's round trips.
+     */
+    private void enqueue(List<TranslationChangedEvent> changes) {
+        Set<Long> ids = new HashSet<>();
+        for (TranslationChangedEvent change : changes) {
+            if (change.getTranslationId() != null) {
+                ids.add(change.getTranslationId());
+            }
+        }
+        if (ids.isEmpty()) {
+            return;
+        }
+        synchronized (this) {
+            if (changedDuringLoad != null) {
+                changedDuringLoad.addAll(ids);
+            }
+            if (index == null) {
+                return;
+            }
+            pending.addAll(ids);
+            if (draining) {
+                return;
+            }
+            draining = true;
+        }
+        drain();
+    }
+
+    private void drain() {
+        TrigramIndex target;
+        while (true) {
+            Set<Long> batch;
+            synchronized (this) {
+                if (pending.isEmpty()) {
+                    draining = false;
+                    target = index;
+                    break;
+                }
+                batch = new HashSet<>(pending);
+                pending.clear();
+                target = index;
+            }
+            try {
+                refresh(target, batch);
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    draining = false;
+                }
+                throw e;
+            }
+        }
+        scheduleCompactionIfDue(target);
+    }
+
+    private void scheduleCompactionIfDue(TrigramIndex current) {
+        int retired = current.retiredCount();
+        if (retired < MIN_RETIRED_FOR_COMPACTION || retired * 4 < current.size()) {
+            return;
+        }
+        synchronized (this) {
+            if (compactionScheduled) {
+                return;
+            }
+            compactionScheduled = true;
+        }
+        compactor.execute(this::compact);
+    }
+
+    /**
+     * Replaces the index with a compacted copy. Takes over the drain while copying, so writes arriving meanwhile are
+     * only queued, then drains them into the copy; when a drain is already running it is left to schedule this again
+     * once it is done.
+     */
+    void compact() {
+        TrigramIndex current;
+        synchronized (this) {
+            compactionScheduled = false;
+            if (draining) {
+                return;
+            }
+            draining = true;
+            current = index;
+        }
+        try {
+            TrigramIndex compacted = current.compact();
+            synchronized (this) {
+                index = compacted;
+            }
+            log.info("Compacted search index to {} translations", compacted.size());
+        } catch (RuntimeException e) {
+            log.warn("Could not compact the search index", e);
+        }
+        try {
+            drain();
+        } catch (RuntimeException e) {
+            log.warn("Could not apply writes queued during search index compaction", e);
+        }
+    }
+
+    /**
+     * Copies the committed state of the given translations into the index; like the other listeners this re-reads
+     * rather than trusting the event, so events arriving out of commit order cannot leave an old version behind.
+     */
+    private void refresh(TrigramIndex target, Set<Long> ids) {
+        List<Long> all = new ArrayList<>(ids);
+        for (int from = 0; from < all.size(); from += REFRESH_BATCH_SIZE) {
+            List<Long> batch = all.subList(from, Math.min(from + REFRESH_BATCH_SIZE, all.size()));
+            Map<Long, long[]> tags = tagsByTranslation(translationRepository.findTagLinksByIds(batch));
+            Set<Long> missing = new HashSet<>(batch);
+            for (TranslationSearchRow row : translationRepository.findSearchRowsByIds(batch)) {
+                target.put(row.getId(), row.getKey(), row.getLocale(), row.getContent(),
+                    tags.getOrDefault(row.getId(), new long[0]));
+                missing.remove(row.getId());
+            }
+            missing.forEach(target::remove);
+        }
+    }
+
+    private static Map<Long, long[]> tagsByTranslation(List<TranslationTagLink> links) {
+        Map<Long, long[]> tags = new HashMap<>();
+        for (TranslationTagLink link : links) {
+            tags.merge(link.getTranslationId(), new long[]{link.getTagId()}, (existing, added) -> {
+                long[] merged = Arrays.copyOf(existing, existing.length + 1);
+                merged[existing.length] = added[0];
+                return merged;
+            });
+        }
+        return tags;
+    }
+
+    private static boolean hasWildcard(String pattern) {
+        return pattern != null && (pattern.indexOf('%') >= 0 || pattern.indexOf('_') >= 0
+            || pattern.indexOf('\\') >= 0);
+    }
+}
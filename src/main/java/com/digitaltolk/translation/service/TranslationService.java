@@ -1,19 +1,37 @@
 package com.digitaltolk.translation.service;
 
+import com.digitaltolk.translation.dto.SearchCursor;
 import com.digitaltolk.translation.dto.TranslationDto;
+import com.digitaltolk.translation.dto.TranslationEntry;
+import com.digitaltolk.translation.dto.TranslationSearchFilter;
+import com.digitaltolk.translation.dto.TranslationSearchSliceDto;
+import com.digitaltolk.translation.dto.TranslationSearchSliceDto.Total;
 import com.digitaltolk.translation.entity.Tag;
 import com.digitaltolk.translation.entity.Translation;
+import com.digitaltolk.translation.entity.TranslationTombstone;
+import com.digitaltolk.translation.event.TranslationChangedEvent;
+import com.digitaltolk.translation.repository.JpqlTranslationSearch;
+import com.digitaltolk.translation.repository.PostgresTranslationSearch;
 import com.digitaltolk.translation.repository.TagRepository;
 import com.digitaltolk.translation.repository.TranslationRepository;
+import com.digitaltolk.translation.repository.TranslationTombstoneRepository;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.*;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
@@ -22,24 +40,62 @@ public class TranslationService {
     
     private final TranslationRepository translationRepository;
     private final TagRepository tagRepository;
+    private final TranslationTombstoneRepository tombstoneRepository;
+    private final CatalogVersionService catalogVersionService;
+    private final ResidentCatalogService residentCatalog;
+    private final TranslationSearchIndexService searchIndex;
+    private final TagIndexService tagIndex;
+    private final PostgresTranslationSearch databaseSearch;
+    private final JpqlTranslationSearch jpqlSearch;
+    private final ChangeLogService changeLog;
+    private final SingleFlightLoader singleFlight;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ApplicationEventPublisher eventPublisher;
     
     @Autowired
-    public TranslationService(TranslationRepository translationRepository, TagRepository tagRepository) {
+    public TranslationService(TranslationRepository translationRepository, TagRepository tagRepository,
+                              TranslationTombstoneRepository tombstoneRepository,
+                              CatalogVersionService catalogVersionService,
+                              ResidentCatalogService residentCatalog, TranslationSearchIndexService searchIndex,
+                              TagIndexService tagIndex,
+                              PostgresTranslationSearch databaseSearch, JpqlTranslationSearch jpqlSearch,
+                              ChangeLogService changeLog,
+                              SingleFlightLoader singleFlight, PlatformTransactionManager transactionManager,
+                              ApplicationEventPublisher eventPublisher) {
         this.translationRepository = translationRepository;
         this.tagRepository = tagRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.catalogVersionService = catalogVersionService;
+        this.residentCatalog = residentCatalog;
+        this.searchIndex = searchIndex;
+        this.tagIndex = tagIndex;
+        this.databaseSearch = databaseSearch;
+        this.jpqlSearch = jpqlSearch;
+        this.changeLog = changeLog;
+        this.singleFlight = singleFlight;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.eventPublisher = eventPublisher;
     }
     
-    @CacheEvict(value = "translations", allEntries = true)
     public TranslationDto createTranslation(TranslationDto dto) {
         Translation translation = convertToEntity(dto);
         translation = translationRepository.save(translation);
+        catalogVersionService.bump(translation.getLocale());
+        publishChange(TranslationChangedEvent.created(translation));
         return convertToDto(translation);
     }
     
-    @CacheEvict(value = "translations", allEntries = true)
     public TranslationDto updateTranslation(Long id, TranslationDto dto) {
         Translation translation = translationRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("Translation not found with id: " + id));
+        String previousKey = translation.getKey();
+        String previousLocale = translation.getLocale();
+        
+        // Moving a translation to another key or locale removes it from the old one for delta exports
+        if (!previousKey.equals(dto.getKey()) || !previousLocale.equals(dto.getLocale())) {
+            tombstoneRepository.save(new TranslationTombstone(previousKey, previousLocale));
+        }
         
         translation.setKey(dto.getKey());
         translation.setLocale(dto.getLocale());
@@ -54,11 +110,13 @@ public class TranslationService {
         }
         
         translation = translationRepository.save(translation);
+        catalogVersionService.bump(List.of(previousLocale, translation.getLocale()));
+        publishChange(TranslationChangedEvent.updated(previousKey, previousLocale, translation));
         return convertToDto(translation);
     }
     
     @Transactional(readOnly = true)
-    @Cacheable(value = "translations", key = "#id")
+    @Cacheable(value = "translationsById", key = "#id", sync = true)
     public Optional<TranslationDto> getTranslationById(Long id) {
         return translationRepository.findById(id)
             .map(this::convertToDto);
@@ -66,27 +124,228 @@ public class TranslationService {
     
     @Transactional(readOnly = true)
     public Optional<TranslationDto> getTranslationByKeyAndLocale(String key, String locale) {
+        // The resident catalog only holds content, but it can still rule out a miss without a query
+        if (residentCatalog.isReady() && residentCatalog.get(key, locale).isEmpty()) {
+            return Optional.empty();
+        }
         return translationRepository.findByKeyAndLocale(key, locale)
             .map(this::convertToDto);
     }
     
-    @Transactional(readOnly = true)
+    // Lookups and searches share identical in-flight queries; only the caller that runs the query opens a
+    // transaction, so callers waiting on it do not hold a pooled connection
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Optional<TranslationEntry> getTranslationEntry(String key, String locale) {
+        if (residentCatalog.isReady()) {
+            return residentCatalog.get(key, locale).map(content -> new TranslationEntry(key, content));
+        }
+        return singleFlight.load("lookup", List.of(key, locale), () ->
+            readOnlyTransaction.execute(status -> translationRepository.findEntryByKeyAndLocale(key, locale)));
+    }
+    
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Page<TranslationDto> searchTranslations(String key, String content, String locale, String tagName, Pageable pageable) {
-        return translationRepository.searchTranslations(key, content, locale, tagName, pageable)
-            .map(this::convertToDto);
+        return searchTranslations(TranslationSearchFilter.of(key, content, locale, tagName), pageable);
+    }
+    
+    /**
+     * With {@code fullText}, the filter's content is matched as a full-text query on PostgreSQL; other databases
+     * have no full-text search and match it as a substring, as without the flag.
+     *
+     * @throws IllegalArgumentException if {@code pageable} sorts by a property translations cannot be sorted by
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Page<TranslationDto> searchTranslations(TranslationSearchFilter filter, Pageable pageable) {
+        if (pageable.isPaged() && pageable.getSort().isUnsorted()) {
+            // The index returns matches by id, which is the order the unsorted SQL search produces too
+            Optional<long[]> matches = indexMatches(filter);
+            if (matches.isPresent()) {
+                return pageOf(matches.get(), pageable);
+            }
+            if (databaseSearch.isEnabled()) {
+                return singleFlight.load("search", Arrays.asList(filter, pageable), () -> {
+                    Page<Long> ids = databaseSearch.search(filter, pageable);
+                    return new PageImpl<>(findInOrder(ids.getContent()), pageable, ids.getTotalElements());
+                });
+            }
+        }
+        return singleFlight.load("search", Arrays.asList(filter, pageable), () ->
+            readOnlyTransaction.execute(status -> {
+                List<Long> ids = pageable.isPaged()
+                    ? jpqlSearch.find(filter, pageable.getSort(), pageable.getOffset(), pageable.getPageSize())
+                    : jpqlSearch.find(filter, pageable.getSort(), 0, Integer.MAX_VALUE);
+                return PageableExecutionUtils.getPage(findInOrder(ids), pageable, () -> jpqlSearch.count(filter));
+            }));
     }
     
-    @Cacheable(value = "translations", key = "#locale")
+    /**
+     * Like {@link #searchTranslations}, but without counting the matches unless {@code total} asks for it: a page
+     * reads one match past its end to tell whether another follows. The index counts its matches for free, so its
+     * total is always exact; only PostgreSQL can estimate one from statistics, elsewhere an approximate total is
+     * counted exactly.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public TranslationSearchSliceDto searchTranslationsSlice(TranslationSearchFilter filter, Pageable pageable,
+                                                             Total total) {
+        Optional<long[]> matches = indexMatches(filter);
+        if (matches.isPresent()) {
+            long[] ids = matches.get();
+            int from = (int) Math.min(pageable.getOffset(), ids.length);
+            int to = Math.min(from + pageable.getPageSize(), ids.length);
+            TranslationSearchSliceDto slice = new TranslationSearchSliceDto(
+                findInOrder(Arrays.stream(ids, from, to).boxed().toList()), to < ids.length, null);
+            return withTotal(slice, total, () -> (long) ids.length, null);
+        }
+        return singleFlight.load("searchSlice", Arrays.asList(filter, pageable, total), () -> {
+            List<Long> ids = databaseSearch.isEnabled()
+                ? databaseSearch.find(filter, pageable.getOffset(), pageable.getPageSize() + 1)
+                : readOnlyTransaction.execute(status ->
+                    jpqlSearch.find(filter, Sort.unsorted(), pageable.getOffset(), pageable.getPageSize() + 1));
+            // The row past the page only tells whether another page follows
+            boolean hasNext = ids.size() > pageable.getPageSize();
+            TranslationSearchSliceDto slice = new TranslationSearchSliceDto(
+                findInOrder(hasNext ? ids.subList(0, pageable.getPageSize()) : ids), hasNext, null);
+            return withTotal(slice, total, () -> countMatches(filter),
+                databaseSearch.isEnabled() ? () -> databaseSearch.estimateCount(filter) : null);
+        });
+    }
+    
+    /**
+     * Keyset variant of {@link #searchTranslations}: the {@code size} matches after {@code after} (from the start
+     * when null) and a cursor for the page that follows them. Matches are ordered by id, or by relevance for
+     * full-text queries on PostgreSQL, so every page costs about what the first does and writes between pages
+     * cannot shift results onto a page already read. Totals are counted as for {@link #searchTranslationsSlice}.
+     *
+     * @throws IllegalArgumentException if {@code after} comes from a search in a different order
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public TranslationSearchSliceDto searchTranslationsAfter(TranslationSearchFilter filter, SearchCursor after,
+                                                             int size, Total total) {
+        Optional<long[]> matches = indexMatches(filter);
+        if (matches.isPresent()) {
+            long[] ids = matches.get();
+            return withTotal(sliceOf(positionsAfter(ids, after, size + 1), size), total, () -> (long) ids.length,
+                null);
+        }
+        List<Object> query = Arrays.asList(filter, after == null ? null : after.encode(), size, total);
+        return singleFlight.load("searchAfter", query, () -> {
+            if (databaseSearch.isEnabled()) {
+                return withTotal(sliceOf(databaseSearch.searchAfter(filter, after, size + 1), size), total,
+                    () -> databaseSearch.count(filter), () -> databaseSearch.estimateCount(filter));
+            }
+            List<Long> ids = readOnlyTransaction.execute(status ->
+                jpqlSearch.findAfter(filter, after == null ? 0 : after.getId(), size + 1));
+            return withTotal(sliceOf(ids.stream().map(SearchCursor::afterId).toList(), size), total,
+                () -> countMatches(filter), null);
+        });
+    }
+    
+    /**
+     * Returns the number of matches carrying each tag, by tag name; content is matched as a substring.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Map<String, Long> countTranslationsByTag(TranslationSearchFilter filter) {
+        boolean unfiltered = !filter.hasNonTagPredicates() && !filter.hasTags() && !filter.hasExcludedTags();
+        Optional<Map<String, Long>> counts = unfiltered
+            ? tagIndex.countsByTag(null)
+            : indexMatches(filter).flatMap(ids -> tagIndex.countsByTag(Roaring64Bitmap.bitmapOf(ids)));
+        return counts.orElseGet(() -> readOnlyTransaction.execute(status -> jpqlSearch.countByTag(filter)));
+    }
+    
+    /**
+     * Matches from memory, ascending, when the indexes can tell: tags from the tag bitmaps, and key, content and locale
+     * from the trigram index. Full-text queries go to PostgreSQL where it can run them; the index only matches
+     * substrings.
+     */
+    private Optional<long[]> indexMatches(TranslationSearchFilter filter) {
+        if (filter.isFullText() && databaseSearch.isEnabled()) {
+            return Optional.empty();
+        }
+        Optional<Roaring64Bitmap> tagged = tagIndex.select(filter);
+        if (tagged.isEmpty()) {
+            return searchIndex.search(filter);
+        }
+        if (!filter.hasNonTagPredicates()) {
+            return Optional.of(tagged.get().toArray());
+        }
+        Roaring64Bitmap admitted = tagged.get();
+        return searchIndex.search(filter.withoutTags())
+            .map(ids -> Arrays.stream(ids).filter(admitted::contains).toArray());
+    }
+    
+    private long countMatches(TranslationSearchFilter filter) {
+        return databaseSearch.isEnabled()
+            ? databaseSearch.count(filter)
+            : readOnlyTransaction.execute(status -> jpqlSearch.count(filter));
+    }
+    
+    /**
+     * Adds the requested total; where there is no cheaper {@code estimate}, approximate totals are counted exactly
+     * and say so.
+     */
+    private static TranslationSearchSliceDto withTotal(TranslationSearchSliceDto slice, Total total,
+                                                       Supplier<Long> count, Supplier<Long> estimate) {
+        if (total == Total.EXACT || (total == Total.APPROXIMATE && estimate == null)) {
+            slice.setTotalElements(count.get());
+            slice.setTotalApproximate(false);
+        } else if (total == Total.APPROXIMATE) {
+            slice.setTotalElements(estimate.get());
+            slice.setTotalApproximate(true);
+        }
+        return slice;
+    }
+    
+    private static List<SearchCursor> positionsAfter(long[] ids, SearchCursor after, int limit) {
+        int from = 0;
+        if (after != null) {
+            int found = Arrays.binarySearch(ids, after.getId());
+            from = found >= 0 ? found + 1 : -found - 1;
+        }
+        return Arrays.stream(ids, from, Math.min(ids.length, from + limit))
+            .mapToObj(SearchCursor::afterId)
+            .toList();
+    }
+    
+    private TranslationSearchSliceDto sliceOf(List<SearchCursor> positions, int size) {
+        // The row past the page only tells whether another page follows
+        boolean hasNext = positions.size() > size;
+        List<SearchCursor> page = hasNext ? positions.subList(0, size) : positions;
+        List<TranslationDto> content = findInOrder(page.stream().map(SearchCursor::getId).toList());
+        return new TranslationSearchSliceDto(content, hasNext, hasNext ? page.get(size - 1).encode() : null);
+    }
+    
+    private Page<TranslationDto> pageOf(long[] ids, Pageable pageable) {
+        int from = (int) Math.min(pageable.getOffset(), ids.length);
+        int to = Math.min(from + pageable.getPageSize(), ids.length);
+        return new PageImpl<>(findInOrder(Arrays.stream(ids, from, to).boxed().toList()), pageable, ids.length);
+    }
+    
+    private List<TranslationDto> findInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return readOnlyTransaction.execute(status -> {
+            Map<Long, Translation> byId = translationRepository.findWithTagsByIdIn(ids).stream()
+                .collect(Collectors.toMap(Translation::getId, translation -> translation));
+            // A translation deleted since its id was looked up is left out of the page
+            return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .map(this::convertToDto)
+                .toList();
+        });
+    }
+    
+    @Cacheable(value = "localeCatalogs", key = "#locale", sync = true)
     @Transactional(readOnly = true)
     public Map<String, String> getTranslationsForLocale(String locale) {
-        List<Translation> translations = translationRepository.findByLocaleOrderByKey(locale);
-        return translations.stream()
-            .collect(Collectors.toMap(
-                Translation::getKey,
-                Translation::getContent,
-                (existing, replacement) -> existing,
-                LinkedHashMap::new
-            ));
+        SortedMap<String, String> catalog = new TreeMap<>();
+        for (TranslationEntry entry : translationRepository.findEntriesByLocale(locale)) {
+            catalog.putIfAbsent(entry.getKey(), entry.getContent());
+        }
+        // Cached catalogs are shared between readers and only ever replaced as a whole, never modified; sorted in
+        // Java, so patching keys in keeps the order a rebuild would have whatever the database collation
+        return Collections.unmodifiableSortedMap(catalog);
     }
     
     @Transactional(readOnly = true)
@@ -94,12 +353,13 @@ public class TranslationService {
         return translationRepository.findDistinctLocales();
     }
     
-    @CacheEvict(value = "translations", allEntries = true)
     public void deleteTranslation(Long id) {
-        if (!translationRepository.existsById(id)) {
-            throw new RuntimeException("Translation not found with id: " + id);
-        }
-        translationRepository.deleteById(id);
+        Translation translation = translationRepository.findById(id)
+            .orElseThrow(() -> new RuntimeException("Translation not found with id: " + id));
+        tombstoneRepository.save(new TranslationTombstone(translation.getKey(), translation.getLocale()));
+        translationRepository.delete(translation);
+        catalogVersionService.bump(translation.getLocale());
+        publishChange(TranslationChangedEvent.deleted(translation));
     }
     
     @Transactional(readOnly = true)
@@ -107,6 +367,14 @@ public class TranslationService {
         return translationRepository.countAll();
     }
     
+    /**
+     * Logs the change for other nodes in this transaction and notifies local listeners, which act on commit.
+     */
+    private void publishChange(TranslationChangedEvent event) {
+        changeLog.record(event);
+        eventPublisher.publishEvent(event);
+    }
+    
     private Translation convertToEntity(TranslationDto dto) {
         Translation translation = new Translation(dto.getKey(), dto.getLocale(), dto.getContent());
         
@@ -0,0 +1,49 @@
+-- Schema as it was before migrations were introduced: translations, tags and users. Existing databases are baselined
+-- at this version instead (spring.flyway.baseline-on-migrate), so this only runs against an empty schema; everything
+-- added since belongs in a later migration, which runs everywhere.
+
+CREATE TABLE tags (
+    created_at timestamp(6) NOT NULL,
+    id bigserial NOT NULL,
+    name varchar(100) NOT NULL UNIQUE,
+    description varchar(500),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE translation_tags (
+    tag_id bigint NOT NULL,
+    translation_id bigint NOT NULL,
+    PRIMARY KEY (tag_id, translation_id)
+);
+
+CREATE TABLE translations (
+    created_at timestamp(6) NOT NULL,
+    id bigserial NOT NULL,
+    updated_at timestamp(6),
+    locale varchar(10) NOT NULL,
+    content TEXT NOT NULL,
+    translation_key varchar(255) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE users (
+    created_at timestamp(6) NOT NULL,
+    id bigserial NOT NULL,
+    username varchar(100) NOT NULL UNIQUE,
+    email varchar(255) NOT NULL UNIQUE,
+    password varchar(255) NOT NULL,
+    role varchar(255) NOT NULL CHECK (role IN ('USER', 'ADMIN')),
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_translation_tags_translation ON translation_tags (translation_id);
+CREATE INDEX idx_translation_tags_tag ON translation_tags (tag_id);
+CREATE INDEX idx_translation_key ON translations (translation_key);
+CREATE INDEX idx_locale ON translations (locale);
+CREATE INDEX idx_key_locale ON translations (translation_key, locale);
+CREATE INDEX idx_content ON translations (content);
+
+ALTER TABLE translation_tags
+    ADD CONSTRAINT fk_translation_tags_tag FOREIGN KEY (tag_id) REFERENCES tags;
+ALTER TABLE translation_tags
+    ADD CONSTRAINT fk_translation_tags_translation FOREIGN KEY (translation_id) REFERENCES translations;
@@ -0,0 +1,13 @@
+-- Delta exports (/export/{locale}?since=): deleted keys are remembered as tombstones, and changed translations are
+-- found by locale and update time.
+
+CREATE TABLE translation_tombstones (
+    deleted_at timestamp(6) NOT NULL,
+    id bigserial NOT NULL,
+    locale varchar(10) NOT NULL,
+    translation_key varchar(255) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_tombstone_locale_deleted_at ON translation_tombstones (locale, deleted_at);
+CREATE INDEX idx_locale_updated_at ON translations (locale, updated_at);
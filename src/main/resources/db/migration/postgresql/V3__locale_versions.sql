@@ -0,0 +1,9 @@
+-- Version counter per locale, bumped by every write to it; the manifest and hash-addressed bundles are built on it.
+-- Locales that already have translations get their row when the application starts.
+
+CREATE TABLE locale_versions (
+    catalog_version bigint NOT NULL,
+    created_at timestamp(6) NOT NULL,
+    locale varchar(10) NOT NULL,
+    PRIMARY KEY (locale)
+);
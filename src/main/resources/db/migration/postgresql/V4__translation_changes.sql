@@ -0,0 +1,17 @@
+-- Change log through which every node replays the writes of the others; rows older than the retention are purged
+-- by changed_at.
+
+CREATE TABLE translation_changes (
+    changed_at timestamp(6) NOT NULL,
+    id bigserial NOT NULL,
+    translation_id bigint,
+    change_type varchar(10) NOT NULL CHECK (change_type IN ('CREATED', 'UPDATED', 'DELETED')),
+    locale varchar(10),
+    previous_locale varchar(10),
+    node_id varchar(64) NOT NULL,
+    previous_key varchar(255),
+    translation_key varchar(255),
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_change_changed_at ON translation_changes (changed_at);
@@ -0,0 +1,40 @@
+-- Indexes for PostgresTranslationSearch. pg_trgm ships with PostgreSQL's contrib modules; creating the extension
+-- needs a role allowed to do so (superuser, or database owner on PostgreSQL 13+ since pg_trgm is trusted).
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Substring search: GIN trigram indexes serve LIKE '%...%' for patterns of three or more characters
+CREATE INDEX idx_translations_key_trgm ON translations USING gin (translation_key gin_trgm_ops);
+CREATE INDEX idx_translations_content_trgm ON translations USING gin (content gin_trgm_ops);
+
+-- Text search configuration per locale, by language subtag; languages without a stemmer use 'simple'
+CREATE FUNCTION translation_search_config(locale varchar) RETURNS regconfig
+    LANGUAGE sql IMMUTABLE PARALLEL SAFE AS $$
+    SELECT CASE lower(split_part(replace(locale, '_', '-'), '-', 1))
+        WHEN 'ar' THEN 'arabic'
+        WHEN 'da' THEN 'danish'
+        WHEN 'de' THEN 'german'
+        WHEN 'el' THEN 'greek'
+        WHEN 'en' THEN 'english'
+        WHEN 'es' THEN 'spanish'
+        WHEN 'fi' THEN 'finnish'
+        WHEN 'fr' THEN 'french'
+        WHEN 'hu' THEN 'hungarian'
+        WHEN 'it' THEN 'italian'
+        WHEN 'nl' THEN 'dutch'
+        WHEN 'no' THEN 'norwegian'
+        WHEN 'nb' THEN 'norwegian'
+        WHEN 'pt' THEN 'portuguese'
+        WHEN 'ro' THEN 'romanian'
+        WHEN 'ru' THEN 'russian'
+        WHEN 'sv' THEN 'swedish'
+        WHEN 'tr' THEN 'turkish'
+        ELSE 'simple'
+    END::regconfig
+$$;
+
+-- Full-text search on content. The vector is stored rather than only indexed, so ranking matches does not have to
+-- parse their content again; it is not mapped by the entity and the database keeps it current on every write.
+-- Adding it rewrites the table once.
+ALTER TABLE translations ADD COLUMN content_search_vector tsvector
+    GENERATED ALWAYS AS (to_tsvector(translation_search_config(locale), content)) STORED;
+CREATE INDEX idx_translations_content_fts ON translations USING gin (content_search_vector);
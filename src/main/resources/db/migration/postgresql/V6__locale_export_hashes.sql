@@ -0,0 +1,5 @@
+-- Hash of each locale's JSON export and the catalog version it was built at, so the manifest can list them without
+-- building any export.
+
+ALTER TABLE locale_versions ADD COLUMN export_hash varchar(64);
+ALTER TABLE locale_versions ADD COLUMN export_hash_version bigint;
@@ -0,0 +1,70 @@
+package com.digitaltolk.translation.catalog;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContentArenaTest {
+
+    @Test
+    void append_ShouldReadBackAcrossChunks() {
+        // Given
+        ContentArena arena = new ContentArena(16);
+
+        // When
+        long first = arena.append("Bonjour");
+        long second = arena.append("Grüß Gott, 你好");
+        long third = arena.append("");
+
+        // Then
+        assertEquals("Bonjour", arena.read(first));
+        assertEquals("Grüß Gott, 你好", arena.read(second));
+        assertEquals("", arena.read(third));
+        assertEquals(1L, second >>> 32);
+        assertEquals(3 * Integer.BYTES + 7 + "Grüß Gott, 你好".getBytes(StandardCharsets.UTF_8).length,
+            arena.usedBytes());
+    }
+
+    @Test
+    void writeJsonEscaped_ShouldMatchJackson() throws Exception {
+        // Given
+        ContentArena arena = new ContentArena();
+        String value = "Line \"one\"\n\tC:\\path\u0001\u001f ünïcödé 🎉 " + "x".repeat(20_000);
+        long handle = arena.append(value);
+
+        // When
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write('"');
+        arena.writeJsonEscaped(handle, out, new byte[8192]);
+        out.write('"');
+
+        // Then
+        assertEquals(new ObjectMapper().writeValueAsString(value), out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void release_ShouldCountDeadBytes_AndKeepThemReadable() {
+        // Given
+        ContentArena arena = new ContentArena(16);
+        long replaced = arena.append("Bonjour");
+        long live = arena.append("Salut");
+
+        // When
+        arena.release(replaced);
+        ContentArena compacted = new ContentArena(16);
+        long copied = arena.copyTo(live, compacted);
+
+        // Then
+        assertEquals(Integer.BYTES + 7, arena.deadBytes());
+        assertEquals("Bonjour", arena.read(replaced));
+        assertEquals("Salut", compacted.read(copied));
+        assertEquals(Integer.BYTES + 5, compacted.usedBytes());
+        assertTrue(arena.contentEquals(live, "Salut".getBytes(StandardCharsets.UTF_8)));
+        assertFalse(arena.contentEquals(live, "Salue".getBytes(StandardCharsets.UTF_8)));
+        assertFalse(arena.contentEquals(live, "Salut!".getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,79 @@
+package com.digitaltolk.translation.catalog;
+
+import com.digitaltolk.translation.catalog.KeyPrefixIndex.Namespace;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeyPrefixIndexTest {
+
+    @Test
+    void complete_ShouldReturnKeysWithPrefix_InKeyOrder() {
+        // Given
+        KeyPrefixIndex index = sampleIndex();
+
+        // When / Then
+        assertEquals(List.of("navigation.menu.close", "navigation.menu.open"), index.complete("navigation.men", 10));
+        assertEquals(List.of("navigation.footer.links.about", "navigation.home"), index.complete("navigation.", 2));
+        assertEquals(List.of("button.cancel", "button.submit", "greeting"), index.complete("", 3));
+        assertEquals(List.of(), index.complete("navigation.x", 10));
+        assertEquals(List.of(), index.complete("zzz", 10));
+    }
+
+    @Test
+    void children_ShouldCountKeysPerNamespace() {
+        // Given
+        KeyPrefixIndex index = sampleIndex();
+
+        // When / Then
+        assertEquals(List.of(new Namespace("button", 2, 2), new Namespace("navigation", 5, 2)), index.children(""));
+        assertEquals(List.of(new Namespace("footer", 1, 0), new Namespace("menu", 2, 2)),
+            index.children("navigation"));
+        assertEquals(List.of(new Namespace("links", 1, 1)), index.children("navigation.footer"));
+        assertEquals(List.of(), index.children("navigation.menu"));
+        assertEquals(List.of(), index.children("unknown"));
+    }
+
+    @Test
+    void add_ShouldIgnoreKeysAlreadyPresent() {
+        // Given
+        KeyPrefixIndex index = sampleIndex();
+
+        // When
+        index.add("navigation.menu.open");
+
+        // Then
+        assertEquals(8, index.size());
+        assertEquals(List.of(new Namespace("footer", 1, 0), new Namespace("menu", 2, 2)),
+            index.children("navigation"));
+    }
+
+    @Test
+    void remove_ShouldDropEmptyNamespaces() {
+        // Given
+        KeyPrefixIndex index = sampleIndex();
+
+        // When
+        index.remove("navigation.footer.links.about");
+        index.remove("navigation.menu.open");
+        index.remove("missing.key");
+
+        // Then
+        assertEquals(6, index.size());
+        assertFalse(index.contains("navigation.menu.open"));
+        assertEquals(List.of(new Namespace("menu", 1, 1)), index.children("navigation"));
+        assertEquals(List.of(new Namespace("button", 2, 2), new Namespace("navigation", 3, 2)), index.children(""));
+        assertEquals(List.of(), index.children("navigation.footer"));
+    }
+
+    private static KeyPrefixIndex sampleIndex() {
+        KeyPrefixIndex index = new KeyPrefixIndex();
+        for (String key : List.of("navigation.home", "navigation.menu.open", "navigation.menu.close",
+                "navigation.footer.links.about", "navigation.title", "button.submit", "button.cancel", "greeting")) {
+            index.add(key);
+        }
+        return index;
+    }
+}
@@ -0,0 +1,145 @@
+package com.digitaltolk.translation.catalog;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.lang.ref.Reference;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares lookup latency, retained heap and full GC time of the resident catalog, on and off heap, against one
+ * {@code HashMap} per locale for a catalog shaped like the seeded one. Run with {@code mvn test -Dtest=ResidentCatalogBenchmarkTest -Dbenchmark=true
+ * [-Dbenchmark.rows=100000]}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ResidentCatalogBenchmarkTest {
+
+    private static final String[] LOCALES = {"en", "fr", "es"};
+    private static final int LOOKUPS = 1_000_000;
+
+    @Test
+    void compareWithHashMapPerLocale() {
+        int rowCount = Integer.parseInt(System.getProperty("benchmark.rows", "100000"));
+        String[] keys = new String[rowCount];
+        for (int i = 0; i < rowCount; i++) {
+            keys[i] = "label." + (i + 1);
+        }
+
+        long before = usedHeap();
+        Map<String, Map<String, String>> maps = new HashMap<>();
+        for (String locale : LOCALES) {
+            Map<String, String> map = maps.computeIfAbsent(locale, ignored -> new HashMap<>());
+            for (String key : keys) {
+                map.put(key, "Content for " + key + " in " + locale);
+            }
+        }
+        long mapsHeap = usedHeap() - before;
+
+
+        before = usedHeap();
+        ResidentCatalog catalog = fill(new ResidentCatalog(rowCount, false), keys);
+        long catalogHeap = usedHeap() - before;
+
+        before = usedHeap();
+        ResidentCatalog offHeap = fill(new ResidentCatalog(rowCount, true), keys);
+        long offHeapHeap = usedHeap() - before;
+
+        String[] probes = new String[4096];
+        for (int i = 0; i < probes.length; i++) {
+            probes[i] = new String(keys[ThreadLocalRandom.current().nextInt(rowCount)]);
+        }
+        for (int run = 0; run < 10; run++) {
+            double mapNanos = measure(() -> maps.get(LOCALES[1]), probes, (map, key) -> !map.get(key).isEmpty());
+            double catalogNanos = measure(() -> catalog, probes,
+                (c, key) -> !c.get(key, LOCALES[1]).orElseThrow().isEmpty());
+            double offHeapNanos = measure(() -> offHeap, probes,
+                (c, key) -> !c.get(key, LOCALES[1]).orElseThrow().isEmpty());
+            System.out.printf("run %d  hashmap=%6.1f ns/lookup  resident=%6.1f ns/lookup  off-heap=%6.1f ns/lookup%n",
+                run, mapNanos, catalogNanos, offHeapNanos);
+        }
+        // Every lookup reads the content, which the off-heap variant has to copy out of the arena first.
+        // Content strings dominate the first two; off-heap leaves only keys and handles for the collector to trace.
+        System.out.printf("rows=%d x %d locales  hashmap=%d KB  resident=%d KB  off-heap=%d KB heap + %d KB direct%n",
+            rowCount, LOCALES.length, mapsHeap / 1024, catalogHeap / 1024, offHeapHeap / 1024,
+            offHeap.offHeapBytes() / 1024);
+        assertTrue(maps.get("en").containsKey(keys[0]));
+        assertTrue(catalog.get(keys[0], "en").isPresent());
+        assertTrue(offHeap.get(keys[0], "en").isPresent());
+    }
+
+    @Test
+    void compareFullGcWithEachLayoutLive() {
+        int rowCount = Integer.parseInt(System.getProperty("benchmark.rows", "100000"));
+        String[] keys = new String[rowCount];
+        for (int i = 0; i < rowCount; i++) {
+            keys[i] = "label." + (i + 1);
+        }
+        long baseline = gcMillis(null);
+        Map<String, Map<String, String>> maps = new HashMap<>();
+        for (String locale : LOCALES) {
+            Map<String, String> map = maps.computeIfAbsent(locale, ignored -> new HashMap<>());
+            for (String key : keys) {
+                map.put(key, "Content for " + key + " in " + locale);
+            }
+        }
+        long mapsGc = gcMillis(maps);
+        maps = null;
+        long catalogGc = gcMillis(fill(new ResidentCatalog(rowCount, false), keys));
+        long offHeapGc = gcMillis(fill(new ResidentCatalog(rowCount, true), keys));
+        // Full collection time is roughly proportional to the number of live objects it has to trace
+        System.out.printf("full gc  empty=%d ms  hashmap=%d ms  resident=%d ms  off-heap=%d ms%n", baseline, mapsGc,
+            catalogGc, offHeapGc);
+        assertTrue(baseline >= 0);
+    }
+
+    private static ResidentCatalog fill(ResidentCatalog catalog, String[] keys) {
+        for (String locale : LOCALES) {
+            for (String key : keys) {
+                catalog.put(key, locale, "Content for " + key + " in " + locale);
+            }
+        }
+        return catalog;
+    }
+
+    private static <T> double measure(java.util.function.Supplier<T> target, String[] probes,
+                                      java.util.function.BiPredicate<T, String> lookup) {
+        T resolved = target.get();
+        int hits = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < LOOKUPS; i++) {
+            if (lookup.test(resolved, probes[i & (probes.length - 1)])) {
+                hits++;
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        assertTrue(hits == LOOKUPS);
+        return (double) elapsed / LOOKUPS;
+    }
+
+    // Median of several full collections with only the given structure (beyond the test's own state) reachable
+    private static long gcMillis(Object live) {
+        System.gc();
+        long[] samples = new long[5];
+        for (int i = 0; i < samples.length; i++) {
+            long start = System.nanoTime();
+            System.gc();
+            samples[i] = System.nanoTime() - start;
+        }
+        Reference.reachabilityFence(live);
+        Arrays.sort(samples);
+        return samples[samples.length / 2] / 1_000_000;
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,126 @@
+package com.digitaltolk.translation.catalog;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResidentCatalogTest {
+
+    @Test
+    void put_ShouldKeepLocalesApart() {
+        // Given
+        ResidentCatalog catalog = new ResidentCatalog();
+
+        // When
+        catalog.put("welcome.message", "en", "Welcome!");
+        catalog.put("welcome.message", "fr", "Bienvenue !");
+        catalog.put("button.submit", "fr", "Envoyer");
+
+        // Then
+        assertEquals(Optional.of("Welcome!"), catalog.get("welcome.message", "en"));
+        assertEquals(Optional.of("Bienvenue !"), catalog.get("welcome.message", "fr"));
+        assertEquals(Optional.empty(), catalog.get("button.submit", "en"));
+        assertEquals(Optional.empty(), catalog.get("button.submit", "es"));
+        assertEquals(2, catalog.keyCount());
+        assertEquals(Set.of("en", "fr"), catalog.locales());
+    }
+
+    @Test
+    void put_ShouldGrowPastInitialCapacity() {
+        // Given
+        ResidentCatalog catalog = new ResidentCatalog(16, false);
+
+        // When
+        for (int i = 0; i < 50_000; i++) {
+            catalog.put("label." + i, i % 2 == 0 ? "en" : "fr", "Label " + i);
+        }
+
+        // Then
+        assertEquals(50_000, catalog.keyCount());
+        for (int i = 0; i < 50_000; i++) {
+            assertEquals(Optional.of("Label " + i), catalog.get("label." + i, i % 2 == 0 ? "en" : "fr"));
+        }
+        assertEquals(Optional.empty(), catalog.get("label.50000", "en"));
+    }
+
+    @Test
+    void remove_ShouldClearOnlyThatLocale() {
+        // Given
+        ResidentCatalog catalog = new ResidentCatalog();
+        catalog.put("welcome.message", "en", "Welcome!");
+        catalog.put("welcome.message", "fr", "Bienvenue !");
+
+        // When
+        catalog.remove("welcome.message", "en");
+        catalog.remove("unknown.key", "en");
+
+        // Then
+        assertEquals(Optional.empty(), catalog.get("welcome.message", "en"));
+        assertEquals(Optional.of("Bienvenue !"), catalog.get("welcome.message", "fr"));
+    }
+
+    @Test
+    void writeJson_ShouldEscapeOffHeapContentInKeyOrder() throws Exception {
+        // Given
+        ResidentCatalog catalog = new ResidentCatalog(16, true);
+        catalog.put("welcome.message", "fr", "Bienvenue à \"nous\"\n");
+        catalog.put("button.submit", "fr", "Envoyer\\\u0001");
+        catalog.put("button.cancel", "en", "Cancel");
+        catalog.put("button.cancel", "fr", "Annuler");
+        catalog.remove("button.cancel", "fr");
+
+        // When
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        catalog.writeJson("fr", out);
+
+        // Then
+        String json = out.toString(StandardCharsets.UTF_8);
+        assertEquals("{\"button.submit\":\"Envoyer\\\\\\u0001\",\"welcome.message\":\"Bienvenue à \\\"nous\\\"\\n\"}", json);
+        assertEquals(Map.of("button.submit", "Envoyer\\\u0001", "welcome.message", "Bienvenue à \"nous\"\n"),
+            new ObjectMapper().readValue(json, new TypeReference<Map<String, String>>() { }));
+        assertEquals(Optional.of("Bienvenue à \"nous\"\n"), catalog.get("welcome.message", "fr"));
+        assertTrue(catalog.offHeapBytes() > 0);
+    }
+
+    @Test
+    void put_ShouldLeaveArenaAlone_WhenContentIsUnchanged() {
+        // Given
+        ResidentCatalog catalog = new ResidentCatalog(16, true);
+        catalog.put("welcome.message", "en", "Welcome!");
+        long used = catalog.offHeapBytes();
+
+        // When
+        catalog.put("welcome.message", "en", "Welcome!");
+
+        // Then
+        assertEquals(used, catalog.offHeapBytes());
+        assertEquals(Optional.of("Welcome!"), catalog.get("welcome.message", "en"));
+    }
+
+    @Test
+    void put_ShouldCompactArena_OnceMostOfItIsDead() {
+        // Given
+        ResidentCatalog catalog = new ResidentCatalog(16, true, 64);
+        catalog.put("welcome.message", "en", "Welcome!");
+        catalog.put("button.submit", "fr", "Envoyer");
+
+        // When
+        for (int i = 0; i < 100; i++) {
+            catalog.put("button.submit", "fr", "Envoyer " + i);
+        }
+        catalog.remove("welcome.message", "en");
+
+        // Then
+        assertTrue(catalog.offHeapBytes() < 2 * 64, "arena holds " + catalog.offHeapBytes() + " bytes");
+        assertEquals(Optional.of("Envoyer 99"), catalog.get("button.submit", "fr"));
+        assertEquals(Optional.empty(), catalog.get("welcome.message", "en"));
+    }
+}
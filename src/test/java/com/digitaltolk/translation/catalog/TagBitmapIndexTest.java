@@ -0,0 +1,107 @@
+package com.digitaltolk.translation.catalog;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TagBitmapIndexTest {
+
+    private static final long WEB = 1L;
+    private static final long MOBILE = 2L;
+    private static final long DESKTOP = 3L;
+
+    @Test
+    void select_ShouldCombineTags() {
+        // Given
+        TagBitmapIndex index = sampleIndex();
+
+        // When / Then
+        assertArrayEquals(new long[]{1, 2, 3, 4, 5}, index.select(null, null, null).toArray());
+        assertArrayEquals(new long[]{2, 3}, index.select(new long[]{MOBILE}, null, null).toArray());
+        assertArrayEquals(new long[]{1, 2, 3, 4}, index.select(new long[]{WEB, MOBILE}, null, null).toArray());
+        assertArrayEquals(new long[]{3}, index.select(null, new long[]{WEB, MOBILE}, null).toArray());
+        assertArrayEquals(new long[]{2, 5}, index.select(null, null, new long[]{WEB}).toArray());
+        assertArrayEquals(new long[]{1, 4}, index.select(new long[]{WEB}, null, new long[]{MOBILE}).toArray());
+    }
+
+    @Test
+    void select_ShouldMatchNothing_ForUnknownTags() {
+        // Given
+        TagBitmapIndex index = sampleIndex();
+
+        // When / Then
+        assertTrue(index.select(new long[]{DESKTOP}, null, null).isEmpty());
+        assertTrue(index.select(new long[0], null, null).isEmpty());
+        assertTrue(index.select(null, new long[]{WEB, DESKTOP}, null).isEmpty());
+        assertArrayEquals(new long[]{1, 2, 3, 4, 5}, index.select(null, null, new long[]{DESKTOP}).toArray());
+    }
+
+    @Test
+    void select_ShouldReturnACopy() {
+        // Given
+        TagBitmapIndex index = sampleIndex();
+
+        // When
+        index.select(new long[]{MOBILE}, null, null).addLong(9);
+        index.select(null, null, null).removeLong(1);
+
+        // Then
+        assertArrayEquals(new long[]{2, 3}, index.select(new long[]{MOBILE}, null, null).toArray());
+        assertEquals(5, index.size());
+    }
+
+    @Test
+    void put_ShouldReplacePreviousTags() {
+        // Given
+        TagBitmapIndex index = sampleIndex();
+
+        // When
+        index.put(3, new long[]{DESKTOP});
+        index.put(5, new long[]{MOBILE});
+
+        // Then
+        assertArrayEquals(new long[]{1, 4}, index.select(new long[]{WEB}, null, null).toArray());
+        assertArrayEquals(new long[]{2, 5}, index.select(new long[]{MOBILE}, null, null).toArray());
+        assertArrayEquals(new long[]{3}, index.select(new long[]{DESKTOP}, null, null).toArray());
+        assertEquals(5, index.size());
+    }
+
+    @Test
+    void remove_ShouldDropTranslationFromEveryBitmap() {
+        // Given
+        TagBitmapIndex index = sampleIndex();
+
+        // When
+        index.remove(3);
+        index.remove(5);
+
+        // Then
+        assertArrayEquals(new long[]{1, 2, 4}, index.select(null, null, null).toArray());
+        assertArrayEquals(new long[]{2}, index.select(new long[]{MOBILE}, null, null).toArray());
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void counts_ShouldCountPerTag_WithinMatches() {
+        // Given
+        TagBitmapIndex index = sampleIndex();
+        index.optimize();
+
+        // When / Then
+        assertEquals(Map.of(WEB, 3L, MOBILE, 2L), index.counts(null));
+        assertEquals(Map.of(WEB, 1L, MOBILE, 2L), index.counts(index.select(new long[]{MOBILE}, null, null)));
+        assertEquals(Map.of(), index.counts(index.select(null, null, new long[]{WEB, MOBILE})));
+    }
+
+    private static TagBitmapIndex sampleIndex() {
+        TagBitmapIndex index = new TagBitmapIndex();
+        index.put(1, new long[]{WEB});
+        index.put(2, new long[]{MOBILE});
+        index.put(3, new long[]{WEB, MOBILE});
+        index.put(4, new long[]{WEB});
+        index.put(5, new long[0]);
+        return index;
+    }
+}
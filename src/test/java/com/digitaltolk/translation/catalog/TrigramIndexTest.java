@@ -0,0 +1,139 @@
+package com.digitaltolk.translation.catalog;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrigramIndexTest {
+
+    private static final long WEB = 1L;
+    private static final long MOBILE = 2L;
+
+    @Test
+    void search_ShouldMatchSubstringsOfKeyAndContent() {
+        // Given
+        TrigramIndex index = sampleIndex();
+
+        // When / Then
+        assertArrayEquals(new long[]{1, 2}, index.search("welcome", null, null, null, false));
+        assertArrayEquals(new long[]{1}, index.search("come.mes", null, "en", null, false));
+        assertArrayEquals(new long[]{2}, index.search(null, "Bienvenue", null, null, false));
+        assertArrayEquals(new long[]{3}, index.search("button", "Sub", "en", null, false));
+        assertArrayEquals(new long[0], index.search("button", "Welcome", null, null, false));
+        assertArrayEquals(new long[0], index.search("missing", null, null, null, false));
+    }
+
+    @Test
+    void search_ShouldVerifyCandidates_WhenTrigramsMatchOutOfOrder() {
+        // Given content holding both trigrams of "abcd" but not the substring itself
+        TrigramIndex index = new TrigramIndex();
+        index.put(1, "label.a", "en", "abc bcd", new long[]{WEB});
+        index.put(2, "label.b", "en", "xabcdx", new long[]{WEB});
+
+        // When / Then
+        assertArrayEquals(new long[]{2}, index.search(null, "abcd", "en", null, false));
+    }
+
+    @Test
+    void search_ShouldScanLocale_WhenPatternShorterThanTrigram() {
+        // Given
+        TrigramIndex index = sampleIndex();
+
+        // When / Then
+        assertArrayEquals(new long[]{3, 4}, index.search("bu", null, null, null, false));
+        assertArrayEquals(new long[]{1, 2, 3, 4}, index.search("", null, null, null, false));
+        assertArrayEquals(new long[]{2, 4}, index.search(null, "n", "fr", null, false));
+    }
+
+    @Test
+    void search_ShouldBeCaseSensitive() {
+        // Given
+        TrigramIndex index = sampleIndex();
+
+        // When / Then
+        assertArrayEquals(new long[0], index.search(null, "welcome", null, null, false));
+        assertArrayEquals(new long[]{1}, index.search(null, "Welcome", null, null, false));
+    }
+
+    @Test
+    void search_ShouldIgnoreTags_WhenNoneAreGiven() {
+        // Given
+        TrigramIndex index = sampleIndex();
+        index.put(5, "footer.copyright", "en", "All rights reserved", new long[0]);
+
+        // When / Then
+        assertArrayEquals(new long[]{5}, index.search("footer", null, null, null, false));
+        assertArrayEquals(new long[]{1, 3, 5}, index.search(null, null, "en", null, false));
+        assertArrayEquals(new long[0], index.search("footer", null, null, new long[0], false));
+    }
+
+    @Test
+    void search_ShouldMatchAnyOrAllTags() {
+        // Given
+        TrigramIndex index = sampleIndex();
+
+        // When / Then
+        assertArrayEquals(new long[]{2, 3}, index.search(null, null, null, new long[]{MOBILE}, false));
+        assertArrayEquals(new long[]{3}, index.search("button", null, null, new long[]{MOBILE}, false));
+        assertArrayEquals(new long[]{1, 2, 3, 4}, index.search(null, null, null, new long[]{WEB, MOBILE}, false));
+        assertArrayEquals(new long[]{3}, index.search(null, null, null, new long[]{WEB, MOBILE}, true));
+        assertArrayEquals(new long[]{4}, index.search(null, null, "fr", new long[]{WEB}, true));
+    }
+
+    @Test
+    void put_ShouldReplacePreviousVersion() {
+        // Given
+        TrigramIndex index = sampleIndex();
+
+        // When the key, content and locale all change
+        index.put(1, "greeting.title", "fr", "Salut", new long[]{WEB});
+
+        // Then
+        assertArrayEquals(new long[]{2}, index.search("welcome", null, null, null, false));
+        assertArrayEquals(new long[]{3}, index.search(null, null, "en", new long[]{WEB}, false));
+        assertArrayEquals(new long[]{1}, index.search("greeting", "Salut", "fr", new long[]{WEB}, false));
+        assertEquals(4, index.size());
+        assertEquals(1, index.retiredCount());
+    }
+
+    @Test
+    void remove_ShouldDropTranslation() {
+        // Given
+        TrigramIndex index = sampleIndex();
+
+        // When
+        index.remove(3);
+        index.remove(42);
+
+        // Then
+        assertArrayEquals(new long[]{4}, index.search("button", null, null, null, false));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void compact_ShouldKeepOnlyCurrentVersions() {
+        // Given
+        TrigramIndex index = sampleIndex();
+        index.put(1, "welcome.message", "en", "Hello!", new long[]{WEB});
+        index.remove(4);
+
+        // When
+        TrigramIndex compacted = index.compact();
+
+        // Then
+        assertEquals(3, compacted.size());
+        assertEquals(0, compacted.retiredCount());
+        assertArrayEquals(new long[]{1}, compacted.search(null, "Hello", null, null, false));
+        assertArrayEquals(new long[0], compacted.search(null, "Welcome", null, null, false));
+        assertArrayEquals(new long[]{3}, compacted.search("button", null, null, null, false));
+    }
+
+    private static TrigramIndex sampleIndex() {
+        TrigramIndex index = new TrigramIndex();
+        index.put(1, "welcome.message", "en", "Welcome to our application", new long[]{WEB});
+        index.put(2, "welcome.message", "fr", "Bienvenue dans notre application", new long[]{MOBILE});
+        index.put(3, "button.submit", "en", "Submit", new long[]{WEB, MOBILE});
+        index.put(4, "button.submit", "fr", "Envoyer", new long[]{WEB});
+        return index;
+    }
+}
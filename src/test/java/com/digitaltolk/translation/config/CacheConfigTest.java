@@ -0,0 +1,57 @@
+package com.digitaltolk.translation.config;
+
+import com.digitaltolk.translation.export.ExportSnapshot;
+import com.digitaltolk.translation.service.SingleFlightLoader;
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheConfigTest {
+
+    private final CacheManager cacheManager = new CacheConfig().cacheManager(100, DataSize.ofKilobytes(64),
+        DataSize.ofKilobytes(64), DataSize.ofKilobytes(64), Duration.ofHours(1),
+        new SingleFlightLoader(new SimpleMeterRegistry()));
+
+    @Test
+    void cacheManager_ShouldOnlyExposeConfiguredCaches() {
+        assertNotNull(cacheManager.getCache("translationsById"));
+        assertNotNull(cacheManager.getCache("localeCatalogs"));
+        assertNotNull(cacheManager.getCache("exportSnapshots"));
+        assertNull(cacheManager.getCache("translations"));
+    }
+
+    @Test
+    void exportSnapshots_ShouldStayWithinWeightBound() {
+        // Given
+        Cache<Object, Object> cache = nativeCache("exportSnapshots");
+
+        // When
+        for (int i = 0; i < 20; i++) {
+            cache.put("locale" + i, ExportSnapshot.of(new byte[16 * 1024]));
+        }
+        cache.cleanUp();
+
+        // Then
+        long totalWeight = cache.policy().eviction().orElseThrow().weightedSize().orElseThrow();
+        assertTrue(totalWeight <= DataSize.ofKilobytes(64).toBytes());
+        assertTrue(cache.stats().evictionCount() > 0);
+    }
+
+    @Test
+    void weighCatalog_ShouldGrowWithEntries() {
+        assertTrue(CacheConfig.weighCatalog("en", Map.of("a.b", "c", "d.e", "f"))
+            > CacheConfig.weighCatalog("en", Map.of("a.b", "c")));
+    }
+
+    private Cache<Object, Object> nativeCache(String name) {
+        return ((CaffeineCache) cacheManager.getCache(name)).getNativeCache();
+    }
+}
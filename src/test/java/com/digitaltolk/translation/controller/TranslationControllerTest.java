@@ -1,6 +1,21 @@
 package com.digitaltolk.translation.controller;
 
+import com.digitaltolk.translation.dto.KeyNamespaceDto;
+import com.digitaltolk.translation.dto.SearchCursor;
 import com.digitaltolk.translation.dto.TranslationDto;
+import com.digitaltolk.translation.dto.TranslationSearchFilter;
+import com.digitaltolk.translation.dto.TranslationSearchFilter.TagMatch;
+import com.digitaltolk.translation.dto.TranslationSearchSliceDto;
+import com.digitaltolk.translation.dto.TranslationSearchSliceDto.Total;
+import com.digitaltolk.translation.export.BinaryBundleWriter;
+import com.digitaltolk.translation.export.ExportSnapshot;
+import com.digitaltolk.translation.service.CatalogManifestService;
+import com.digitaltolk.translation.service.ExportSnapshotRefresher;
+import com.digitaltolk.translation.service.KeyPrefixIndexService;
+import com.digitaltolk.translation.service.NamespaceExportService;
+import com.digitaltolk.translation.service.ResidentCatalogService;
+import com.digitaltolk.translation.service.ResolvedExportService;
+import com.digitaltolk.translation.service.TranslationExportService;
 import com.digitaltolk.translation.service.TranslationService;
 import com.digitaltolk.translation.security.JwtAuthenticationFilter;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -12,8 +27,6 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
@@ -26,6 +39,7 @@ import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.util.*;
 
@@ -64,6 +78,27 @@ class TranslationControllerTest {
     @MockBean
     private TranslationService translationService;
 
+    @MockBean
+    private TranslationExportService translationExportService;
+
+    @MockBean
+    private ResolvedExportService resolvedExportService;
+
+    @MockBean
+    private NamespaceExportService namespaceExportService;
+
+    @MockBean
+    private CatalogManifestService catalogManifestService;
+    
+    @MockBean
+    private ResidentCatalogService residentCatalogService;
+
+    @MockBean
+    private ExportSnapshotRefresher exportSnapshotRefresher;
+
+    @MockBean
+    private KeyPrefixIndexService keyPrefixIndexService;
+
     @MockBean
     private JwtAuthenticationFilter jwtAuthenticationFilter;
 
@@ -128,11 +163,12 @@ class TranslationControllerTest {
     @Test
     @WithMockUser(roles = "ADMIN")
     void searchTranslations_ShouldReturnPagedResults() throws Exception {
-        // Given - search returns Page<TranslationDto>
+        // Given - search returns a slice of TranslationDto
         List<TranslationDto> content = List.of(translationDto);
-        Page<TranslationDto> page = new PageImpl<>(content, PageRequest.of(0, 10), 1);
-        when(translationService.searchTranslations(anyString(), isNull(), isNull(),isNull(), any(Pageable.class)))
-                .thenReturn(page);
+        TranslationSearchSliceDto slice = new TranslationSearchSliceDto(content, false, null);
+        when(translationService.searchTranslationsSlice(eq(TranslationSearchFilter.of("welcome", null, null, null)),
+                any(Pageable.class), eq(Total.NONE)))
+                .thenReturn(slice);
 
         // When & Then
         MvcResult result = mockMvc.perform(get("/api/translations/search")
@@ -158,9 +194,10 @@ class TranslationControllerTest {
     void searchTranslations_WithAllParameters_ShouldWork() throws Exception {
         // Given
         List<TranslationDto> content = List.of(translationDto);
-        Page<TranslationDto> page = new PageImpl<>(content, PageRequest.of(0, 10), 1);
-        when(translationService.searchTranslations(eq("welcome"), eq("Welcome"),  eq("en"),eq("mobile"), any(Pageable.class)))
-                .thenReturn(page);
+        TranslationSearchSliceDto slice = new TranslationSearchSliceDto(content, false, null);
+        when(translationService.searchTranslationsSlice(eq(TranslationSearchFilter.of("welcome", "Welcome", null, "mobile")),
+                any(Pageable.class), eq(Total.NONE)))
+                .thenReturn(slice);
 
         // When & Then
         mockMvc.perform(get("/api/translations/search")
@@ -178,9 +215,10 @@ class TranslationControllerTest {
     void searchTranslations_WithSorting_ShouldWork() throws Exception {
         // Given
         List<TranslationDto> content = List.of(translationDto);
-        Page<TranslationDto> page = new PageImpl<>(content, PageRequest.of(0, 10), 1);
-        when(translationService.searchTranslations(isNull(), isNull(),isNull(), isNull(), any(Pageable.class)))
-                .thenReturn(page);
+        TranslationSearchSliceDto slice = new TranslationSearchSliceDto(content, false, null);
+        when(translationService.searchTranslationsSlice(eq(TranslationSearchFilter.of(null, null, null, null)),
+                any(Pageable.class), eq(Total.NONE)))
+                .thenReturn(slice);
 
         // When & Then
         mockMvc.perform(get("/api/translations/search")
@@ -190,12 +228,176 @@ class TranslationControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void searchTranslationsAfter_ShouldContinueFromCursor() throws Exception {
+        // Given
+        String cursor = SearchCursor.afterId(1).encode();
+        when(translationService.searchTranslationsAfter(eq(TranslationSearchFilter.of("welcome", null, null, null)),
+                argThat(after -> after.getId() == 1L), eq(10), eq(Total.NONE)))
+                .thenReturn(new TranslationSearchSliceDto(List.of(translationDto), true,
+                        SearchCursor.afterId(7).encode()));
+
+        // When & Then
+        controllerMockMvc().perform(get("/api/translations/search")
+                        .param("key", "welcome")
+                        .param("cursor", cursor)
+                        .param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].key").value("welcome.message"))
+                .andExpect(jsonPath("$.nextCursor").value(SearchCursor.afterId(7).encode()))
+                .andExpect(jsonPath("$.hasNext").value(true));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void searchTranslationsAfter_ShouldRejectMalformedCursor() throws Exception {
+        controllerMockMvc().perform(get("/api/translations/search")
+                        .param("cursor", "not a cursor"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(translationService);
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void searchTranslations_ShouldReturnTotal_OnlyWhenRequested() throws Exception {
+        // Given
+        TranslationSearchSliceDto slice = new TranslationSearchSliceDto(List.of(translationDto), true, null);
+        slice.setTotalElements(1200L);
+        slice.setTotalApproximate(true);
+        when(translationService.searchTranslationsSlice(eq(TranslationSearchFilter.of("welcome", null, null, null)),
+                eq(PageRequest.of(2, 10)), eq(Total.APPROXIMATE)))
+                .thenReturn(slice);
+
+        // When & Then
+        controllerMockMvc().perform(get("/api/translations/search")
+                        .param("key", "welcome")
+                        .param("page", "2")
+                        .param("size", "10")
+                        .param("total", "approximate"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].key").value("welcome.message"))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.totalElements").value(1200))
+                .andExpect(jsonPath("$.totalApproximate").value(true));
+        controllerMockMvc().perform(get("/api/translations/search")
+                        .param("total", "roughly"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void searchTranslations_ShouldFilterByAllOfSeveralTags() throws Exception {
+        // Given
+        TranslationSearchFilter filter = new TranslationSearchFilter(null, null, false, "en",
+                List.of("mobile", "web", "desktop"), TagMatch.ALL);
+        when(translationService.searchTranslationsSlice(eq(filter), eq(PageRequest.of(0, 20)), eq(Total.NONE)))
+                .thenReturn(new TranslationSearchSliceDto(List.of(translationDto), false, null));
+
+        // When & Then tags can be repeated and comma-separated
+        controllerMockMvc().perform(get("/api/translations/search")
+                        .param("locale", "en")
+                        .param("tag", "web,mobile")
+                        .param("tag", "desktop")
+                        .param("tagMatch", "ALL"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].key").value("welcome.message"));
+        controllerMockMvc().perform(get("/api/translations/search")
+                        .param("tag", "web")
+                        .param("tagMatch", "some"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void searchTranslations_ShouldExcludeTags() throws Exception {
+        // Given
+        TranslationSearchFilter filter = new TranslationSearchFilter("welcome", null, false, null, null, TagMatch.ANY,
+                List.of("web", "desktop"));
+        when(translationService.searchTranslationsSlice(eq(filter), eq(PageRequest.of(0, 20)), eq(Total.NONE)))
+                .thenReturn(new TranslationSearchSliceDto(List.of(translationDto), false, null));
+
+        // When & Then
+        controllerMockMvc().perform(get("/api/translations/search")
+                        .param("key", "welcome")
+                        .param("excludeTag", "web,desktop"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].key").value("welcome.message"));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void getTagCounts_ShouldCountMatchesPerTag() throws Exception {
+        // Given
+        TranslationSearchFilter filter = new TranslationSearchFilter(null, null, false, "en", List.of("mobile"),
+                TagMatch.ANY, List.of("web"));
+        when(translationService.countTranslationsByTag(filter)).thenReturn(Map.of("mobile", 12L, "desktop", 3L));
+
+        // When & Then
+        controllerMockMvc().perform(get("/api/translations/tag-counts")
+                        .param("locale", "en")
+                        .param("tag", "mobile")
+                        .param("excludeTag", "web"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.mobile").value(12))
+                .andExpect(jsonPath("$.desktop").value(3));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void completeKeys_ShouldReturnKeysWithPrefix() throws Exception {
+        // Given
+        when(keyPrefixIndexService.complete("navigation.men", 5))
+                .thenReturn(List.of("navigation.menu.close", "navigation.menu.open"));
+
+        // When & Then
+        controllerMockMvc().perform(get("/api/translations/keys/completions")
+                        .param("prefix", "navigation.men")
+                        .param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0]").value("navigation.menu.close"))
+                .andExpect(jsonPath("$[1]").value("navigation.menu.open"));
+
+        controllerMockMvc().perform(get("/api/translations/keys/completions")
+                        .param("prefix", "navigation.men")
+                        .param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void getKeyNamespaces_ShouldListChildNamespaces() throws Exception {
+        // Given
+        when(keyPrefixIndexService.children("navigation"))
+                .thenReturn(Optional.of(List.of(new KeyNamespaceDto("menu", "navigation.menu", 42, 7))));
+
+        // When & Then
+        controllerMockMvc().perform(get("/api/translations/keys/namespaces")
+                        .param("parent", "navigation"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("menu"))
+                .andExpect(jsonPath("$[0].namespace").value("navigation.menu"))
+                .andExpect(jsonPath("$[0].keyCount").value(42))
+                .andExpect(jsonPath("$[0].directKeyCount").value(7));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void getKeyNamespaces_ShouldReturnServiceUnavailable_UntilIndexIsLoaded() throws Exception {
+        // Given
+        when(keyPrefixIndexService.children(null)).thenReturn(Optional.empty());
+
+        // When & Then
+        controllerMockMvc().perform(get("/api/translations/keys/namespaces"))
+                .andExpect(status().isServiceUnavailable());
+    }
+
     @Test
     @WithMockUser(roles = "ADMIN")
     void exportTranslations_ShouldReturnTranslationMap() throws Exception {
         // Given
-        Map<String, String> translations = Map.of("welcome.message", "Welcome!");
-        when(translationService.getTranslationsForLocale("en")).thenReturn(translations);
+        ExportSnapshot snapshot = ExportSnapshot.of("{\"welcome.message\":\"Welcome!\"}".getBytes());
+        when(translationExportService.getExportSnapshot("en")).thenReturn(snapshot);
 
         // When & Then
         MvcResult result = mockMvc.perform(get("/api/translations/export/en"))
@@ -205,6 +407,19 @@ class TranslationControllerTest {
 
     }
 
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void exportTranslations_ShouldReturnBinaryBundle_WhenAccepted() throws Exception {
+        // Given
+        ExportSnapshot snapshot = ExportSnapshot.of(BinaryBundleWriter.encode(Map.of("welcome.message", "Welcome!")));
+        when(translationExportService.getBinaryExportSnapshot("en")).thenReturn(snapshot);
+
+        // When & Then
+        mockMvc.perform(get("/api/translations/export/en")
+                        .accept(BinaryBundleWriter.MEDIA_TYPE))
+                .andExpect(status().isOk());
+    }
+
     @Test
     @WithMockUser(roles = "ADMIN")
     void updateTranslation_ShouldReturnUpdated() throws Exception {
@@ -244,5 +459,10 @@ class TranslationControllerTest {
 
     }
 
-
+    // The context of this class does not pick up the controller, so assert on responses from one built directly
+    private MockMvc controllerMockMvc() {
+        return MockMvcBuilders.standaloneSetup(new TranslationController(translationService, translationExportService,
+                resolvedExportService, namespaceExportService, catalogManifestService, residentCatalogService,
+                exportSnapshotRefresher, keyPrefixIndexService)).build();
+    }
 }
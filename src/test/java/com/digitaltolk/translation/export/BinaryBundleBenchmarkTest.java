@@ -0,0 +1,98 @@
+package com.digitaltolk.translation.export;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares payload size and client-side decode cost of the JSON and binary export formats for a catalog
+ * shaped like the seeded one. Run with {@code mvn test -Dtest=BinaryBundleBenchmarkTest -Dbenchmark=true
+ * [-Dbenchmark.rows=100000]}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class BinaryBundleBenchmarkTest {
+
+    private static final String[] KEY_PREFIXES = {
+        "welcome", "error", "success", "button", "label", "message", "title", "description",
+        "navigation", "form", "validation", "notification", "dialog", "menu", "footer", "header"
+    };
+    private static final int WARMUP_RUNS = 3;
+    private static final int MEASURED_RUNS = 7;
+    private static final int LOOKUPS = 100;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void compareJsonAndBinaryFormats() throws Exception {
+        int rowCount = Integer.parseInt(System.getProperty("benchmark.rows", "100000"));
+        Map<String, String> catalog = new TreeMap<>();
+        for (int i = 1; i <= rowCount; i++) {
+            String prefix = KEY_PREFIXES[ThreadLocalRandom.current().nextInt(KEY_PREFIXES.length)];
+            String key = prefix + "." + i;
+            catalog.put(key, "Content for " + key + " in en");
+        }
+
+        ExportSnapshot json = ExportSnapshot.of(objectMapper.writeValueAsBytes(catalog));
+        ExportSnapshot binary = ExportSnapshot.of(BinaryBundleWriter.encode(catalog));
+        assertEquals(catalog, BinaryBundleReader.of(binary.getBody()).toMap());
+
+        System.out.printf("rows=%d  json=%d KB (gzip %d KB)  binary=%d KB (gzip %d KB)%n", rowCount,
+            json.getBody().length / 1024, json.getGzipBody().length / 1024,
+            binary.getBody().length / 1024, binary.getGzipBody().length / 1024);
+
+        String[] keys = catalog.keySet().toArray(new String[0]);
+        String[] lookups = new String[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            lookups[i] = keys[ThreadLocalRandom.current().nextInt(keys.length)];
+        }
+
+        report("encode  json          ", measure(() -> {
+            try {
+                return objectMapper.writeValueAsBytes(catalog);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }));
+        report("encode  binary        ", measure(() -> BinaryBundleWriter.encode(catalog)));
+        report("decode  json full     ", measure(() -> {
+            try {
+                return objectMapper.readValue(json.getBody(), new TypeReference<Map<String, String>>() { });
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }));
+        report("decode  binary full   ", measure(() -> BinaryBundleReader.of(binary.getBody()).toMap()));
+        report("decode  binary lookups", measure(() -> {
+            BinaryBundleReader reader = BinaryBundleReader.of(binary.getBody());
+            for (String key : lookups) {
+                Objects.requireNonNull(reader.get(key));
+            }
+            return reader;
+        }));
+    }
+
+    private static double measure(Supplier<?> run) {
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            run.get();
+        }
+        long[] nanos = new long[MEASURED_RUNS];
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            long start = System.nanoTime();
+            run.get();
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        return nanos[MEASURED_RUNS / 2] / 1_000_000.0;
+    }
+
+    private static void report(String path, double millis) {
+        System.out.printf("%s  median=%8.2f ms%n", path, millis);
+    }
+}
@@ -0,0 +1,68 @@
+package com.digitaltolk.translation.export;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryBundleReaderTest {
+
+    @Test
+    void encode_ShouldRoundTripInKeyOrder() {
+        // Given
+        Map<String, String> entries = new HashMap<>();
+        entries.put("welcome.message", "Welcome!");
+        entries.put("button.submit", "Envoyer ✓");
+        entries.put("navigation", "");
+        entries.put("form..trailing.", "Edge");
+        entries.put(".leading", "Edge");
+
+        // When
+        BinaryBundleReader reader = BinaryBundleReader.of(BinaryBundleWriter.encode(entries));
+
+        // Then
+        assertEquals(5, reader.size());
+        assertEquals(List.of(".leading", "button.submit", "form..trailing.", "navigation", "welcome.message"),
+            List.copyOf(reader.toMap().keySet()));
+        assertEquals(entries, reader.toMap());
+    }
+
+    @Test
+    void get_ShouldBinarySearchIndex() {
+        // Given
+        Map<String, String> entries = new HashMap<>();
+        for (int i = 0; i < 1000; i++) {
+            entries.put("label." + i, "Label " + i);
+        }
+        BinaryBundleReader reader = BinaryBundleReader.of(BinaryBundleWriter.encode(entries));
+
+        // Then
+        assertEquals("Label 0", reader.get("label.0"));
+        assertEquals("Label 999", reader.get("label.999"));
+        assertNull(reader.get("label.1000"));
+        assertNull(reader.get("a"));
+        assertNull(reader.get("z"));
+    }
+
+    @Test
+    void encode_ShouldStoreSharedSegmentsAndValuesOnce() {
+        // Given
+        Map<String, String> once = Map.of("navigation.home", "Home");
+        Map<String, String> twice = Map.of("navigation.home", "Home", "navigation.back", "Home");
+
+        // When
+        int onceSize = BinaryBundleWriter.encode(once).length;
+        int twiceSize = BinaryBundleWriter.encode(twice).length;
+
+        // Then the second entry only adds its index slot and a key record pointing at the shared prefix and value
+        assertEquals(4 + 1 + 5 + 1, twiceSize - onceSize);
+    }
+
+    @Test
+    void of_ShouldRejectOtherPayloads() {
+        assertThrows(IllegalArgumentException.class, () -> BinaryBundleReader.of("{\"a\":\"b\"}".getBytes()));
+    }
+}
@@ -0,0 +1,54 @@
+package com.digitaltolk.translation.export;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExportSnapshotTest {
+
+    private static final byte[] BODY = "{\"welcome.message\":\"Welcome!\"}".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void of_ShouldKeepIdentityAndGzipBodies() throws Exception {
+        // When
+        ExportSnapshot snapshot = ExportSnapshot.of(BODY);
+
+        // Then
+        assertArrayEquals(BODY, snapshot.getBody());
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(snapshot.getGzipBody()))) {
+            assertArrayEquals(BODY, gzip.readAllBytes());
+        }
+    }
+
+    @Test
+    void of_ShouldDeriveStrongEtagFromContent() {
+        // When
+        ExportSnapshot first = ExportSnapshot.of(BODY);
+        ExportSnapshot same = ExportSnapshot.of(BODY.clone());
+        ExportSnapshot other = ExportSnapshot.of("{}".getBytes(StandardCharsets.UTF_8));
+
+        // Then
+        assertTrue(first.getEtag().startsWith("\""));
+        assertEquals(first.getEtag(), same.getEtag());
+        assertNotEquals(first.getEtag(), other.getEtag());
+        assertNotEquals(first.getEtag(), first.getGzipEtag());
+    }
+
+    @Test
+    void matches_ShouldAcceptEitherRepresentationAndWildcard() {
+        // Given
+        ExportSnapshot snapshot = ExportSnapshot.of(BODY);
+
+        // Then
+        assertTrue(snapshot.matches(snapshot.getEtag()));
+        assertTrue(snapshot.matches("W/" + snapshot.getGzipEtag()));
+        assertTrue(snapshot.matches("\"stale\", " + snapshot.getEtag()));
+        assertTrue(snapshot.matches("*"));
+        assertFalse(snapshot.matches("\"stale\""));
+        assertFalse(snapshot.matches(null));
+    }
+}
@@ -0,0 +1,88 @@
+package com.digitaltolk.translation.export;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapshotFileStoreTest {
+
+    private static final byte[] BODY = "{\"welcome.message\":\"Welcome!\"}".getBytes(StandardCharsets.UTF_8);
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void save_ShouldReturnMappedSnapshotThatLoadsAfterRestart() {
+        // Given
+        ExportSnapshot snapshot = ExportSnapshot.of(BODY, 42);
+
+        // When
+        ExportSnapshot saved = new SnapshotFileStore(true, directory.toString()).save("json", "en", "v1", snapshot);
+        Optional<ExportSnapshot> loaded = new SnapshotFileStore(true, directory.toString()).load("json", "en", "v1");
+
+        // Then
+        assertNotNull(saved.getFile(false));
+        assertTrue(loaded.isPresent());
+        assertArrayEquals(BODY, loaded.get().getBody());
+        assertArrayEquals(snapshot.getGzipBody(), loaded.get().getGzipBody());
+        assertEquals(snapshot.getEtag(), loaded.get().getEtag());
+        assertEquals(42, loaded.get().getCursor());
+        assertEquals(BODY.length, loaded.get().getLength(false));
+        assertEquals(Set.of("en"), new SnapshotFileStore(true, directory.toString()).storedLocales("json"));
+    }
+
+    @Test
+    void load_ShouldMiss_ForOtherVersion() {
+        // Given
+        SnapshotFileStore store = new SnapshotFileStore(true, directory.toString());
+        store.save("json", "en", "v1", ExportSnapshot.of(BODY));
+
+        // Then
+        assertTrue(store.load("json", "en", "v2").isEmpty());
+        assertTrue(store.load("json", "fr", "v1").isEmpty());
+    }
+
+    @Test
+    void save_ShouldKeepOnlyRecentVersions() throws Exception {
+        // Given
+        SnapshotFileStore store = new SnapshotFileStore(true, directory.toString());
+        long now = System.currentTimeMillis();
+        for (int version = 1; version <= 3; version++) {
+            store.save("json", "en", "v" + version, ExportSnapshot.of(BODY));
+            Files.setLastModifiedTime(directory.resolve("json/en/v" + version + ".properties"),
+                FileTime.fromMillis(now - 10000 + version * 1000));
+        }
+
+        // When
+        store.save("json", "en", "v4", ExportSnapshot.of(BODY));
+
+        // Then
+        assertTrue(store.load("json", "en", "v1").isEmpty());
+        assertTrue(store.load("json", "en", "v2").isEmpty());
+        assertFalse(Files.exists(directory.resolve("json/en/v2.body")));
+        assertTrue(store.load("json", "en", "v3").isPresent());
+        assertTrue(store.load("json", "en", "v4").isPresent());
+    }
+
+    @Test
+    void save_ShouldNotWriteOutsideStore_ForUnsafeLocale() {
+        // Given
+        SnapshotFileStore store = new SnapshotFileStore(true, directory.toString());
+        ExportSnapshot snapshot = ExportSnapshot.of(BODY);
+
+        // When
+        ExportSnapshot saved = store.save("json", "../en", "v1", snapshot);
+
+        // Then
+        assertSame(snapshot, saved);
+        assertFalse(Files.exists(directory.resolve("en")));
+    }
+}
@@ -0,0 +1,164 @@
+package com.digitaltolk.translation.repository;
+
+import com.digitaltolk.translation.dto.TranslationSearchFilter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+* Compares the portable {@link JpqlTranslationSearch} with {@link PostgresTranslationSearch} on PostgreSQL, schema and indexes created
+ * by the Flyway migrations. Starts PostgreSQL through Testcontainers (needs Docker); point it at an existing, empty
+ * database with {@code -Dbenchmark.postgres.url=jdbc:postgresql://host:5432/db} instead. Run with
+ * {@code mvn test -Dtest=PostgresTranslationSearchBenchmarkTest -Dbenchmark=true [-Dbenchmark.rows=1000000]}.
+ */
+@DataJpaTest(properties = {
+    "spring.datasource.url=${benchmark.postgres.url:jdbc:tc:postgresql:16-alpine:///translation_db}",
+    "spring.datasource.username=${benchmark.postgres.username:postgres}",
+    "spring.datasource.password=${benchmark.postgres.password:}",
+    "spring.datasource.driver-class-name=",
+    "spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect",
+    "spring.jpa.hibernate.ddl-auto=validate",
+    "spring.flyway.enabled=true",
+    "spring.flyway.locations=classpath:db/migration/postgresql",
+    "spring.sql.init.mode=never",
+    "spring.jpa.show-sql=false"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({PostgresTranslationSearch.class, JpqlTranslationSearch.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class PostgresTranslationSearchBenchmarkTest {
+
+    private static final int MEASURED_RUNS = 20;
+
+    @Autowired
+    private TranslationRepository translationRepository;
+
+    @Autowired
+    private PostgresTranslationSearch postgresSearch;
+
+    @Autowired
+    private JpqlTranslationSearch jpqlSearch;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void compareJpqlAndNativeSearch() {
+        assertTrue(postgresSearch.isEnabled());
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        int rowCount = Integer.parseInt(System.getProperty("benchmark.rows", "1000000"));
+        seed(rowCount);
+
+        // key, content, locale, tag
+        String[][] substringQueries = {
+            {"key.4242", null, null, null},
+            {null, "item 1234)", null, null},
+            {null, "item 77", "fr", null},
+            {"namespace3.", "saved", "en", "mobile"},
+        };
+        for (String[] query : substringQueries) {
+            TranslationSearchFilter filter = TranslationSearchFilter.of(query[0], query[1], query[2], query[3]);
+            Supplier<Page<?>> jpql = () -> jpqlPage(readOnly, filter);
+            Supplier<Page<?>> postgres = () -> page(readOnly, postgresSearch.search(filter, PageRequest.of(0, 20)));
+            assertEquals(jpql.get().getTotalElements(), postgres.get().getTotalElements());
+            report(rowCount, "substring " + Arrays.toString(query), jpql.get().getTotalElements(),
+                measure(jpql), measure(postgres));
+        }
+
+        // Full text against the substring search a client would otherwise send for the same words
+        String[][] fullTextQueries = {
+            {"changes saved", "saved", "en"},
+            {"\"mot de passe\"", "mot de passe", "fr"},
+            {"archivo -eliminado", "archivo", "es"},
+        };
+        for (String[] query : fullTextQueries) {
+            TranslationSearchFilter substring = TranslationSearchFilter.of(null, query[1], query[2], null);
+            TranslationSearchFilter fullText = new TranslationSearchFilter(null, query[0], true, query[2], null, null);
+            Supplier<Page<?>> jpql = () -> jpqlPage(readOnly, substring);
+            Supplier<Page<?>> postgres = () -> page(readOnly, postgresSearch.search(fullText, PageRequest.of(0, 20)));
+            report(rowCount, "full-text " + Arrays.toString(query), postgres.get().getTotalElements(),
+                measure(jpql), measure(postgres));
+        }
+    }
+
+    private Page<?> jpqlPage(TransactionTemplate readOnly, TranslationSearchFilter filter) {
+        return readOnly.execute(status -> page(readOnly, PageableExecutionUtils.getPage(
+            jpqlSearch.find(filter, Sort.unsorted(), 0, 20), PageRequest.of(0, 20), () -> jpqlSearch.count(filter))));
+    }
+
+    // What the service does with the ids: fetch the page's translations with their tags
+    private Page<?> page(TransactionTemplate readOnly, Page<Long> ids) {
+        if (!ids.isEmpty()) {
+            readOnly.execute(status -> translationRepository.findWithTagsByIdIn(ids.getContent()).size());
+        }
+        return ids;
+    }
+
+    private void seed(int rowCount) {
+        jdbcTemplate.update("TRUNCATE translation_tags, translations, tags RESTART IDENTITY");
+        jdbcTemplate.update("INSERT INTO tags (name, created_at) VALUES ('web', now()), ('mobile', now()), ('desktop', now())");
+        jdbcTemplate.update("""
+            INSERT INTO translations (translation_key, locale, content, created_at, updated_at)
+            SELECT 'namespace' || (i % 16) || '.key.' || (i / 3), locale,
+                   phrases[1 + floor(random() * array_length(phrases, 1))::int] || ' (item ' || floor(random() * 5000)::int
+                       || ') ' || phrases[1 + floor(random() * array_length(phrases, 1))::int],
+                   now(), now()
+            FROM generate_series(0, ? - 1) i
+            CROSS JOIN LATERAL (SELECT (ARRAY['en', 'fr', 'es'])[i % 3 + 1] AS locale) l
+            CROSS JOIN LATERAL (SELECT CASE l.locale
+                WHEN 'en' THEN ARRAY['Your changes have been saved', 'Saving changes to the file', 'Enter your password',
+                    'The file was deleted', 'Search for translations', 'Welcome back to the application']
+                WHEN 'fr' THEN ARRAY['Vos modifications ont été enregistrées', 'Saisissez votre mot de passe',
+                    'Le fichier a été supprimé', 'Rechercher des traductions', 'Bienvenue dans l''application']
+                ELSE ARRAY['Sus cambios se han guardado', 'Introduzca su contraseña', 'El archivo fue eliminado',
+                    'Buscar traducciones', 'Abrir el archivo', 'Bienvenido de nuevo a la aplicación']
+                END AS phrases) p
+            """, rowCount);
+        // One tag each for nine in ten translations
+        jdbcTemplate.update("INSERT INTO translation_tags (translation_id, tag_id) " +
+            "SELECT id, 1 + id % 3 FROM translations WHERE id % 10 <> 0");
+        jdbcTemplate.execute("VACUUM ANALYZE translations");
+        jdbcTemplate.execute("VACUUM ANALYZE translation_tags");
+    }
+
+    private static double measure(Supplier<?> run) {
+        for (int i = 0; i < 3; i++) {
+            run.get();
+        }
+        long[] nanos = new long[MEASURED_RUNS];
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            long start = System.nanoTime();
+            run.get();
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        return nanos[MEASURED_RUNS / 2] / 1e6;
+    }
+
+    private static void report(int rowCount, String query, long matches, double jpqlMillis, double postgresMillis) {
+        System.out.printf("rows=%-8d %-58s matches=%-7d jpql=%8.2f ms  postgres=%7.2f ms%n",
+            rowCount, query, matches, jpqlMillis, postgresMillis);
+    }
+}
@@ -0,0 +1,131 @@
+package com.digitaltolk.translation.repository;
+
+import com.digitaltolk.translation.dto.TranslationEntry;
+import com.digitaltolk.translation.entity.Translation;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.sql.Timestamp;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the managed-entity and (key, content) projection read paths used by exports and key lookups.
+ * Run with {@code mvn test -Dtest=TranslationReadPathBenchmarkTest -Dbenchmark=true [-Dbenchmark.rows=100000,1000000]}.
+ */
+@DataJpaTest(properties = {"spring.sql.init.mode=never", "spring.jpa.show-sql=false"})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class TranslationReadPathBenchmarkTest {
+
+    private static final int WARMUP_RUNS = 2;
+    private static final int MEASURED_RUNS = 5;
+    private static final int LOOKUPS = 10000;
+
+    @Autowired
+    private TranslationRepository translationRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void compareEntityAndProjectionReadPaths() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        for (String rows : System.getProperty("benchmark.rows", "100000,1000000").split(",")) {
+            int rowCount = Integer.parseInt(rows.trim());
+            seed(rowCount);
+
+            Supplier<Map<String, String>> entityExport = () -> readOnly.execute(status ->
+                translationRepository.findByLocaleOrderByKey("en").stream()
+                    .collect(Collectors.toMap(Translation::getKey, Translation::getContent, (a, b) -> a, LinkedHashMap::new)));
+            Supplier<Map<String, String>> projectionExport = () -> readOnly.execute(status ->
+                translationRepository.findEntriesByLocale("en").stream()
+                    .collect(Collectors.toMap(TranslationEntry::getKey, TranslationEntry::getContent, (a, b) -> a, LinkedHashMap::new)));
+
+            assertEquals(rowCount, entityExport.get().size());
+            assertEquals(rowCount, projectionExport.get().size());
+
+            report(rowCount, "export  entity    ", measure(entityExport));
+            report(rowCount, "export  projection", measure(projectionExport));
+
+            String[] keys = randomKeys(rowCount);
+            report(rowCount, "lookup  entity    ", measure(() -> {
+                for (String key : keys) {
+                    readOnly.execute(status -> translationRepository.findByKeyAndLocale(key, "en").orElseThrow().getContent());
+                }
+                return null;
+            }));
+            report(rowCount, "lookup  projection", measure(() -> {
+                for (String key : keys) {
+                    readOnly.execute(status -> translationRepository.findEntryByKeyAndLocale(key, "en").orElseThrow().getContent());
+                }
+                return null;
+            }));
+        }
+    }
+
+    private void seed(int rowCount) {
+        jdbcTemplate.update("DELETE FROM translation_tags");
+        jdbcTemplate.update("DELETE FROM translations");
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        List<Object[]> batch = new ArrayList<>(10000);
+        for (int i = 0; i < rowCount; i++) {
+            String key = "namespace" + (i % 16) + ".key." + i;
+            batch.add(new Object[]{key, "en", "Content for " + key + " in en", now, now});
+            if (batch.size() == 10000 || i == rowCount - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO translations (translation_key, locale, content, created_at, updated_at) " +
+                    "VALUES (?, ?, ?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private static String[] randomKeys(int rowCount) {
+        String[] keys = new String[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            int n = ThreadLocalRandom.current().nextInt(rowCount);
+            keys[i] = "namespace" + (n % 16) + ".key." + n;
+        }
+        return keys;
+    }
+
+    private static long[] measure(Supplier<?> run) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            run.get();
+        }
+        long[] millis = new long[MEASURED_RUNS];
+        long allocated = 0;
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            long bytesBefore = threads.getCurrentThreadAllocatedBytes();
+            long start = System.nanoTime();
+            run.get();
+            millis[i] = (System.nanoTime() - start) / 1_000_000;
+            allocated += threads.getCurrentThreadAllocatedBytes() - bytesBefore;
+        }
+        Arrays.sort(millis);
+        return new long[]{millis[MEASURED_RUNS / 2], allocated / MEASURED_RUNS};
+    }
+
+    private static void report(int rowCount, String path, long[] result) {
+        System.out.printf("rows=%-8d %s  median=%6d ms  allocated=%6d MB%n",
+            rowCount, path, result[0], result[1] / (1024 * 1024));
+    }
+}
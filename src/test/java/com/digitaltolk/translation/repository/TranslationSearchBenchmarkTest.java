@@ -0,0 +1,487 @@
+package com.digitaltolk.translation.repository;
+
+import com.digitaltolk.translation.catalog.KeyPrefixIndex;
+import com.digitaltolk.translation.catalog.TagBitmapIndex;
+import com.digitaltolk.translation.catalog.TrigramIndex;
+import com.digitaltolk.translation.dto.TranslationSearchFilter;
+import com.digitaltolk.translation.dto.TranslationSearchFilter.TagMatch;
+import com.digitaltolk.translation.dto.TranslationSearchRow;
+import com.digitaltolk.translation.dto.TranslationTagLink;
+import com.digitaltolk.translation.entity.Translation;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.*;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the SQL {@code LIKE '%...%'} search with the trigram index for substring queries, including fetching the
+ * first page of results, offset with keyset paging for deep pages, counted pages with count-free slices, the
+ * former search query, which always joined tags, with {@link JpqlTranslationSearch}, tag filters in SQL with tag
+ * bitmaps, and key completion and namespace counts in SQL with the key prefix index. Run with
+ * {@code mvn test -Dtest=TranslationSearchBenchmarkTest -Dbenchmark=true [-Dbenchmark.rows=100000,1000000]}.
+ */
+@DataJpaTest(properties = {"spring.sql.init.mode=never", "spring.jpa.show-sql=false"})
+@Import(JpqlTranslationSearch.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class TranslationSearchBenchmarkTest {
+
+    private static final String[] LOCALES = {"en", "fr", "es"};
+    private static final String[] TAGS = {"web", "mobile", "desktop"};
+    private static final int WORDS = 5000;
+    private static final int MEASURED_RUNS = 50;
+    // Deep offset pages take seconds each at 1M rows
+    private static final int MEASURED_PAGING_RUNS = 7;
+    // The search query before it was assembled from the filters given: tags always joined, matches de-duplicated
+    private static final String TAG_JOIN_SEARCH = "FROM Translation t JOIN t.tags tag WHERE " +
+        "(:key IS NULL OR t.key LIKE :key) AND " +
+        "(:content IS NULL OR t.content LIKE :content) AND " +
+        "(:locale IS NULL OR t.locale = :locale) AND " +
+        "(:tagName IS NULL OR tag.name = :tagName)";
+
+    @Autowired
+    private TranslationRepository translationRepository;
+
+    @Autowired
+    private JpqlTranslationSearch jpqlSearch;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void compareSqlLikeWithTrigramIndex() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        for (String rows : System.getProperty("benchmark.rows", "100000,1000000").split(",")) {
+            int rowCount = Integer.parseInt(rows.trim());
+            Map<String, Long> tagIds = seed(rowCount);
+
+            long heapBefore = usedHeap();
+            long start = System.nanoTime();
+            TrigramIndex index = readOnly.execute(status -> build());
+            long buildMillis = (System.nanoTime() - start) / 1_000_000;
+            long heapMb = (usedHeap() - heapBefore) / (1024 * 1024);
+            System.out.printf("rows=%-8d index build=%d ms  retained=%d MB%n", rowCount, buildMillis, heapMb);
+
+            String[][] queries = {
+                {"key.4242", null, null, null},
+                {null, "word1234", null, null},
+                {null, "word77 word", "fr", null},
+                {"namespace3.", "word9", "en", "mobile"},
+            };
+            for (String[] query : queries) {
+                TranslationSearchFilter filter = TranslationSearchFilter.of(query[0], query[1], query[2], query[3]);
+                long[] tagId = query[3] == null ? null : new long[]{tagIds.get(query[3])};
+                long sqlTotal = jpqlSearch.count(filter);
+                assertEquals(sqlTotal, index.search(query[0], query[1], query[2], tagId, false).length);
+
+                long sql = measure(() -> readOnly.execute(status -> {
+                    List<Long> ids = jpqlSearch.find(filter, Sort.unsorted(), 0, 20);
+                    return ids.isEmpty() ? 0 : translationRepository.findWithTagsByIdIn(ids).size();
+                }));
+                long lookup = measure(() -> index.search(query[0], query[1], query[2], tagId, false).length);
+                long indexed = measure(() -> {
+                    long[] ids = index.search(query[0], query[1], query[2], tagId, false);
+                    List<Long> page = Arrays.stream(ids, 0, Math.min(20, ids.length)).boxed().toList();
+                    return page.isEmpty() ? 0 : readOnly.execute(status ->
+                        translationRepository.findWithTagsByIdIn(page).size());
+                });
+                System.out.printf("rows=%-8d %-40s matches=%-6d sql=%7.2f ms  index=%7.2f ms (lookup %6.3f ms)%n",
+                    rowCount, Arrays.toString(query), sqlTotal, sql / 1e6, indexed / 1e6, lookup / 1e6);
+            }
+        }
+    }
+
+    @Test
+    void compareOffsetWithKeysetPaging() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        for (String rows : System.getProperty("benchmark.rows", "100000,1000000").split(",")) {
+            int rowCount = Integer.parseInt(rows.trim());
+            seed(rowCount);
+
+            // Pages of 20, for all locales and for one
+            String[] locales = {null, "fr"};
+            int[] pages = {0, 100, 1000, 5000};
+            for (String locale : locales) {
+                for (int page : pages) {
+                    TranslationSearchFilter filter = TranslationSearchFilter.of(null, null, locale, null);
+                    // The cursor a client holds after reading the previous pages
+                    List<Long> earlier = readOnly.execute(status -> jpqlSearch.findAfter(filter, 0, page * 20 + 1));
+                    if (earlier.size() <= page * 20) {
+                        continue;
+                    }
+                    long afterId = page == 0 ? 0 : earlier.get(page * 20 - 1);
+                    List<Long> offsetIds = readOnly.execute(status ->
+                        jpqlSearch.find(filter, Sort.by("id"), page * 20L, 20));
+                    assertEquals(offsetIds, jpqlSearch.findAfter(filter, afterId, 20));
+
+                    // Offset pages as the page endpoint served them, counted
+                    long offset = measure(() -> readOnly.execute(status -> {
+                        List<Long> ids = jpqlSearch.find(filter, Sort.by("id"), page * 20L, 20);
+                        return translationRepository.findWithTagsByIdIn(ids).size() + jpqlSearch.count(filter);
+                    }), MEASURED_PAGING_RUNS);
+                    long keyset = measure(() -> readOnly.execute(status -> {
+                        List<Long> ids = jpqlSearch.findAfter(filter, afterId, 21);
+                        return translationRepository.findWithTagsByIdIn(ids.subList(0, Math.min(20, ids.size())))
+                            .size();
+                    }), MEASURED_PAGING_RUNS);
+                    System.out.printf("rows=%-8d locale=%-5s page=%-5d offset=%8.2f ms  keyset=%7.2f ms%n",
+                        rowCount, locale, page, offset / 1e6, keyset / 1e6);
+                }
+            }
+        }
+    }
+
+    @Test
+    void compareCountedPageWithSlice() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        for (String rows : System.getProperty("benchmark.rows", "100000,1000000").split(",")) {
+            int rowCount = Integer.parseInt(rows.trim());
+            seed(rowCount);
+
+            String[][] queries = {
+                {null, null, null, null},
+                {null, null, "fr", null},
+                {"namespace3.", null, "en", "mobile"},
+                {null, "word1234", null, null},
+            };
+            for (String[] query : queries) {
+                TranslationSearchFilter filter = TranslationSearchFilter.of(query[0], query[1], query[2], query[3]);
+                long total = jpqlSearch.count(filter);
+                long page = measure(() -> readOnly.execute(status -> {
+                    List<Long> ids = jpqlSearch.find(filter, Sort.unsorted(), 0, 20);
+                    return (ids.isEmpty() ? 0 : translationRepository.findWithTagsByIdIn(ids).size())
+                        + jpqlSearch.count(filter);
+                }), MEASURED_PAGING_RUNS);
+                long slice = measure(() -> readOnly.execute(status -> {
+                    List<Long> ids = jpqlSearch.find(filter, Sort.unsorted(), 0, 21);
+                    ids = ids.subList(0, Math.min(20, ids.size()));
+                    return ids.isEmpty() ? 0 : translationRepository.findWithTagsByIdIn(ids).size();
+                }), MEASURED_PAGING_RUNS);
+                long count = measure(() -> jpqlSearch.count(filter), MEASURED_PAGING_RUNS);
+                System.out.printf("rows=%-8d %-40s matches=%-7d page+count=%8.2f ms  slice=%7.2f ms  "
+                    + "exact total=%8.2f ms%n", rowCount, Arrays.toString(query), total, page / 1e6, slice / 1e6,
+                    count / 1e6);
+            }
+        }
+    }
+
+    @Test
+    void compareTagJoinWithDynamicSearch() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        for (String rows : System.getProperty("benchmark.rows", "100000,1000000").split(",")) {
+            int rowCount = Integer.parseInt(rows.trim());
+            seed(rowCount);
+
+            TranslationSearchFilter[] filters = {
+                TranslationSearchFilter.of(null, null, null, null),
+                TranslationSearchFilter.of(null, null, "fr", null),
+                TranslationSearchFilter.of("namespace3.", null, null, null),
+                TranslationSearchFilter.of(null, "word1234", null, null),
+                TranslationSearchFilter.of(null, null, null, "mobile"),
+                TranslationSearchFilter.of("namespace3.", null, "en", "mobile"),
+                new TranslationSearchFilter(null, null, false, null, List.of("web", "mobile"), TagMatch.ANY),
+                new TranslationSearchFilter(null, null, false, null, List.of("web", "mobile"), TagMatch.ALL),
+            };
+            for (TranslationSearchFilter filter : filters) {
+                long total = jpqlSearch.count(filter);
+                // A first page of 20 with its total, as the page endpoint served searches before slices
+                long after = measure(() -> readOnly.execute(status -> {
+                    List<Long> ids = jpqlSearch.find(filter, Sort.unsorted(), 0, 20);
+                    return (ids.isEmpty() ? 0 : translationRepository.findWithTagsByIdIn(ids).size())
+                        + jpqlSearch.count(filter);
+                }), MEASURED_PAGING_RUNS);
+                String before = "n/a";
+                long joinedTotal = -1;
+                // The former query filtered by one tag at most
+                if (filter.getTags().size() <= 1) {
+                    joinedTotal = tagJoinCount(filter);
+                    before = String.format("%8.2f ms", measure(() -> readOnly.execute(status ->
+                        tagJoinPage(filter).stream().mapToInt(t -> t.getTags().size()).sum() + tagJoinCount(filter)),
+                        MEASURED_PAGING_RUNS) / 1e6);
+                }
+                System.out.printf("rows=%-8d %-48s matches=%-7d (with tag join %-7d) tag join=%s  dynamic=%8.2f ms%n",
+                    rowCount, describe(filter), total, joinedTotal, before, after / 1e6);
+            }
+        }
+
+        // The SQL the two queries come down to without filters, and with one tag
+        String[][] plans = {
+            {"tag join, no filter", "SELECT DISTINCT t.id, t.translation_key, t.locale, t.content FROM translations t " +
+                "JOIN translation_tags tt ON tt.translation_id = t.id JOIN tags g ON g.id = tt.tag_id " +
+                "FETCH FIRST 20 ROWS ONLY"},
+            {"dynamic, no filter", "SELECT t.id FROM translations t ORDER BY t.id FETCH FIRST 20 ROWS ONLY"},
+            {"tag join, tag", "SELECT DISTINCT t.id, t.translation_key, t.locale, t.content FROM translations t " +
+                "JOIN translation_tags tt ON tt.translation_id = t.id JOIN tags g ON g.id = tt.tag_id " +
+                "WHERE g.name = 'mobile' FETCH FIRST 20 ROWS ONLY"},
+            {"dynamic, tag", "SELECT t.id FROM translations t WHERE EXISTS (SELECT 1 FROM translation_tags tt " +
+                "JOIN tags g ON g.id = tt.tag_id WHERE tt.translation_id = t.id AND g.name = 'mobile') " +
+                "ORDER BY t.id FETCH FIRST 20 ROWS ONLY"},
+        };
+        for (String[] plan : plans) {
+            System.out.printf("plan %s:%n%s%n", plan[0],
+                String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + plan[1], String.class)));
+        }
+    }
+
+    @Test
+    void compareExistsWithTagBitmaps() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        for (String rows : System.getProperty("benchmark.rows", "100000,1000000").split(",")) {
+            int rowCount = Integer.parseInt(rows.trim());
+            Map<String, Long> tagIds = seed(rowCount);
+
+            long start = System.nanoTime();
+            TagBitmapIndex index = readOnly.execute(status -> buildTagBitmaps());
+            long buildMillis = (System.nanoTime() - start) / 1_000_000;
+            System.out.printf("rows=%-8d tag bitmaps build=%d ms  size=%d KB%n", rowCount, buildMillis,
+                index.sizeInBytes() / 1024);
+
+            long web = tagIds.get("web");
+            long mobile = tagIds.get("mobile");
+            Object[][] queries = {
+                {List.of("mobile"), TagMatch.ANY, List.of(), new long[]{mobile}, null, null},
+                {List.of("web", "mobile"), TagMatch.ANY, List.of(), new long[]{web, mobile}, null, null},
+                {List.of("web", "mobile"), TagMatch.ALL, List.of(), null, new long[]{web, mobile}, null},
+                {List.of(), TagMatch.ANY, List.of("web"), null, null, new long[]{web}},
+                {List.of("mobile"), TagMatch.ANY, List.of("web"), new long[]{mobile}, null, new long[]{web}},
+            };
+            for (Object[] query : queries) {
+                @SuppressWarnings("unchecked")
+                TranslationSearchFilter filter = new TranslationSearchFilter(null, null, false, null,
+                    (List<String>) query[0], (TagMatch) query[1], (List<String>) query[2]);
+                Supplier<Roaring64Bitmap> select = () -> index.select((long[]) query[3], (long[]) query[4],
+                    (long[]) query[5]);
+                long total = jpqlSearch.count(filter);
+                assertEquals(total, select.get().getLongCardinality());
+                assertEquals(readOnly.execute(status -> jpqlSearch.find(filter, Sort.unsorted(), 0, 20)),
+                    Arrays.stream(select.get().toArray(), 0, (int) Math.min(20, total)).boxed().toList());
+
+                // A first page of 20 with its total
+                long sql = measure(() -> readOnly.execute(status -> {
+                    List<Long> ids = jpqlSearch.find(filter, Sort.unsorted(), 0, 20);
+                    return translationRepository.findWithTagsByIdIn(ids).size() + jpqlSearch.count(filter);
+                }), MEASURED_PAGING_RUNS);
+                long lookup = measure(() -> select.get().toArray().length);
+                long bitmap = measure(() -> {
+                    long[] ids = select.get().toArray();
+                    List<Long> page = Arrays.stream(ids, 0, Math.min(20, ids.length)).boxed().toList();
+                    return readOnly.execute(status -> translationRepository.findWithTagsByIdIn(page).size())
+                        + ids.length;
+                });
+                System.out.printf("rows=%-8d %-56s matches=%-7d exists=%8.2f ms  bitmap=%7.2f ms (lookup %6.3f ms)%n",
+                    rowCount, filter.getTagMatch() + filter.getTags().toString() + " not " + filter.getExcludedTags(),
+                    total, sql / 1e6, bitmap / 1e6, lookup / 1e6);
+            }
+
+            // Translations per tag, overall and among those tagged mobile
+            TranslationSearchFilter everything = TranslationSearchFilter.of(null, null, null, null);
+            TranslationSearchFilter tagged = TranslationSearchFilter.of(null, null, null, "mobile");
+            long sqlCounts = measure(() -> readOnly.execute(status -> jpqlSearch.countByTag(everything)),
+                MEASURED_PAGING_RUNS);
+            long bitmapCounts = measure(() -> index.counts(null));
+            long sqlFacets = measure(() -> readOnly.execute(status -> jpqlSearch.countByTag(tagged)),
+                MEASURED_PAGING_RUNS);
+            long bitmapFacets = measure(() -> index.counts(index.select(new long[]{mobile}, null, null)));
+            System.out.printf("rows=%-8d counts per tag: sql=%8.2f ms  bitmap=%7.3f ms; within mobile: sql=%8.2f ms  "
+                + "bitmap=%7.3f ms%n", rowCount, sqlCounts / 1e6, bitmapCounts / 1e6, sqlFacets / 1e6,
+                bitmapFacets / 1e6);
+        }
+    }
+
+    @Test
+    void compareSqlWithKeyPrefixIndex() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        for (String rows : System.getProperty("benchmark.rows", "100000,1000000").split(",")) {
+            int rowCount = Integer.parseInt(rows.trim());
+            seed(rowCount);
+
+            long heapBefore = usedHeap();
+            long start = System.nanoTime();
+            KeyPrefixIndex index = readOnly.execute(status -> {
+                KeyPrefixIndex loaded = new KeyPrefixIndex();
+                try (Stream<String> keys = translationRepository.streamDistinctKeys()) {
+                    keys.forEach(loaded::add);
+                }
+                return loaded;
+            });
+            long buildMillis = (System.nanoTime() - start) / 1_000_000;
+            long heapMb = (usedHeap() - heapBefore) / (1024 * 1024);
+            System.out.printf("rows=%-8d key prefix index build=%d ms  keys=%d  heap=%d MB%n", rowCount, buildMillis,
+                index.size(), heapMb);
+
+            for (String prefix : new String[]{"namespace3.key.12", "namespace3.key.", "namespace1"}) {
+                List<String> expected = readOnly.execute(status ->
+                    translationRepository.findDistinctKeysLike(prefix + "%", PageRequest.of(0, 10)));
+                assertEquals(expected, index.complete(prefix, 10));
+
+                // Today's only option: a substring search, then the distinct keys of its first page
+                long contains = measure(() -> readOnly.execute(status -> jpqlSearch.find(
+                    TranslationSearchFilter.of(prefix, null, null, null), Sort.by("key"), 0, 30)), MEASURED_PAGING_RUNS);
+                long like = measure(() -> readOnly.execute(status ->
+                    translationRepository.findDistinctKeysLike(prefix + "%", PageRequest.of(0, 10))));
+                long indexed = measure(() -> index.complete(prefix, 10));
+                System.out.printf("rows=%-8d complete %-20s %%key%%=%8.2f ms  key%%=%8.2f ms  index=%7.4f ms%n",
+                    rowCount, prefix, contains / 1e6, like / 1e6, indexed / 1e6);
+            }
+
+            for (String namespace : new String[]{"", "namespace3"}) {
+                // Distinct keys per next segment, below the namespace
+                String sql = "SELECT child, COUNT(DISTINCT translation_key) FROM (SELECT translation_key, " +
+                    "SUBSTRING(translation_key, 1, LOCATE('.', translation_key, " + (namespace.length() + 2) + ") - 1) " +
+                    "AS child FROM translations WHERE translation_key LIKE '" + namespace + "%.%') GROUP BY child";
+                long grouped = measure(() -> jdbcTemplate.queryForList(sql), MEASURED_PAGING_RUNS);
+                long indexed = measure(() -> index.children(namespace));
+                System.out.printf("rows=%-8d children of '%s' (%d): sql=%8.2f ms  index=%7.4f ms%n", rowCount,
+                    namespace, index.children(namespace).size(), grouped / 1e6, indexed / 1e6);
+            }
+        }
+    }
+
+    private TagBitmapIndex buildTagBitmaps() {
+        TagBitmapIndex index = new TagBitmapIndex();
+        for (String locale : LOCALES) {
+            Map<Long, List<Long>> tags = new HashMap<>();
+            for (TranslationTagLink link : translationRepository.findTagLinksByLocale(locale)) {
+                tags.computeIfAbsent(link.getTranslationId(), ignored -> new ArrayList<>()).add(link.getTagId());
+            }
+            for (Long id : translationRepository.findIdsByLocale(locale)) {
+                index.put(id, tags.getOrDefault(id, List.of()).stream().mapToLong(Long::longValue).toArray());
+            }
+        }
+        index.optimize();
+        return index;
+    }
+
+    private List<Translation> tagJoinPage(TranslationSearchFilter filter) {
+        return tagJoinQuery("SELECT DISTINCT t " + TAG_JOIN_SEARCH, Translation.class, filter)
+            .setMaxResults(20).getResultList();
+    }
+
+    private long tagJoinCount(TranslationSearchFilter filter) {
+        return tagJoinQuery("SELECT COUNT(DISTINCT t) " + TAG_JOIN_SEARCH, Long.class, filter).getSingleResult();
+    }
+
+    private <T> TypedQuery<T> tagJoinQuery(String jpql, Class<T> type, TranslationSearchFilter filter) {
+        return entityManager.createQuery(jpql, type)
+            .setParameter("key", filter.getKey() == null ? null : "%" + filter.getKey() + "%")
+            .setParameter("content", filter.getContent() == null ? null : "%" + filter.getContent() + "%")
+            .setParameter("locale", filter.getLocale())
+            .setParameter("tagName", filter.hasTags() ? filter.getTags().get(0) : null);
+    }
+
+    private static String describe(TranslationSearchFilter filter) {
+        return "[" + filter.getKey() + ", " + filter.getContent() + ", " + filter.getLocale() + ", "
+            + (filter.hasTags() ? filter.getTagMatch() + filter.getTags().toString() : null) + "]";
+    }
+
+    private TrigramIndex build() {
+        TrigramIndex index = new TrigramIndex();
+        for (String locale : LOCALES) {
+            Map<Long, List<Long>> tags = new HashMap<>();
+            for (TranslationTagLink link : translationRepository.findTagLinksByLocale(locale)) {
+                tags.computeIfAbsent(link.getTranslationId(), ignored -> new ArrayList<>()).add(link.getTagId());
+            }
+            for (TranslationSearchRow row : translationRepository.findSearchRowsByLocale(locale)) {
+                long[] rowTags = tags.getOrDefault(row.getId(), List.of()).stream().mapToLong(Long::longValue).toArray();
+                index.put(row.getId(), row.getKey(), row.getLocale(), row.getContent(), rowTags);
+            }
+        }
+        return index;
+    }
+
+    private Map<String, Long> seed(int rowCount) {
+        jdbcTemplate.update("DELETE FROM translation_tags");
+        jdbcTemplate.update("DELETE FROM translations");
+        jdbcTemplate.update("DELETE FROM tags");
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        Map<String, Long> tagIds = new HashMap<>();
+        for (String tag : TAGS) {
+            jdbcTemplate.update("INSERT INTO tags (name, created_at) VALUES (?, ?)", tag, now);
+            tagIds.put(tag, jdbcTemplate.queryForObject("SELECT id FROM tags WHERE name = ?", Long.class, tag));
+        }
+        Random random = new Random(42);
+        List<Object[]> batch = new ArrayList<>(10000);
+        for (int i = 0; i < rowCount; i++) {
+            String key = "namespace" + (i % 16) + ".key." + (i / LOCALES.length);
+            String content = "word" + random.nextInt(WORDS) + " word" + random.nextInt(WORDS) + " word"
+                + random.nextInt(WORDS);
+            batch.add(new Object[]{key, LOCALES[i % LOCALES.length], content, now, now});
+            if (batch.size() == 10000 || i == rowCount - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO translations (translation_key, locale, content, created_at, updated_at) " +
+                    "VALUES (?, ?, ?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+        for (String tag : TAGS) {
+            // Every translation gets one of the tags, a few get none
+            jdbcTemplate.update("INSERT INTO translation_tags (translation_id, tag_id) SELECT id, ? FROM translations " +
+                "WHERE MOD(id, 10) < 9 AND MOD(id, 3) = ?", tagIds.get(tag), Arrays.asList(TAGS).indexOf(tag));
+        }
+        // And some get "web" as a second tag
+        jdbcTemplate.update("INSERT INTO translation_tags (translation_id, tag_id) SELECT id, ? FROM translations " +
+            "WHERE MOD(id, 10) < 9 AND MOD(id, 3) <> 0 AND MOD(id, 7) = 0", tagIds.get("web"));
+        return tagIds;
+    }
+
+    private static long measure(Supplier<?> run) {
+        return measure(run, MEASURED_RUNS);
+    }
+
+    private static long measure(Supplier<?> run, int runs) {
+        for (int i = 0; i < 5; i++) {
+            run.get();
+        }
+        long[] nanos = new long[runs];
+        for (int i = 0; i < runs; i++) {
+            long start = System.nanoTime();
+            run.get();
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        return nanos[runs / 2];
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,172 @@
+package com.digitaltolk.translation.service;
+
+import com.digitaltolk.translation.export.SnapshotFileStore;
+import com.digitaltolk.translation.repository.TranslationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CacheWarmupServiceTest {
+
+    @Mock
+    private TranslationRepository translationRepository;
+
+    @Mock
+    private TranslationService translationService;
+
+    @Mock
+    private TranslationExportService translationExportService;
+
+    @Mock
+    private SnapshotFileStore snapshotStore;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private CacheWarmupService cacheWarmupService;
+
+    @AfterEach
+    void tearDown() {
+        cacheWarmupService.shutdown();
+    }
+
+    @Test
+    void run_ShouldWarmEveryLocaleAndThenReportReady() throws Exception {
+        // Given
+        cacheWarmupService = warmup(2, Duration.ofSeconds(5));
+        CacheWarmupHealthIndicator healthIndicator = new CacheWarmupHealthIndicator(cacheWarmupService);
+        when(translationRepository.findDistinctLocales()).thenReturn(List.of("en", "fr"));
+        when(snapshotStore.storedLocales(TranslationExportService.BINARY_FORMAT)).thenReturn(Set.of("fr"));
+        // Stubbed for both locales: strict stubs would otherwise fail the "en" load if it ran before "fr"
+        when(translationService.getTranslationsForLocale("en")).thenReturn(Map.of());
+        when(translationService.getTranslationsForLocale("fr")).thenThrow(new RuntimeException("Connection reset"));
+
+        // When
+        cacheWarmupService.run().get(5, TimeUnit.SECONDS);
+
+        // Then
+        verify(translationService).getTranslationsForLocale("en");
+        verify(translationExportService).getExportSnapshot("en");
+        verify(translationExportService).getExportSnapshot("fr");
+        verify(translationExportService).getBinaryExportSnapshot("fr");
+        verify(translationExportService, never()).getBinaryExportSnapshot("en");
+        assertEquals(CacheWarmupService.State.COMPLETED, cacheWarmupService.getState());
+        Health health = healthIndicator.health();
+        assertEquals(Status.UP, health.getStatus());
+        assertEquals(CacheWarmupService.State.COMPLETED, health.getDetails().get("state"));
+        assertEquals(2, health.getDetails().get("locales"));
+        assertEquals(1, health.getDetails().get("failures"));
+    }
+
+    @Test
+    void onReadinessChanged_ShouldRefuseTrafficUntilWarmUpFinishes() throws Exception {
+        // Given a catalog load held until released
+        cacheWarmupService = warmup(1, Duration.ofSeconds(5));
+        CountDownLatch release = new CountDownLatch(1);
+        when(translationRepository.findDistinctLocales()).thenReturn(List.of("en"));
+        when(snapshotStore.storedLocales(TranslationExportService.BINARY_FORMAT)).thenReturn(Set.of());
+        when(translationService.getTranslationsForLocale("en")).thenAnswer(invocation -> {
+            release.await();
+            return Map.of();
+        });
+        CompletableFuture<Void> warmup = cacheWarmupService.run();
+
+        // When Boot reports ready while the warm-up runs
+        cacheWarmupService.onReadinessChanged(new AvailabilityChangeEvent<>(this, ReadinessState.ACCEPTING_TRAFFIC));
+
+        // Then
+        verify(eventPublisher).publishEvent(readiness(ReadinessState.REFUSING_TRAFFIC));
+        verify(eventPublisher, never()).publishEvent(readiness(ReadinessState.ACCEPTING_TRAFFIC));
+        release.countDown();
+        warmup.get(5, TimeUnit.SECONDS);
+        verify(eventPublisher).publishEvent(readiness(ReadinessState.ACCEPTING_TRAFFIC));
+    }
+
+    @Test
+    void run_ShouldBoundConcurrentLoads() throws Exception {
+        // Given
+        cacheWarmupService = warmup(2, Duration.ofSeconds(5));
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        when(translationRepository.findDistinctLocales()).thenReturn(List.of("en", "fr", "es", "de"));
+        when(snapshotStore.storedLocales(TranslationExportService.BINARY_FORMAT)).thenReturn(Set.of());
+        when(translationService.getTranslationsForLocale(anyString())).thenAnswer(invocation -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            Thread.sleep(20);
+            running.decrementAndGet();
+            return Map.of();
+        });
+
+        // When
+        cacheWarmupService.run().get(5, TimeUnit.SECONDS);
+
+        // Then
+        verify(translationService, times(4)).getTranslationsForLocale(anyString());
+        assertTrue(maxRunning.get() <= 2);
+    }
+
+    @Test
+    void run_ShouldReportReadyAfterTimeout() throws Exception {
+        // Given a catalog load that never finishes
+        cacheWarmupService = warmup(1, Duration.ofMillis(100));
+        CountDownLatch release = new CountDownLatch(1);
+        when(translationRepository.findDistinctLocales()).thenReturn(List.of("en"));
+        when(snapshotStore.storedLocales(TranslationExportService.BINARY_FORMAT)).thenReturn(Set.of());
+        when(translationService.getTranslationsForLocale("en")).thenAnswer(invocation -> {
+            release.await();
+            return Map.of();
+        });
+
+        // When
+        cacheWarmupService.run().get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertEquals(CacheWarmupService.State.TIMED_OUT, cacheWarmupService.getState());
+        release.countDown();
+    }
+
+    @Test
+    void run_ShouldReportReadyWhenDisabled() {
+        // Given
+        cacheWarmupService = new CacheWarmupService(translationRepository, translationService,
+            translationExportService, snapshotStore, eventPublisher, false, 2, Duration.ofSeconds(5));
+
+        // When
+        cacheWarmupService.run();
+        cacheWarmupService.onReadinessChanged(new AvailabilityChangeEvent<>(this, ReadinessState.ACCEPTING_TRAFFIC));
+
+        // Then
+        assertEquals(CacheWarmupService.State.DISABLED, cacheWarmupService.getState());
+        verifyNoInteractions(translationRepository, translationService, translationExportService, eventPublisher);
+    }
+
+    private CacheWarmupService warmup(int concurrency, Duration timeout) {
+        return new CacheWarmupService(translationRepository, translationService, translationExportService,
+            snapshotStore, eventPublisher, true, concurrency, timeout);
+    }
+
+    private static ApplicationEvent readiness(ReadinessState state) {
+        return argThat(event -> event instanceof AvailabilityChangeEvent<?> change && change.getState() == state);
+    }
+}
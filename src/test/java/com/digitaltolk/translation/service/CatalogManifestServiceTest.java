@@ -0,0 +1,91 @@
+package com.digitaltolk.translation.service;
+
+import com.digitaltolk.translation.dto.LocaleManifestDto;
+import com.digitaltolk.translation.entity.LocaleVersion;
+import com.digitaltolk.translation.export.ExportSnapshot;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogManifestServiceTest {
+
+    private static final ExportSnapshot EN = ExportSnapshot.of("{\"welcome.message\":\"Welcome!\"}".getBytes());
+
+    @Mock
+    private CatalogVersionService catalogVersionService;
+
+    @Mock
+    private TranslationExportService translationExportService;
+
+    @InjectMocks
+    private CatalogManifestService catalogManifestService;
+
+    @AfterEach
+    void tearDown() {
+        catalogManifestService.shutdown();
+    }
+
+    @Test
+    void getManifest_ShouldListRecordedHashWithoutLoadingExports() {
+        // Given
+        when(catalogVersionService.getVersions()).thenReturn(List.of(version("en", 7, EN.getHash(), 7L)));
+
+        // When
+        Map<String, LocaleManifestDto> manifest = catalogManifestService.getManifest();
+
+        // Then
+        LocaleManifestDto en = manifest.get("en");
+        assertEquals(7, en.getVersion());
+        assertEquals(EN.getHash(), en.getHash());
+        assertEquals("/api/translations/bundles/en/" + EN.getHash(), en.getUrl());
+        verifyNoInteractions(translationExportService);
+    }
+
+    @Test
+    void getManifest_ShouldListHashAtItsOwnVersion_AndLoadExportInBackground_WhenBehind() {
+        // Given en was written since its export was hashed and fr was never exported
+        when(catalogVersionService.getVersions()).thenReturn(List.of(version("en", 8, EN.getHash(), 7L),
+            version("fr", 2, null, null)));
+
+        // When
+        Map<String, LocaleManifestDto> manifest = catalogManifestService.getManifest();
+
+        // Then
+        assertEquals(Set.of("en"), manifest.keySet());
+        assertEquals(7, manifest.get("en").getVersion());
+        assertEquals(EN.getHash(), manifest.get("en").getHash());
+        verify(translationExportService, timeout(1000)).getExportSnapshot("en");
+        verify(translationExportService, timeout(1000)).getExportSnapshot("fr");
+    }
+
+    @Test
+    void getBundle_ShouldOnlyServeCurrentHash() {
+        // Given
+        when(catalogVersionService.getVersion("en")).thenReturn(Optional.of(version("en", 7, EN.getHash(), 7L)));
+        when(translationExportService.getExportSnapshot("en")).thenReturn(EN);
+
+        // Then
+        assertSame(EN, catalogManifestService.getBundle("en", EN.getHash()).orElseThrow());
+        assertTrue(catalogManifestService.getBundle("en", "0".repeat(64)).isEmpty());
+        verify(translationExportService, times(1)).getExportSnapshot("en");
+    }
+
+    private static LocaleVersion version(String locale, long version, String exportHash, Long exportHashVersion) {
+        LocaleVersion localeVersion = new LocaleVersion(locale, version);
+        localeVersion.setExportHash(exportHash);
+        localeVersion.setExportHashVersion(exportHashVersion);
+        return localeVersion;
+    }
+}
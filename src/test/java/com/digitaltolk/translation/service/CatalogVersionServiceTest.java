@@ -0,0 +1,113 @@
+package com.digitaltolk.translation.service;
+
+import com.digitaltolk.translation.entity.LocaleVersion;
+import com.digitaltolk.translation.repository.LocaleVersionRepository;
+import com.digitaltolk.translation.repository.TranslationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogVersionServiceTest {
+
+    @Mock
+    private LocaleVersionRepository localeVersionRepository;
+
+    @Mock
+    private TranslationRepository translationRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private CatalogVersionService catalogVersionService;
+
+    @BeforeEach
+    void setUp() {
+        catalogVersionService = new CatalogVersionService(localeVersionRepository, translationRepository,
+            transactionManager);
+    }
+
+    @Test
+    void bump_ShouldIncrementExistingVersion() {
+        // Given
+        when(localeVersionRepository.incrementVersion("en")).thenReturn(1);
+
+        // When
+        catalogVersionService.bump("en");
+
+        // Then
+        verify(localeVersionRepository, never()).insertVersion(any(), any());
+    }
+
+    @Test
+    void bump_ShouldRegisterLocaleFirst_WhenItHasNoVersion() {
+        // Given
+        when(localeVersionRepository.incrementVersion("de")).thenReturn(0, 1);
+
+        // When
+        catalogVersionService.bump("de");
+
+        // Then
+        verify(localeVersionRepository).insertVersion(eq("de"), any());
+        verify(localeVersionRepository, times(2)).incrementVersion("de");
+    }
+
+    @Test
+    void bump_ShouldIncrement_WhenAConcurrentWriterRegisteredTheLocale() {
+        // Given
+        when(localeVersionRepository.incrementVersion("de")).thenReturn(0, 1);
+        when(localeVersionRepository.insertVersion(eq("de"), any()))
+            .thenThrow(new DataIntegrityViolationException("duplicate key"));
+
+        // When
+        catalogVersionService.bump("de");
+
+        // Then
+        verify(localeVersionRepository, times(2)).incrementVersion("de");
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    void registerLocales_ShouldRegisterLocalesWithoutVersion() {
+        // Given
+        when(localeVersionRepository.findAll()).thenReturn(List.of(new LocaleVersion("en", 4)));
+        when(translationRepository.findDistinctLocales()).thenReturn(List.of("en", "fr"));
+
+        // When
+        catalogVersionService.registerLocales();
+
+        // Then
+        verify(localeVersionRepository).insertVersion(eq("fr"), any());
+        verify(localeVersionRepository, never()).insertVersion(eq("en"), any());
+    }
+
+    @Test
+    void recordExportHash_ShouldUpdateOnlyWhenHashOrVersionMoved() {
+        // Given
+        LocaleVersion recorded = new LocaleVersion("en", 4);
+        recorded.setExportHash("abc");
+        recorded.setExportHashVersion(4L);
+        LocaleVersion behind = new LocaleVersion("en", 5);
+        behind.setExportHash("abc");
+        behind.setExportHashVersion(4L);
+
+        // When
+        catalogVersionService.recordExportHash(recorded, "abc");
+        catalogVersionService.recordExportHash(behind, "def");
+
+        // Then
+        verify(localeVersionRepository, times(1)).updateExportHash(any(), anyLong(), any());
+        verify(localeVersionRepository).updateExportHash("en", 5L, "def");
+    }
+}
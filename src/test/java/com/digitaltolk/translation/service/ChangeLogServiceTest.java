@@ -0,0 +1,89 @@
+package com.digitaltolk.translation.service;
+
+import com.digitaltolk.translation.entity.Translation;
+import com.digitaltolk.translation.entity.TranslationChange;
+import com.digitaltolk.translation.event.TranslationBatchChangedEvent;
+import com.digitaltolk.translation.event.TranslationChangedEvent;
+import com.digitaltolk.translation.repository.TranslationChangeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ChangeLogServiceTest {
+
+    @Mock
+    private TranslationChangeRepository changeRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private ChangeLogService changeLogService;
+
+    @BeforeEach
+    void setUp() {
+        changeLogService = new ChangeLogService(changeRepository, eventPublisher, true, "node-a",
+            Duration.ofSeconds(1), Duration.ofHours(1));
+        when(changeRepository.findMaxId()).thenReturn(10L);
+        changeLogService.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        changeLogService.shutdown();
+    }
+
+    @Test
+    void poll_ShouldReplayChangesFromOtherNodesOnly() {
+        // Given
+        when(changeRepository.findChangesAfter(eq(10L), any(Pageable.class)))
+            .thenReturn(List.of(change(11L, "node-a", "en"), change(12L, "node-b", "fr")));
+
+        // When
+        changeLogService.poll();
+
+        // Then
+        verify(eventPublisher, times(1)).publishEvent(any(Object.class));
+        verify(eventPublisher).publishEvent(argThat((TranslationBatchChangedEvent event) ->
+            event.getAffectedLocales().equals(Set.of("fr"))));
+    }
+
+    @Test
+    void poll_ShouldPickUpChangeCommittedAfterHigherId() {
+        // Given id 11 is still uncommitted when 12 is seen
+        when(changeRepository.findChangesAfter(eq(10L), any(Pageable.class)))
+            .thenReturn(List.of(change(12L, "node-b", "fr")));
+        changeLogService.poll();
+
+        // When
+        when(changeRepository.findChangesIn(Set.of(11L))).thenReturn(List.of(change(11L, "node-b", "es")));
+        when(changeRepository.findChangesAfter(eq(12L), any(Pageable.class))).thenReturn(List.of());
+        changeLogService.poll();
+        changeLogService.poll();
+
+        // Then
+        verify(eventPublisher).publishEvent(argThat((TranslationBatchChangedEvent event) ->
+            event.getAffectedLocales().equals(Set.of("es"))));
+        verify(changeRepository, times(1)).findChangesIn(anyCollection());
+    }
+
+    private static TranslationChange change(long id, String nodeId, String locale) {
+        Translation translation = new Translation("welcome.message", locale, "Welcome!");
+        translation.setId(id);
+        TranslationChange change = new TranslationChange(nodeId, TranslationChangedEvent.created(translation));
+        change.setId(id);
+        return change;
+    }
+}
@@ -0,0 +1,159 @@
+package com.digitaltolk.translation.service;
+
+import com.digitaltolk.translation.export.ExportSnapshot;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExportSnapshotRefresherTest {
+
+    @Mock
+    private TranslationExportService translationExportService;
+
+    private final CacheManager cacheManager = new ConcurrentMapCacheManager(TranslationExportService.JSON_CACHE,
+        TranslationExportService.BINARY_CACHE);
+    private final ExportSnapshot previous = ExportSnapshot.of("{\"button.submit\":\"Submit\"}".getBytes(), 1000);
+    private Cache cache;
+    private ExportSnapshotRefresher refresher;
+
+    @BeforeEach
+    void setUp() {
+        cache = cacheManager.getCache(TranslationExportService.JSON_CACHE);
+        cache.put("en", previous);
+    }
+
+    @AfterEach
+    void tearDown() {
+        refresher.shutdown();
+    }
+
+    @Test
+    void invalidate_ShouldServePreviousSnapshotUntilRefreshed() throws Exception {
+        // Given a rebuild that blocks until released
+        refresher = new ExportSnapshotRefresher(cacheManager, translationExportService, true, Duration.ofSeconds(30));
+        ExportSnapshot rebuilt = ExportSnapshot.of("{\"button.submit\":\"Send\"}".getBytes(), 2000);
+        CountDownLatch release = new CountDownLatch(1);
+        when(translationExportService.buildExportSnapshot("en")).thenAnswer(invocation -> {
+            release.await();
+            return rebuilt;
+        });
+
+        // When
+        refresher.invalidate(TranslationExportService.JSON_CACHE, "en");
+
+        // Then the previous snapshot stays cached, flagged as stale
+        assertSame(previous, cache.get("en").get());
+        assertTrue(refresher.isStale(TranslationExportService.JSON_CACHE, "en", previous));
+        release.countDown();
+        awaitCached(rebuilt);
+        assertFalse(refresher.isStale(TranslationExportService.JSON_CACHE, "en", rebuilt));
+    }
+
+    @Test
+    void invalidate_ShouldRebuildOnceMore_WhenWrittenDuringRefresh() throws Exception {
+        // Given
+        refresher = new ExportSnapshotRefresher(cacheManager, translationExportService, true, Duration.ofSeconds(30));
+        ExportSnapshot first = ExportSnapshot.of("{\"button.submit\":\"Send\"}".getBytes(), 2000);
+        ExportSnapshot second = ExportSnapshot.of("{\"button.submit\":\"Send now\"}".getBytes(), 3000);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(translationExportService.buildExportSnapshot("en")).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return first;
+        }).thenReturn(second);
+
+        // When three more writes land while the first rebuild is running
+        refresher.invalidate(TranslationExportService.JSON_CACHE, "en");
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 3; i++) {
+            refresher.invalidate(TranslationExportService.JSON_CACHE, "en");
+        }
+        release.countDown();
+
+        // Then they cost one more rebuild, not three
+        awaitCached(second);
+        verify(translationExportService, times(2)).buildExportSnapshot("en");
+        assertFalse(refresher.isStale(TranslationExportService.JSON_CACHE, "en", second));
+    }
+
+    @Test
+    void invalidate_ShouldEvict_WhenStaleLongerThanBound() throws Exception {
+        // Given a rebuild that does not finish within the bound
+        refresher = new ExportSnapshotRefresher(cacheManager, translationExportService, true, Duration.ofMillis(50));
+        CountDownLatch release = new CountDownLatch(1);
+        when(translationExportService.buildExportSnapshot("en")).thenAnswer(invocation -> {
+            release.await();
+            return previous;
+        });
+
+        // When
+        refresher.invalidate(TranslationExportService.JSON_CACHE, "en");
+
+        // Then readers stop getting the stale snapshot and load their own
+        long deadline = System.currentTimeMillis() + 5000;
+        while (cache.get("en") != null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertNull(cache.get("en"));
+        assertFalse(refresher.isStale(TranslationExportService.JSON_CACHE, "en", previous));
+
+        // And the rebuild that outlived the bound is not cached once it finishes
+        release.countDown();
+        Thread.sleep(100);
+        assertNull(cache.get("en"));
+    }
+
+    @Test
+    void invalidate_ShouldEvict_WhenDisabled() {
+        // Given
+        refresher = new ExportSnapshotRefresher(cacheManager, translationExportService, false, Duration.ofSeconds(30));
+
+        // When
+        refresher.invalidate(TranslationExportService.JSON_CACHE, "en");
+
+        // Then
+        assertNull(cache.get("en"));
+        verifyNoInteractions(translationExportService);
+    }
+
+    @Test
+    void invalidate_ShouldEvict_WhenRefreshFails() throws Exception {
+        // Given
+        refresher = new ExportSnapshotRefresher(cacheManager, translationExportService, true, Duration.ofSeconds(30));
+        when(translationExportService.buildExportSnapshot("en")).thenThrow(new RuntimeException("Connection reset"));
+
+        // When
+        refresher.invalidate(TranslationExportService.JSON_CACHE, "en");
+
+        // Then
+        long deadline = System.currentTimeMillis() + 5000;
+        while (cache.get("en") != null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertNull(cache.get("en"));
+        assertFalse(refresher.isStale(TranslationExportService.JSON_CACHE, "en", previous));
+    }
+
+    private void awaitCached(ExportSnapshot expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (cache.get("en").get() != expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertSame(expected, cache.get("en").get());
+    }
+}
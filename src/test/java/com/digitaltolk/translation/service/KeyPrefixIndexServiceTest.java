@@ -0,0 +1,124 @@
+package com.digitaltolk.translation.service;
+
+import com.digitaltolk.translation.dto.KeyNamespaceDto;
+import com.digitaltolk.translation.event.TranslationChangedEvent;
+import com.digitaltolk.translation.event.TranslationChangedEvent.ChangeType;
+import com.digitaltolk.translation.repository.TranslationRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class KeyPrefixIndexServiceTest {
+
+    @Mock
+    private TranslationRepository translationRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void complete_ShouldQueryDatabase_UntilLoaded() {
+        // Given
+        KeyPrefixIndexService service = new KeyPrefixIndexService(translationRepository, transactionManager, false);
+        when(translationRepository.findDistinctKeysLike("form\\_field%", PageRequest.of(0, 100)))
+            .thenReturn(List.of("form_field.name"));
+
+        // When
+        service.load();
+
+        // Then
+        assertFalse(service.isReady());
+        assertEquals(List.of("form_field.name"), service.complete("form_field", 500));
+        assertEquals(Optional.empty(), service.children("navigation"));
+    }
+
+    @Test
+    void load_ShouldKeepQueryingDatabase_WhenItFails() {
+        // Given
+        KeyPrefixIndexService service = new KeyPrefixIndexService(translationRepository, transactionManager, true);
+        when(translationRepository.streamDistinctKeys()).thenThrow(new RuntimeException("Connection reset"));
+
+        // When
+        service.load();
+        service.onTranslationChanged(new TranslationChangedEvent(ChangeType.CREATED, 1L,
+            null, null, "navigation.home", "en"));
+
+        // Then
+        assertFalse(service.isReady());
+        verify(translationRepository, never()).findDistinctKeysIn(any());
+    }
+
+    @Test
+    void complete_ShouldAnswerFromIndex_WhenLoaded() {
+        // Given
+        KeyPrefixIndexService service = loadedService();
+
+        // When / Then
+        assertEquals(List.of("navigation.menu.close", "navigation.menu.open"), service.complete("navigation.men", 10));
+        assertEquals(List.of("button.submit"), service.complete("", 1));
+        verify(translationRepository, never()).findDistinctKeysLike(any(), any());
+    }
+
+    @Test
+    void children_ShouldDescribeNamespaces_WhenLoaded() {
+        // Given
+        KeyPrefixIndexService service = loadedService();
+
+        // When
+        List<KeyNamespaceDto> topLevel = service.children(null).orElseThrow();
+        List<KeyNamespaceDto> navigation = service.children("navigation").orElseThrow();
+
+        // Then
+        assertEquals(List.of("button", "navigation"), names(topLevel));
+        assertEquals(3, topLevel.get(1).getKeyCount());
+        assertEquals(1, topLevel.get(1).getDirectKeyCount());
+        assertEquals("navigation.menu", navigation.get(0).getNamespace());
+        assertEquals(2, navigation.get(0).getKeyCount());
+    }
+
+    @Test
+    void onTranslationChanged_ShouldKeepKeysOtherLocalesStillHave() {
+        // Given
+        KeyPrefixIndexService service = loadedService();
+        when(translationRepository.findDistinctKeysIn(argThat(keys ->
+                Set.copyOf(keys).equals(Set.of("navigation.home", "navigation.start")))))
+            .thenReturn(List.of("navigation.start"));
+        when(translationRepository.findDistinctKeysIn(List.of("button.submit"))).thenReturn(List.of("button.submit"));
+
+        // When navigation.home was renamed in its only locale and button.submit deleted in one of two
+        service.onTranslationChanged(new TranslationChangedEvent(ChangeType.UPDATED, 1L,
+            "navigation.home", "en", "navigation.start", "en"));
+        service.onTranslationChanged(new TranslationChangedEvent(ChangeType.DELETED, 2L,
+            "button.submit", "fr", "button.submit", "fr"));
+
+        // Then
+        assertEquals(List.of("navigation.menu.close", "navigation.menu.open", "navigation.start"),
+            service.complete("navigation.", 10));
+        assertEquals(List.of("button.submit"), service.complete("button", 10));
+    }
+
+    private static List<String> names(List<KeyNamespaceDto> namespaces) {
+        return namespaces.stream().map(KeyNamespaceDto::getName).toList();
+    }
+
+    private KeyPrefixIndexService loadedService() {
+        KeyPrefixIndexService service = new KeyPrefixIndexService(translationRepository, transactionManager, true);
+        when(translationRepository.streamDistinctKeys()).thenReturn(Stream.of("button.submit", "navigation.home",
+            "navigation.menu.close", "navigation.menu.open"));
+        service.load();
+        assertTrue(service.isReady());
+        return service;
+    }
+}
@@ -0,0 +1,125 @@
+package com.digitaltolk.translation.service;
+
+import com.digitaltolk.translation.dto.TranslationEntry;
+import com.digitaltolk.translation.entity.LocaleVersion;
+import com.digitaltolk.translation.entity.Translation;
+import com.digitaltolk.translation.event.LocaleCatalogChangedEvent;
+import com.digitaltolk.translation.event.TranslationChangedEvent;
+import com.digitaltolk.translation.export.ExportSnapshot;
+import com.digitaltolk.translation.repository.TranslationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Duration;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LocaleCatalogPatcherTest {
+
+    @Mock
+    private TranslationRepository translationRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TranslationExportService translationExportService;
+
+    @Mock
+    private ExportSnapshotRefresher exportSnapshotRefresher;
+
+    @Mock
+    private CatalogVersionService catalogVersionService;
+
+    private final CacheManager cacheManager = new CaffeineCacheManager(LocaleCatalogPatcher.CACHE_NAME,
+        TranslationExportService.JSON_CACHE);
+    private LocaleCatalogPatcher patcher;
+
+    @AfterEach
+    void tearDown() {
+        patcher.shutdown();
+    }
+
+    @Test
+    void onTranslationChanged_ShouldPatchCachedCatalogInPlace() {
+        // Given
+        patcher = newPatcher(Duration.ZERO);
+        Map<String, String> catalog = Collections.unmodifiableMap(new TreeMap<>(Map.of("form.name", "Name")));
+        cacheManager.getCache(LocaleCatalogPatcher.CACHE_NAME).put("en", catalog);
+        when(translationRepository.findEntriesByLocaleAndKeys("en", Set.of("form.email")))
+            .thenReturn(List.of(new TranslationEntry("form.email", "Email")));
+        ExportSnapshot exported = ExportSnapshot.of(new byte[0]);
+        when(translationExportService.buildExportSnapshot(anyMap(), anyLong())).thenReturn(exported);
+        LocaleVersion version = new LocaleVersion("en", 3);
+        when(catalogVersionService.getVersion("en")).thenReturn(Optional.of(version));
+
+        // When
+        patcher.onTranslationChanged(TranslationChangedEvent.created(new Translation("form.email", "en", "Email")));
+
+        // Then
+        Map<?, ?> patched = cacheManager.getCache(LocaleCatalogPatcher.CACHE_NAME).get("en", Map.class);
+        assertEquals(List.of("form.email", "form.name"), List.copyOf(patched.keySet()));
+        assertEquals(Map.of("form.email", "Email", "form.name", "Name"), patched);
+        assertEquals(Map.of("form.name", "Name"), catalog);
+        assertThrows(UnsupportedOperationException.class, () -> patched.clear());
+        verify(translationExportService).buildExportSnapshot(argThat(map -> map == patched), anyLong());
+        assertSame(exported, cacheManager.getCache(TranslationExportService.JSON_CACHE).get("en").get());
+        verify(catalogVersionService).recordExportHash(version, exported.getHash());
+        verifyNoInteractions(exportSnapshotRefresher);
+        verify(eventPublisher).publishEvent(argThat((Object event) ->
+            event instanceof LocaleCatalogChangedEvent changed && changed.getLocale().equals("en")));
+    }
+
+    @Test
+    void flush_ShouldCoalesceChangesWithinDebounceWindow() {
+        // Given
+        patcher = newPatcher(Duration.ofMinutes(1));
+        cacheManager.getCache(LocaleCatalogPatcher.CACHE_NAME).put("en", Map.of("form.email", "Email", "form.name", "Name"));
+        when(translationRepository.findEntriesByLocaleAndKeys(eq("en"), anyCollection()))
+            .thenReturn(List.of(new TranslationEntry("form.email", "E-mail")));
+        when(translationExportService.buildExportSnapshot(anyMap(), anyLong())).thenReturn(ExportSnapshot.of(new byte[0]));
+
+        // When
+        patcher.onTranslationChanged(TranslationChangedEvent.updated("form.email", "en",
+            new Translation("form.email", "en", "E-mail")));
+        patcher.onTranslationChanged(TranslationChangedEvent.deleted(new Translation("form.name", "en", "Name")));
+        verifyNoInteractions(translationRepository);
+        patcher.flush("en");
+        patcher.flush("en");
+
+        // Then
+        verify(translationRepository, times(1)).findEntriesByLocaleAndKeys("en", Set.of("form.email", "form.name"));
+        verify(eventPublisher, times(1)).publishEvent(any(Object.class));
+        assertEquals(Map.of("form.email", "E-mail"),
+            cacheManager.getCache(LocaleCatalogPatcher.CACHE_NAME).get("en", Map.class));
+    }
+
+    @Test
+    void flush_ShouldInvalidateExport_WhenCatalogIsNotCached() {
+        // Given
+        patcher = newPatcher(Duration.ZERO);
+        cacheManager.getCache(TranslationExportService.JSON_CACHE).put("en", ExportSnapshot.of(new byte[0]));
+
+        // When
+        patcher.onTranslationChanged(TranslationChangedEvent.deleted(new Translation("form.name", "en", "Name")));
+
+        // Then
+        verify(exportSnapshotRefresher).invalidate(TranslationExportService.JSON_CACHE, "en");
+        verifyNoInteractions(translationExportService);
+    }
+
+    private LocaleCatalogPatcher newPatcher(Duration debounce) {
+        return new LocaleCatalogPatcher(translationRepository, eventPublisher, cacheManager, translationExportService,
+            exportSnapshotRefresher, catalogVersionService, debounce);
+    }
+}
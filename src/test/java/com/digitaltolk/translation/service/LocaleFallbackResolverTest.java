@@ -0,0 +1,40 @@
+package com.digitaltolk.translation.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocaleFallbackResolverTest {
+    
+    @Test
+    void resolveChain_ShouldUseConfiguredChain() {
+        // Given
+        LocaleFallbackResolver resolver = new LocaleFallbackResolver("fr-CA>fr, pt-BR>pt>es", "");
+        
+        // Then
+        assertEquals(List.of("fr-CA", "fr"), resolver.resolveChain("fr-CA"));
+        assertEquals(List.of("pt-BR", "pt", "es"), resolver.resolveChain("pt-BR"));
+    }
+    
+    @Test
+    void resolveChain_ShouldFallBackToParentLocales_WhenNotConfigured() {
+        // Given
+        LocaleFallbackResolver resolver = new LocaleFallbackResolver("", "");
+        
+        // Then
+        assertEquals(List.of("zh-Hant-TW", "zh-Hant", "zh"), resolver.resolveChain("zh-Hant-TW"));
+        assertEquals(List.of("en"), resolver.resolveChain("en"));
+    }
+    
+    @Test
+    void resolveChain_ShouldAppendDefaultLocaleOnce() {
+        // Given
+        LocaleFallbackResolver resolver = new LocaleFallbackResolver("es-MX>es", "en");
+        
+        // Then
+        assertEquals(List.of("es-MX", "es", "en"), resolver.resolveChain("es-MX"));
+        assertEquals(List.of("en-GB", "en"), resolver.resolveChain("en-GB"));
+    }
+}
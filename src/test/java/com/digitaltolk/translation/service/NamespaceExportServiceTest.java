@@ -0,0 +1,124 @@
+package com.digitaltolk.translation.service;
+
+import com.digitaltolk.translation.dto.TranslationEntry;
+import com.digitaltolk.translation.entity.Translation;
+import com.digitaltolk.translation.event.TranslationChangedEvent;
+import com.digitaltolk.translation.export.ExportSnapshot;
+import com.digitaltolk.translation.repository.TranslationRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NamespaceExportServiceTest {
+
+    @Mock
+    private TranslationRepository translationRepository;
+
+    private NamespaceExportService namespaceExportService;
+
+    @BeforeEach
+    void setUp() {
+        namespaceExportService = new NamespaceExportService(translationRepository, new ObjectMapper(),
+            new SingleFlightLoader(new SimpleMeterRegistry()), new ConcurrentMapCacheManager(NamespaceExportService.CACHE_NAME));
+    }
+
+    @Test
+    void getNamespaceSnapshot_ShouldEscapeLikeWildcards() {
+        // Given
+        when(translationRepository.findEntriesByLocaleAndNamespace("en", "user_profile", "user\\_profile.%"))
+            .thenReturn(List.of(new TranslationEntry("user_profile.title", "Profile")));
+
+        // When
+        ExportSnapshot snapshot = namespaceExportService.getNamespaceSnapshot("en", "user_profile");
+
+        // Then
+        assertEquals("{\"user_profile.title\":\"Profile\"}", new String(snapshot.getBody(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void getNamespaceSnapshot_ShouldCombineRequestedNamespaces() {
+        // Given
+        when(translationRepository.findEntriesByLocaleAndNamespace("en", "form", "form.%"))
+            .thenReturn(List.of(new TranslationEntry("form.name", "Name")));
+        when(translationRepository.findEntriesByLocaleAndNamespace("en", "error", "error.%")).thenReturn(List.of());
+        when(translationRepository.findEntriesByLocaleAndNamespace("en", "navigation", "navigation.%"))
+            .thenReturn(List.of(new TranslationEntry("navigation.home", "Home")));
+
+        // When
+        ExportSnapshot snapshot = namespaceExportService.getNamespaceSnapshot("en", List.of("navigation", "form", "error"));
+
+        // Then
+        assertEquals("{\"form.name\":\"Name\",\"navigation.home\":\"Home\"}",
+            new String(snapshot.getBody(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void getNamespaceSnapshot_ShouldCacheCombinedBundle_UntilOneOfItsNamespacesChanges() {
+        // Given
+        when(translationRepository.findEntriesByLocaleAndNamespace(eq("en"), anyString(), anyString())).thenReturn(List.of());
+        ExportSnapshot combined = namespaceExportService.getNamespaceSnapshot("en", List.of("navigation", "form"));
+
+        // When / Then
+        assertSame(combined, namespaceExportService.getNamespaceSnapshot("en", List.of("form", "navigation")));
+        namespaceExportService.onTranslationChanged(TranslationChangedEvent.created(new Translation("button.ok", "en", "OK")));
+        assertSame(combined, namespaceExportService.getNamespaceSnapshot("en", List.of("navigation", "form")));
+        namespaceExportService.onTranslationChanged(TranslationChangedEvent.created(new Translation("form.email", "en", "Email")));
+        assertNotSame(combined, namespaceExportService.getNamespaceSnapshot("en", List.of("navigation", "form")));
+    }
+
+    @Test
+    void getNamespaceSnapshot_ShouldRebuildOnlyChangedNamespace() {
+        // Given
+        when(translationRepository.findEntriesByLocaleAndNamespace(eq("en"), anyString(), anyString())).thenReturn(List.of());
+        namespaceExportService.getNamespaceSnapshot("en", List.of("navigation", "form"));
+
+        // When
+        namespaceExportService.onTranslationChanged(TranslationChangedEvent.created(new Translation("form.email", "en", "Email")));
+        namespaceExportService.getNamespaceSnapshot("en", List.of("navigation", "form"));
+
+        // Then
+        verify(translationRepository, times(2)).findEntriesByLocaleAndNamespace("en", "form", "form.%");
+        verify(translationRepository, times(1)).findEntriesByLocaleAndNamespace("en", "navigation", "navigation.%");
+    }
+
+    @Test
+    void onTranslationChanged_ShouldEvictPreviousNamespace_WhenKeyMoves() {
+        // Given
+        when(translationRepository.findEntriesByLocaleAndNamespace(eq("en"), anyString(), anyString())).thenReturn(List.of());
+        namespaceExportService.getNamespaceSnapshot("en", "form");
+
+        // When
+        namespaceExportService.onTranslationChanged(TranslationChangedEvent.updated("form.email", "en",
+            new Translation("error.email", "en", "Invalid email")));
+        namespaceExportService.getNamespaceSnapshot("en", "form");
+
+        // Then
+        verify(translationRepository, times(2)).findEntriesByLocaleAndNamespace("en", "form", "form.%");
+    }
+
+    @Test
+    void onTranslationChanged_ShouldEvictNamespaceOfDeletedKey() {
+        // Given
+        when(translationRepository.findEntriesByLocaleAndNamespace(eq("en"), anyString(), anyString())).thenReturn(List.of());
+        namespaceExportService.getNamespaceSnapshot("en", "form");
+
+        // When
+        namespaceExportService.onTranslationChanged(TranslationChangedEvent.deleted(new Translation("form.email", "en", "Email")));
+        namespaceExportService.getNamespaceSnapshot("en", "form");
+
+        // Then
+        verify(translationRepository, times(2)).findEntriesByLocaleAndNamespace("en", "form", "form.%");
+    }
+}
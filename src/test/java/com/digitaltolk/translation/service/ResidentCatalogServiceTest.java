@@ -0,0 +1,96 @@
+package com.digitaltolk.translation.service;
+
+import com.digitaltolk.translation.dto.TranslationEntry;
+import com.digitaltolk.translation.entity.Translation;
+import com.digitaltolk.translation.event.TranslationChangedEvent;
+import com.digitaltolk.translation.repository.TranslationRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ResidentCatalogServiceTest {
+
+    @Mock
+    private TranslationRepository translationRepository;
+
+    @Test
+    void load_ShouldDoNothing_WhenDisabled() {
+        // Given
+        ResidentCatalogService service = new ResidentCatalogService(translationRepository, false, false);
+
+        // When
+        service.load();
+
+        // Then
+        assertFalse(service.isReady());
+        verifyNoInteractions(translationRepository);
+    }
+
+    @Test
+    void load_ShouldKeepFallingBackToDatabase_WhenItFails() {
+        // Given
+        ResidentCatalogService service = new ResidentCatalogService(translationRepository, true, false);
+        when(translationRepository.countAll()).thenThrow(new RuntimeException("Connection reset"));
+
+        // When
+        service.load();
+        service.onTranslationChanged(TranslationChangedEvent.created(new Translation("form.name", "en", "Name")));
+
+        // Then
+        assertFalse(service.isReady());
+        verify(translationRepository, never()).findEntriesByLocaleAndKeys(any(), any());
+    }
+
+    @Test
+    void load_ShouldApplyWritesCommittedWhileLoading() {
+        // Given
+        ResidentCatalogService service = new ResidentCatalogService(translationRepository, true, false);
+        when(translationRepository.countAll()).thenReturn(1L);
+        when(translationRepository.findDistinctLocales()).thenReturn(List.of("en"));
+        when(translationRepository.findEntriesByLocale("en")).thenAnswer(invocation -> {
+            service.onTranslationChanged(TranslationChangedEvent.created(new Translation("form.name", "en", "Name")));
+            return List.of(new TranslationEntry("form.email", "Email"));
+        });
+        when(translationRepository.findEntriesByLocaleAndKeys("en", List.of("form.name")))
+            .thenReturn(List.of(new TranslationEntry("form.name", "Name")));
+
+        // When
+        service.load();
+
+        // Then
+        assertTrue(service.isReady());
+        assertEquals(Optional.of("Email"), service.get("form.email", "en"));
+        assertEquals(Optional.of("Name"), service.get("form.name", "en"));
+    }
+
+    @Test
+    void onTranslationChanged_ShouldApplyCommittedStateOfMovedKey() {
+        // Given
+        ResidentCatalogService service = new ResidentCatalogService(translationRepository, true, true);
+        when(translationRepository.countAll()).thenReturn(1L);
+        when(translationRepository.findDistinctLocales()).thenReturn(List.of("en"));
+        when(translationRepository.findEntriesByLocale("en"))
+            .thenReturn(List.of(new TranslationEntry("form.email", "Email")));
+        service.load();
+        when(translationRepository.findEntriesByLocaleAndKeys("en", List.of("form.email"))).thenReturn(List.of());
+        when(translationRepository.findEntriesByLocaleAndKeys("fr", List.of("form.email")))
+            .thenReturn(List.of(new TranslationEntry("form.email", "Courriel")));
+
+        // When
+        service.onTranslationChanged(TranslationChangedEvent.updated("form.email", "en",
+            new Translation("form.email", "fr", "Courriel")));
+
+        // Then
+        assertTrue(service.isReady());
+        assertEquals(Optional.empty(), service.get("form.email", "en"));
+        assertEquals(Optional.of("Courriel"), service.get("form.email", "fr"));
+    }
+}
@@ -0,0 +1,67 @@
+package com.digitaltolk.translation.service;
+
+import com.digitaltolk.translation.event.LocaleCatalogChangedEvent;
+import com.digitaltolk.translation.export.ExportSnapshot;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ResolvedExportServiceTest {
+    
+    @Mock
+    private TranslationService translationService;
+    
+    private ResolvedExportService resolvedExportService;
+    
+    @BeforeEach
+    void setUp() {
+        resolvedExportService = new ResolvedExportService(translationService,
+            new LocaleFallbackResolver("fr-CA>fr", ""), new ObjectMapper(),
+            new SingleFlightLoader(new SimpleMeterRegistry()), new ConcurrentMapCacheManager(ResolvedExportService.CACHE_NAME));
+    }
+    
+    @Test
+    void getResolvedSnapshot_ShouldPreferMostSpecificLocale() {
+        // Given
+        when(translationService.getTranslationsForLocale("fr-CA")).thenReturn(Map.of("button.submit", "Soumettre!"));
+        when(translationService.getTranslationsForLocale("fr")).thenReturn(Map.of(
+            "button.submit", "Soumettre", "button.cancel", "Annuler"));
+        
+        // When
+        ExportSnapshot snapshot = resolvedExportService.getResolvedSnapshot("fr-CA");
+        
+        // Then
+        assertEquals("{\"button.cancel\":\"Annuler\",\"button.submit\":\"Soumettre!\"}",
+            new String(snapshot.getBody(), StandardCharsets.UTF_8));
+    }
+    
+    @Test
+    void getResolvedSnapshot_ShouldMergeOnceUntilChainLocaleChanges() {
+        // Given
+        when(translationService.getTranslationsForLocale("fr-CA")).thenReturn(Map.of());
+        when(translationService.getTranslationsForLocale("fr")).thenReturn(Map.of("button.cancel", "Annuler"));
+        resolvedExportService.getResolvedSnapshot("fr-CA");
+        
+        // When a locale outside the chain changes, the merged bundle is kept
+        resolvedExportService.onCatalogChanged(new LocaleCatalogChangedEvent("es"));
+        resolvedExportService.getResolvedSnapshot("fr-CA");
+        verify(translationService, times(1)).getTranslationsForLocale("fr");
+        
+        // When a locale in the chain changes, it is merged again
+        resolvedExportService.onCatalogChanged(new LocaleCatalogChangedEvent("fr"));
+        resolvedExportService.getResolvedSnapshot("fr-CA");
+        verify(translationService, times(2)).getTranslationsForLocale("fr");
+    }
+}
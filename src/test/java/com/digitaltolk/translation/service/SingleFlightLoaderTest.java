@@ -0,0 +1,78 @@
+package com.digitaltolk.translation.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightLoaderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SingleFlightLoader singleFlight = new SingleFlightLoader(meterRegistry);
+
+    @Test
+    void load_ShouldShareInFlightLoadBetweenCallers() throws Exception {
+        // Given a load that blocks until released
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<String> leader = executor.submit(() -> singleFlight.load("export", "en", () -> {
+                loads.incrementAndGet();
+                started.countDown();
+                await(release);
+                return "catalog";
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            // When three more callers ask for the same key while it is loading
+            Future<?>[] followers = new Future<?>[3];
+            for (int i = 0; i < followers.length; i++) {
+                followers[i] = executor.submit(() -> singleFlight.load("export", "en", () -> {
+                    loads.incrementAndGet();
+                    return "own";
+                }));
+            }
+            while (meterRegistry.counter("singleflight.coalesced", "name", "export").count() < 3) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            // Then
+            assertEquals("catalog", leader.get(5, TimeUnit.SECONDS));
+            for (Future<?> follower : followers) {
+                assertEquals("catalog", follower.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, loads.get());
+            assertEquals(1, meterRegistry.counter("singleflight.loads", "name", "export").count());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void load_ShouldRunAgainAfterFailure() {
+        // Given
+        assertThrows(IllegalStateException.class, () -> singleFlight.load("lookup", "en", () -> {
+            throw new IllegalStateException("database down");
+        }));
+
+        // When
+        String value = singleFlight.load("lookup", "en", () -> "recovered");
+
+        // Then
+        assertEquals("recovered", value);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.digitaltolk.translation.service;
+
+import com.digitaltolk.translation.dto.TranslationSearchFilter;
+import com.digitaltolk.translation.dto.TranslationSearchFilter.TagMatch;
+import com.digitaltolk.translation.dto.TranslationTagLink;
+import com.digitaltolk.translation.entity.Tag;
+import com.digitaltolk.translation.event.TranslationChangedEvent;
+import com.digitaltolk.translation.repository.TagRepository;
+import com.digitaltolk.translation.repository.TranslationRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TagIndexServiceTest {
+
+    @Mock
+    private TranslationRepository translationRepository;
+
+    @Mock
+    private TagRepository tagRepository;
+
+    @Test
+    void select_ShouldDeferToSql_WhenDisabled() {
+        // Given
+        TagIndexService service = new TagIndexService(translationRepository, tagRepository, false);
+
+        // When
+        service.load();
+
+        // Then
+        assertFalse(service.isReady());
+        assertEquals(Optional.empty(), service.select(TranslationSearchFilter.of(null, null, null, "mobile")));
+        assertEquals(Optional.empty(), service.countsByTag(null));
+        verifyNoInteractions(translationRepository, tagRepository);
+    }
+
+    @Test
+    void load_ShouldKeepDeferringToSql_WhenItFails() {
+        // Given
+        TagIndexService service = new TagIndexService(translationRepository, tagRepository, true);
+        when(translationRepository.findDistinctLocales()).thenThrow(new RuntimeException("Connection reset"));
+
+        // When
+        service.load();
+        service.onTranslationChanged(new TranslationChangedEvent(TranslationChangedEvent.ChangeType.UPDATED, 4L,
+            "welcome.title", "en", "welcome.title", "en"));
+
+        // Then
+        assertFalse(service.isReady());
+        verify(translationRepository, never()).findTagLinksByIds(any());
+    }
+
+    @Test
+    void load_ShouldApplyWritesCommittedWhileLoading() {
+        // Given
+        TagIndexService service = new TagIndexService(translationRepository, tagRepository, true);
+        when(translationRepository.findDistinctLocales()).thenReturn(List.of("en"));
+        when(translationRepository.findTagLinksByLocale("en")).thenReturn(List.of());
+        when(translationRepository.findIdsByLocale("en")).thenAnswer(invocation -> {
+            service.onTranslationChanged(new TranslationChangedEvent(TranslationChangedEvent.ChangeType.UPDATED, 1L,
+                "welcome.title", "en", "welcome.title", "en"));
+            return List.of(1L);
+        });
+        when(translationRepository.findTagLinksByIds(List.of(1L))).thenReturn(List.of(new TranslationTagLink(1L, 2L)));
+        when(translationRepository.findIdsByIdIn(List.of(1L))).thenReturn(List.of(1L));
+        when(tagRepository.findByNameIn(List.of("mobile"))).thenReturn(List.of(tag(2L, "mobile")));
+
+        // When
+        service.load();
+
+        // Then
+        assertTrue(service.isReady());
+        assertArrayEquals(new long[]{1}, selected(service, List.of("mobile"), TagMatch.ANY, null));
+    }
+
+    @Test
+    void select_ShouldAnswerTagFilters_WhenLoaded() {
+        // Given
+        TagIndexService service = loadedService();
+        when(tagRepository.findByNameIn(List.of("mobile"))).thenReturn(List.of(tag(2L, "mobile")));
+        when(tagRepository.findByNameIn(List.of("mobile", "web")))
+            .thenReturn(List.of(tag(1L, "web"), tag(2L, "mobile")));
+        when(tagRepository.findByNameIn(List.of("mobile", "tablet"))).thenReturn(List.of(tag(2L, "mobile")));
+
+        // When / Then
+        assertArrayEquals(new long[]{2, 3}, selected(service, List.of("mobile"), TagMatch.ANY, null));
+        assertArrayEquals(new long[]{1, 2, 3}, selected(service, List.of("web", "mobile"), TagMatch.ANY, null));
+        assertArrayEquals(new long[]{3}, selected(service, List.of("web", "mobile"), TagMatch.ALL, null));
+        assertArrayEquals(new long[]{2, 3}, selected(service, List.of("mobile", "tablet"), TagMatch.ANY, null));
+        assertArrayEquals(new long[0], selected(service, List.of("mobile", "tablet"), TagMatch.ALL, null));
+        assertArrayEquals(new long[]{1, 4}, selected(service, null, TagMatch.ANY, List.of("mobile")));
+    }
+
+    @Test
+    void select_ShouldLeaveFiltersWithoutTagsToOthers() {
+        // Given
+        TagIndexService service = loadedService();
+
+        // When / Then
+        assertEquals(Optional.empty(), service.select(TranslationSearchFilter.of("welcome", null, "en", null)));
+        verifyNoInteractions(tagRepository);
+    }
+
+    @Test
+    void countsByTag_ShouldCountByName() {
+        // Given
+        TagIndexService service = loadedService();
+        when(tagRepository.findAllById(Set.of(1L, 2L))).thenReturn(List.of(tag(1L, "web"), tag(2L, "mobile")));
+
+        // When / Then
+        assertEquals(Map.of("web", 2L, "mobile", 2L), service.countsByTag(null).orElseThrow());
+    }
+
+    @Test
+    void onTranslationChanged_ShouldApplyCommittedTags() {
+        // Given
+        TagIndexService service = loadedService();
+        when(translationRepository.findTagLinksByIds(List.of(4L))).thenReturn(List.of(new TranslationTagLink(4L, 2L)));
+        when(translationRepository.findIdsByIdIn(List.of(4L))).thenReturn(List.of(4L));
+        when(translationRepository.findTagLinksByIds(List.of(3L))).thenReturn(List.of());
+        when(translationRepository.findIdsByIdIn(List.of(3L))).thenReturn(List.of());
+        when(tagRepository.findByNameIn(List.of("mobile"))).thenReturn(List.of(tag(2L, "mobile")));
+
+        // When translation 4 was tagged mobile and translation 3 deleted
+        service.onTranslationChanged(new TranslationChangedEvent(TranslationChangedEvent.ChangeType.UPDATED, 4L,
+            "welcome.title", "en", "welcome.title", "en"));
+        service.onTranslationChanged(new TranslationChangedEvent(TranslationChangedEvent.ChangeType.DELETED, 3L,
+            "button.submit", "en", "button.submit", "en"));
+
+        // Then
+        assertArrayEquals(new long[]{2, 4}, selected(service, List.of("mobile"), TagMatch.ANY, null));
+        assertArrayEquals(new long[]{1, 2, 4}, selected(service, null, TagMatch.ANY, List.of("tablet")));
+    }
+
+    private static long[] selected(TagIndexService service, List<String> tags, TagMatch tagMatch,
+                                   List<String> excludedTags) {
+        return service.select(new TranslationSearchFilter(null, null, false, null, tags, tagMatch, excludedTags))
+            .orElseThrow()
+            .toArray();
+    }
+
+    private static Tag tag(long id, String name) {
+        Tag tag = new Tag(name, null);
+        tag.setId(id);
+        return tag;
+    }
+
+    private TagIndexService loadedService() {
+        TagIndexService service = new TagIndexService(translationRepository, tagRepository, true);
+        when(translationRepository.findDistinctLocales()).thenReturn(List.of("en", "fr"));
+        when(translationRepository.findTagLinksByLocale("en")).thenReturn(List.of(
+            new TranslationTagLink(1L, 1L), new TranslationTagLink(3L, 1L), new TranslationTagLink(3L, 2L)));
+        when(translationRepository.findTagLinksByLocale("fr")).thenReturn(List.of(new TranslationTagLink(2L, 2L)));
+        when(translationRepository.findIdsByLocale("en")).thenReturn(List.of(1L, 3L, 4L));
+        when(translationRepository.findIdsByLocale("fr")).thenReturn(List.of(2L));
+        service.load();
+        assertTrue(service.isReady());
+        return service;
+    }
+}
@@ -0,0 +1,73 @@
+package com.digitaltolk.translation.service;
+
+import com.digitaltolk.translation.entity.Translation;
+import com.digitaltolk.translation.event.TranslationChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class TranslationCacheInvalidatorTest {
+
+    private CacheManager cacheManager;
+    private TranslationCacheInvalidator invalidator;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new ConcurrentMapCacheManager("translationsById", "localeCatalogs", "exportSnapshots",
+            "binaryExportSnapshots");
+        invalidator = new TranslationCacheInvalidator(cacheManager, new ExportSnapshotRefresher(cacheManager,
+            mock(TranslationExportService.class), false, Duration.ofSeconds(30)));
+        for (String cacheName : List.of("localeCatalogs", "exportSnapshots", "binaryExportSnapshots")) {
+            cacheManager.getCache(cacheName).put("en", Map.of());
+            cacheManager.getCache(cacheName).put("fr", Map.of());
+        }
+        cacheManager.getCache("translationsById").put(1L, "one");
+        cacheManager.getCache("translationsById").put(2L, "two");
+    }
+
+    @Test
+    void onTranslationChanged_ShouldKeepOtherLocalesAndIdsCached() {
+        // Given
+        Translation translation = new Translation("welcome.message", "fr", "Bienvenue");
+        translation.setId(1L);
+
+        // When
+        invalidator.onTranslationChanged(TranslationChangedEvent.updated("welcome.message", "fr", translation));
+
+        // Then
+        for (String cacheName : TranslationCacheInvalidator.LOCALE_CACHES) {
+            assertNull(cacheManager.getCache(cacheName).get("fr"));
+            assertNotNull(cacheManager.getCache(cacheName).get("en"));
+        }
+        assertNull(cacheManager.getCache("translationsById").get(1L));
+        assertNotNull(cacheManager.getCache("translationsById").get(2L));
+        // Patched by LocaleCatalogPatcher instead
+        assertNotNull(cacheManager.getCache("localeCatalogs").get("fr"));
+        assertNotNull(cacheManager.getCache("exportSnapshots").get("fr"));
+    }
+
+    @Test
+    void onTranslationChanged_ShouldEvictBothLocales_WhenTranslationMoves() {
+        // Given
+        Translation translation = new Translation("welcome.message", "fr", "Bienvenue");
+        translation.setId(2L);
+
+        // When
+        invalidator.onTranslationChanged(TranslationChangedEvent.updated("welcome.message", "en", translation));
+
+        // Then
+        for (String cacheName : TranslationCacheInvalidator.LOCALE_CACHES) {
+            assertNull(cacheManager.getCache(cacheName).get("en"));
+            assertNull(cacheManager.getCache(cacheName).get("fr"));
+        }
+        assertNotNull(cacheManager.getCache("translationsById").get(1L));
+    }
+}
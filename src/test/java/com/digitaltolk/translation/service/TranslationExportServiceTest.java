@@ -0,0 +1,268 @@
+package com.digitaltolk.translation.service;
+
+import com.digitaltolk.translation.dto.TranslationDeltaDto;
+import com.digitaltolk.translation.dto.TranslationEntry;
+import com.digitaltolk.translation.entity.Translation;
+import com.digitaltolk.translation.export.ExportSnapshot;
+import com.digitaltolk.translation.export.SnapshotFileStore;
+import com.digitaltolk.translation.repository.TranslationRepository;
+import com.digitaltolk.translation.repository.TranslationTombstoneRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TranslationExportServiceTest {
+
+    @Mock
+    private TranslationRepository translationRepository;
+
+    @Mock
+    private TranslationTombstoneRepository tombstoneRepository;
+
+    @Mock
+    private CatalogVersionService catalogVersionService;
+
+    private TranslationExportService translationExportService;
+
+    @BeforeEach
+    void setUp() {
+        translationExportService = new TranslationExportService(translationRepository, tombstoneRepository,
+            new ObjectMapper(), new SnapshotFileStore(false, ""), catalogVersionService, 5000,
+            Duration.ofDays(30));
+    }
+
+    @Test
+    void writeTranslationsForLocale_ShouldWriteJsonObject() throws Exception {
+        // Given
+        when(translationRepository.streamEntriesByLocale("en")).thenReturn(Stream.of(
+            new TranslationEntry("button.submit", "Submit"),
+            new TranslationEntry("welcome.message", "Say \"hi\"")
+        ));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        translationExportService.writeTranslationsForLocale("en", out);
+
+        // Then
+        assertEquals("{\"button.submit\":\"Submit\",\"welcome.message\":\"Say \\\"hi\\\"\"}",
+            out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void writeTranslationsForLocale_ShouldKeepFirstOfDuplicateKeys() throws Exception {
+        // Given
+        when(translationRepository.streamEntriesByLocale("en")).thenReturn(Stream.of(
+            new TranslationEntry("welcome.message", "First"),
+            new TranslationEntry("welcome.message", "Second")
+        ));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        translationExportService.writeTranslationsForLocale("en", out);
+
+        // Then
+        assertEquals("{\"welcome.message\":\"First\"}", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void writeTranslationsForLocale_ShouldWriteEmptyObject_WhenLocaleHasNoRows() throws Exception {
+        // Given
+        when(translationRepository.streamEntriesByLocale("de")).thenReturn(Stream.empty());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        translationExportService.writeTranslationsForLocale("de", out);
+
+        // Then
+        assertEquals("{}", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void getExportSnapshot_ShouldSerializeCatalogOnce() {
+        // Given
+        when(translationRepository.streamEntriesByLocale("en")).thenReturn(Stream.of(
+            new TranslationEntry("welcome.message", "Welcome!")
+        ));
+
+        // When
+        ExportSnapshot snapshot = translationExportService.getExportSnapshot("en");
+
+        // Then
+        assertEquals("{\"welcome.message\":\"Welcome!\"}", new String(snapshot.getBody(), StandardCharsets.UTF_8));
+        assertNotNull(snapshot.getEtag());
+        assertTrue(snapshot.getGzipBody().length > 0);
+    }
+
+    @Test
+    void buildExportSnapshot_ShouldMatchPatchedCatalogByteForByte_WhateverTheDatabaseCollation() {
+        // Given rows in the order a case- and punctuation-insensitive collation returns them
+        when(translationRepository.streamEntriesByLocale("en")).thenReturn(Stream.of(
+            new TranslationEntry("button.submit", "Submit"),
+            new TranslationEntry("Button.title", "Buttons"),
+            new TranslationEntry("button_bar.label", "Bar"),
+            new TranslationEntry("button-group.label", "Group")
+        ));
+        Map<String, String> patched = Map.of("button_bar.label", "Bar", "button-group.label", "Group",
+            "Button.title", "Buttons", "button.submit", "Submit");
+
+        // When
+        ExportSnapshot rebuilt = translationExportService.buildExportSnapshot("en");
+        ExportSnapshot fromCatalog = translationExportService.buildExportSnapshot(patched, System.currentTimeMillis());
+
+        // Then
+        assertArrayEquals(rebuilt.getBody(), fromCatalog.getBody());
+        assertEquals(rebuilt.getHash(), fromCatalog.getHash());
+        assertEquals("{\"Button.title\":\"Buttons\",\"button-group.label\":\"Group\",\"button.submit\":\"Submit\","
+            + "\"button_bar.label\":\"Bar\"}", new String(rebuilt.getBody(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void getExportSnapshot_ShouldReuseStoredSnapshot_WhenCatalogVersionIsUnchanged(@TempDir Path snapshotDir) {
+        // Given
+        TranslationExportService storingService = new TranslationExportService(translationRepository, tombstoneRepository,
+            new ObjectMapper(), new SnapshotFileStore(true, snapshotDir.toString()), catalogVersionService, 5000,
+            Duration.ofDays(30));
+        when(catalogVersionService.getSnapshotKey("en")).thenReturn(Optional.of("1700000000000-1"));
+        when(translationRepository.streamEntriesByLocale("en")).thenReturn(Stream.of(
+            new TranslationEntry("welcome.message", "Welcome!")
+        ));
+        ExportSnapshot built = storingService.getExportSnapshot("en");
+
+        // When
+        ExportSnapshot reloaded = storingService.getExportSnapshot("en");
+
+        // Then
+        verify(translationRepository, times(1)).streamEntriesByLocale("en");
+        assertEquals(built.getEtag(), reloaded.getEtag());
+        assertNotNull(reloaded.getFile(false));
+        assertEquals("{\"welcome.message\":\"Welcome!\"}", new String(reloaded.getBody(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void getExportSnapshot_ShouldRebuild_WhenCatalogVersionChanged(@TempDir Path snapshotDir) {
+        // Given
+        TranslationExportService storingService = new TranslationExportService(translationRepository, tombstoneRepository,
+            new ObjectMapper(), new SnapshotFileStore(true, snapshotDir.toString()), catalogVersionService, 5000,
+            Duration.ofDays(30));
+        when(catalogVersionService.getSnapshotKey("en"))
+            .thenReturn(Optional.of("1700000000000-1"))
+            .thenReturn(Optional.of("1700000000000-2"));
+        when(translationRepository.streamEntriesByLocale("en")).thenAnswer(invocation -> Stream.empty());
+        storingService.getExportSnapshot("en");
+
+        // When
+        storingService.getExportSnapshot("en");
+
+        // Then
+        verify(translationRepository, times(2)).streamEntriesByLocale("en");
+    }
+
+    @Test
+    void getExportSnapshot_ShouldNotStore_WhenLocaleHasNoVersionYet(@TempDir Path snapshotDir) {
+        // Given
+        SnapshotFileStore store = new SnapshotFileStore(true, snapshotDir.toString());
+        TranslationExportService storingService = new TranslationExportService(translationRepository, tombstoneRepository,
+            new ObjectMapper(), store, catalogVersionService, 5000,
+            Duration.ofDays(30));
+        when(catalogVersionService.getSnapshotKey("en")).thenReturn(Optional.empty());
+        when(translationRepository.streamEntriesByLocale("en")).thenReturn(Stream.empty());
+
+        // When
+        ExportSnapshot snapshot = storingService.getExportSnapshot("en");
+
+        // Then
+        assertNull(snapshot.getFile(false));
+        assertTrue(store.storedLocales(TranslationExportService.JSON_FORMAT).isEmpty());
+    }
+
+    @Test
+    void getTranslationDelta_ShouldReturnUpsertsAndDeletes() {
+        // Given
+        when(translationRepository.findByLocaleChangedSince(eq("en"), any(LocalDateTime.class))).thenReturn(List.of(
+            new Translation("welcome.message", "en", "Welcome back!")
+        ));
+        when(tombstoneRepository.findDeletedKeysSince(eq("en"), any(LocalDateTime.class)))
+            .thenReturn(List.of("button.legacy", "welcome.message"));
+        when(translationRepository.findExistingKeys(eq("en"), anyCollection())).thenReturn(List.of());
+
+        long since = System.currentTimeMillis() - 60_000;
+
+        // When
+        TranslationDeltaDto delta = translationExportService.getTranslationDelta("en", since);
+
+        // Then
+        assertFalse(delta.isFull());
+        assertEquals("Welcome back!", delta.getUpserts().get("welcome.message"));
+        assertEquals(List.of("button.legacy"), delta.getDeletes());
+        assertTrue(delta.getCursor() >= since);
+    }
+
+    @Test
+    void getTranslationDelta_ShouldNotDeleteKeysThatStillExist() {
+        // Given
+        when(translationRepository.findByLocaleChangedSince(eq("en"), any(LocalDateTime.class))).thenReturn(List.of());
+        when(tombstoneRepository.findDeletedKeysSince(eq("en"), any(LocalDateTime.class)))
+            .thenReturn(List.of("button.submit"));
+        when(translationRepository.findExistingKeys(eq("en"), anyCollection())).thenReturn(List.of("button.submit"));
+
+        // When
+        TranslationDeltaDto delta = translationExportService.getTranslationDelta("en",
+            System.currentTimeMillis() - 60_000);
+
+        // Then
+        assertTrue(delta.getUpserts().isEmpty());
+        assertTrue(delta.getDeletes().isEmpty());
+    }
+
+    @Test
+    void getTranslationDelta_ShouldReturnFullCatalog_WhenCursorIsOlderThanTombstoneRetention() {
+        // Given
+        when(translationRepository.streamEntriesByLocale("en")).thenReturn(Stream.of(
+            new TranslationEntry("welcome.message", "Welcome!"),
+            new TranslationEntry("button.submit", "Submit")
+        ));
+        long since = System.currentTimeMillis() - Duration.ofDays(31).toMillis();
+
+        // When
+        TranslationDeltaDto delta = translationExportService.getTranslationDelta("en", since);
+
+        // Then
+        assertTrue(delta.isFull());
+        assertEquals(List.of("button.submit", "welcome.message"), List.copyOf(delta.getUpserts().keySet()));
+        assertTrue(delta.getDeletes().isEmpty());
+        assertTrue(delta.getCursor() > since);
+        verifyNoInteractions(tombstoneRepository);
+    }
+
+    @Test
+    void purgeTombstones_ShouldForgetDeletesOlderThanRetention() {
+        // Given
+        LocalDateTime before = LocalDateTime.now().minusDays(30);
+
+        // When
+        translationExportService.purgeTombstones();
+
+        // Then
+        verify(tombstoneRepository).deleteTombstonesBefore(argThat(cutoff ->
+            !cutoff.isBefore(before) && cutoff.isBefore(before.plusMinutes(1))));
+    }
+}
@@ -0,0 +1,175 @@
+package com.digitaltolk.translation.service;
+
+import com.digitaltolk.translation.dto.TranslationSearchFilter;
+import com.digitaltolk.translation.dto.TranslationSearchFilter.TagMatch;
+import com.digitaltolk.translation.dto.TranslationSearchRow;
+import com.digitaltolk.translation.dto.TranslationTagLink;
+import com.digitaltolk.translation.entity.Tag;
+import com.digitaltolk.translation.event.TranslationChangedEvent;
+import com.digitaltolk.translation.repository.TagRepository;
+import com.digitaltolk.translation.repository.TranslationRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TranslationSearchIndexServiceTest {
+
+    @Mock
+    private TranslationRepository translationRepository;
+
+    @Mock
+    private TagRepository tagRepository;
+
+    @Test
+    void search_ShouldDeferToSql_WhenDisabled() {
+        // Given
+        TranslationSearchIndexService service = new TranslationSearchIndexService(translationRepository,
+            tagRepository, false);
+
+        // When
+        service.load();
+
+        // Then
+        assertFalse(service.isReady());
+        assertEquals(Optional.empty(), service.search(TranslationSearchFilter.of("welcome", null, null, null)));
+        verifyNoInteractions(translationRepository, tagRepository);
+    }
+
+    @Test
+    void load_ShouldKeepDeferringToSql_WhenItFails() {
+        // Given
+        TranslationSearchIndexService service = new TranslationSearchIndexService(translationRepository,
+            tagRepository, true);
+        when(translationRepository.findDistinctLocales()).thenThrow(new RuntimeException("Connection reset"));
+
+        // When
+        service.load();
+        service.onTranslationChanged(new TranslationChangedEvent(TranslationChangedEvent.ChangeType.UPDATED, 1L,
+            "welcome.message", "en", "welcome.message", "en"));
+
+        // Then
+        assertFalse(service.isReady());
+        assertEquals(Optional.empty(), service.search(TranslationSearchFilter.of("welcome", null, null, null)));
+        verify(translationRepository, never()).findSearchRowsByIds(any());
+    }
+
+    @Test
+    void search_ShouldAnswerFromIndex_WhenLoaded() {
+        // Given
+        TranslationSearchIndexService service = loadedService();
+        Tag web = new Tag("web", null);
+        web.setId(1L);
+        Tag mobile = new Tag("mobile", null);
+        mobile.setId(2L);
+        when(tagRepository.findByNameIn(List.of("mobile"))).thenReturn(List.of(mobile));
+        when(tagRepository.findByNameIn(List.of("tablet"))).thenReturn(List.of());
+        when(tagRepository.findByNameIn(List.of("mobile", "web"))).thenReturn(List.of(web, mobile));
+        when(tagRepository.findByNameIn(List.of("mobile", "tablet"))).thenReturn(List.of(mobile));
+
+        // When / Then
+        assertArrayEquals(new long[]{1, 2},
+            service.search(TranslationSearchFilter.of("welcome", null, null, null)).orElseThrow());
+        assertArrayEquals(new long[]{2},
+            service.search(TranslationSearchFilter.of(null, "Bienvenue", "fr", "mobile")).orElseThrow());
+        assertArrayEquals(new long[0],
+            service.search(TranslationSearchFilter.of("welcome", null, null, "tablet")).orElseThrow());
+        assertArrayEquals(new long[]{1, 2},
+            service.search(tagged(List.of("web", "mobile"), TagMatch.ANY)).orElseThrow());
+        assertArrayEquals(new long[0], service.search(tagged(List.of("web", "mobile"), TagMatch.ALL)).orElseThrow());
+        assertArrayEquals(new long[]{2},
+            service.search(tagged(List.of("mobile", "tablet"), TagMatch.ANY)).orElseThrow());
+        assertArrayEquals(new long[0], service.search(tagged(List.of("mobile", "tablet"), TagMatch.ALL)).orElseThrow());
+    }
+
+    @Test
+    void search_ShouldDeferToSql_WhenPatternHasLikeWildcards() {
+        // Given
+        TranslationSearchIndexService service = loadedService();
+
+        // When / Then
+        assertEquals(Optional.empty(), service.search(TranslationSearchFilter.of("welcome_", null, null, null)));
+        assertEquals(Optional.empty(), service.search(TranslationSearchFilter.of(null, "100%", null, null)));
+        assertEquals(Optional.empty(), service.search(TranslationSearchFilter.of(null, "a\\b", null, null)));
+    }
+
+    @Test
+    void search_ShouldDeferToSql_WhenTagsAreExcluded() {
+        // Given
+        TranslationSearchIndexService service = loadedService();
+
+        // When / Then
+        assertEquals(Optional.empty(), service.search(new TranslationSearchFilter("welcome", null, false, null, null,
+            null, List.of("mobile"))));
+    }
+
+    @Test
+    void onTranslationChanged_ShouldApplyCommittedState() {
+        // Given
+        TranslationSearchIndexService service = loadedService();
+        when(translationRepository.findTagLinksByIds(List.of(1L)))
+            .thenReturn(List.of(new TranslationTagLink(1L, 1L)));
+        when(translationRepository.findSearchRowsByIds(List.of(1L)))
+            .thenReturn(List.of(new TranslationSearchRow(1L, "greeting.title", "en", "Hello")));
+        when(translationRepository.findTagLinksByIds(List.of(2L))).thenReturn(List.of());
+        when(translationRepository.findSearchRowsByIds(List.of(2L))).thenReturn(List.of());
+
+        // When translation 1 was updated and translation 2 deleted
+        service.onTranslationChanged(new TranslationChangedEvent(TranslationChangedEvent.ChangeType.UPDATED, 1L,
+            "welcome.message", "en", "greeting.title", "en"));
+        service.onTranslationChanged(new TranslationChangedEvent(TranslationChangedEvent.ChangeType.DELETED, 2L,
+            "welcome.message", "fr", "welcome.message", "fr"));
+
+        // Then
+        assertArrayEquals(new long[0],
+            service.search(TranslationSearchFilter.of("welcome", null, null, null)).orElseThrow());
+        assertArrayEquals(new long[]{1},
+            service.search(TranslationSearchFilter.of("greeting", "Hello", null, null)).orElseThrow());
+    }
+
+    @Test
+    void compact_ShouldKeepOnlyCurrentVersions() {
+        // Given translation 1 was re-read once, leaving its first version retired
+        TranslationSearchIndexService service = loadedService();
+        when(translationRepository.findTagLinksByIds(List.of(1L))).thenReturn(List.of());
+        when(translationRepository.findSearchRowsByIds(List.of(1L)))
+            .thenReturn(List.of(new TranslationSearchRow(1L, "greeting.title", "en", "Hello")));
+        service.onTranslationChanged(new TranslationChangedEvent(TranslationChangedEvent.ChangeType.UPDATED, 1L,
+            "welcome.message", "en", "greeting.title", "en"));
+
+        // When
+        service.compact();
+
+        // Then
+        assertArrayEquals(new long[]{2},
+            service.search(TranslationSearchFilter.of("welcome", null, null, null)).orElseThrow());
+        assertArrayEquals(new long[]{1},
+            service.search(TranslationSearchFilter.of("greeting", "Hello", "en", null)).orElseThrow());
+    }
+
+    private static TranslationSearchFilter tagged(List<String> tags, TagMatch tagMatch) {
+        return new TranslationSearchFilter(null, null, false, null, tags, tagMatch);
+    }
+
+    private TranslationSearchIndexService loadedService() {
+        TranslationSearchIndexService service = new TranslationSearchIndexService(translationRepository,
+            tagRepository, true);
+        when(translationRepository.findDistinctLocales()).thenReturn(List.of("en", "fr"));
+        when(translationRepository.findTagLinksByLocale("en")).thenReturn(List.of(new TranslationTagLink(1L, 1L)));
+        when(translationRepository.findTagLinksByLocale("fr")).thenReturn(List.of(new TranslationTagLink(2L, 2L)));
+        when(translationRepository.findSearchRowsByLocale("en")).thenReturn(List.of(
+            new TranslationSearchRow(1L, "welcome.message", "en", "Welcome to our application")));
+        when(translationRepository.findSearchRowsByLocale("fr")).thenReturn(List.of(
+            new TranslationSearchRow(2L, "welcome.message", "fr", "Bienvenue dans notre application")));
+        service.load();
+        assertTrue(service.isReady());
+        return service;
+    }
+}
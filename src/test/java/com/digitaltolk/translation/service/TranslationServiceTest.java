@@ -1,20 +1,35 @@
 package com.digitaltolk.translation.service;
 
+import com.digitaltolk.translation.dto.SearchCursor;
 import com.digitaltolk.translation.dto.TranslationDto;
+import com.digitaltolk.translation.dto.TranslationEntry;
+import com.digitaltolk.translation.dto.TranslationSearchFilter;
+import com.digitaltolk.translation.dto.TranslationSearchSliceDto;
+import com.digitaltolk.translation.dto.TranslationSearchSliceDto.Total;
 import com.digitaltolk.translation.entity.Tag;
 import com.digitaltolk.translation.entity.Translation;
+import com.digitaltolk.translation.entity.TranslationTombstone;
+import com.digitaltolk.translation.event.TranslationChangedEvent;
+import com.digitaltolk.translation.repository.JpqlTranslationSearch;
+import com.digitaltolk.translation.repository.PostgresTranslationSearch;
 import com.digitaltolk.translation.repository.TagRepository;
 import com.digitaltolk.translation.repository.TranslationRepository;
+import com.digitaltolk.translation.repository.TranslationTombstoneRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.util.*;
 
@@ -31,6 +46,39 @@ class TranslationServiceTest {
     @Mock
     private TagRepository tagRepository;
     
+    @Mock
+    private TranslationTombstoneRepository tombstoneRepository;
+    
+    @Mock
+    private CatalogVersionService catalogVersionService;
+    
+    @Mock
+    private ResidentCatalogService residentCatalog;
+    
+    @Mock
+    private TranslationSearchIndexService searchIndex;
+    
+    @Mock
+    private TagIndexService tagIndex;
+    
+    @Mock
+    private PostgresTranslationSearch databaseSearch;
+    
+    @Mock
+    private JpqlTranslationSearch jpqlSearch;
+    
+    @Mock
+    private ChangeLogService changeLog;
+    
+    @Spy
+    private SingleFlightLoader singleFlight = new SingleFlightLoader(new SimpleMeterRegistry());
+    
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    
     @InjectMocks
     private TranslationService translationService;
     
@@ -62,6 +110,8 @@ class TranslationServiceTest {
         TranslationDto result = translationService.createTranslation(translationDto);
         
         // Then
+        verify(catalogVersionService).bump("en");
+        verify(changeLog).record(any(TranslationChangedEvent.class));
         assertNotNull(result);
         assertEquals("welcome.message", result.getKey());
         assertEquals("en", result.getLocale());
@@ -99,46 +149,228 @@ class TranslationServiceTest {
     
     @Test
     void searchTranslations_ShouldReturnPagedResults() {
-        // Given - returns Page<Translation>
-        List<Translation> translations = List.of(translation);
-        Page<Translation> page = new PageImpl<>(translations, PageRequest.of(0, 10), 1);
-        when(translationRepository.searchTranslations(anyString(), isNull(), isNull(),isNull(), any(Pageable.class)))
-            .thenReturn(page);
+        // Given
+        TranslationSearchFilter filter = TranslationSearchFilter.of("welcome", null, null, null);
+        when(jpqlSearch.find(filter, Sort.unsorted(), 0L, 10)).thenReturn(List.of(1L));
+        when(translationRepository.findWithTagsByIdIn(List.of(1L))).thenReturn(List.of(translation));
         
         // When
         Page<TranslationDto> result = translationService.searchTranslations("welcome", null, null, null,PageRequest.of(0, 10));
         
-        // Then
+        // Then a short first page needs no count
         assertNotNull(result);
         assertEquals(1, result.getContent().size());
         assertEquals("welcome.message", result.getContent().get(0).getKey());
         assertEquals(1, result.getTotalElements());
         assertEquals(1, result.getTotalPages());
+        verify(jpqlSearch, never()).count(any());
     }
     
     @Test
     void searchTranslations_WithAllParameters_ShouldWork() {
         // Given
-        List<Translation> translations = List.of(translation);
-        Page<Translation> page = new PageImpl<>(translations, PageRequest.of(0, 10), 1);
-        when(translationRepository.searchTranslations("welcome", "Welcome","en", "mobile", PageRequest.of(0, 10)))
-            .thenReturn(page);
+        TranslationSearchFilter filter = TranslationSearchFilter.of("welcome", "Welcome", "en", "mobile");
+        when(jpqlSearch.find(filter, Sort.by("key"), 10L, 10)).thenReturn(List.of(1L));
+        when(translationRepository.findWithTagsByIdIn(List.of(1L))).thenReturn(List.of(translation));
         
         // When
-        Page<TranslationDto> result = translationService.searchTranslations("welcome", "Welcome","en", "mobile", PageRequest.of(0, 10));
+        Page<TranslationDto> result = translationService.searchTranslations("welcome", "Welcome","en", "mobile", PageRequest.of(1, 10, Sort.by("key")));
         
-        // Then
+        // Then the short last page gives the total without counting
         assertNotNull(result);
         assertEquals(1, result.getContent().size());
         assertEquals("welcome.message", result.getContent().get(0).getKey());
+        assertEquals(11, result.getTotalElements());
+    }
+    
+    @Test
+    void searchTranslations_ShouldPageIndexMatches_WhenIndexReady() {
+        // Given
+        Translation second = new Translation("welcome.title", "en", "Welcome");
+        second.setId(7L);
+        second.setTags(Set.of(tag));
+        when(searchIndex.search(TranslationSearchFilter.of("welcome", null, null, null)))
+            .thenReturn(Optional.of(new long[]{7, 9, 12}));
+        when(translationRepository.findWithTagsByIdIn(List.of(7L, 9L))).thenReturn(List.of(second));
+    
+        // When translation 9 was deleted after the index answered
+        Page<TranslationDto> result = translationService.searchTranslations("welcome", null, null, null, PageRequest.of(0, 2));
+    
+        // Then
+        assertEquals(List.of("welcome.title"), result.getContent().stream().map(TranslationDto::getKey).toList());
+        assertEquals(3, result.getTotalElements());
+        verifyNoInteractions(jpqlSearch);
+    }
+    
+    @Test
+    void searchTranslations_ShouldUseDatabaseSearch_WhenPostgres() {
+        // Given
+        TranslationSearchFilter filter = new TranslationSearchFilter(null, "welcome back", true, "en", null, null);
+        when(databaseSearch.isEnabled()).thenReturn(true);
+        when(databaseSearch.search(filter, PageRequest.of(0, 10)))
+            .thenReturn(new PageImpl<>(List.of(1L), PageRequest.of(0, 10), 1));
+        when(translationRepository.findWithTagsByIdIn(List.of(1L))).thenReturn(List.of(translation));
+        
+        // When
+        Page<TranslationDto> result = translationService.searchTranslations(filter, PageRequest.of(0, 10));
+        
+        // Then full-text queries skip the in-memory substring index
+        assertEquals("welcome.message", result.getContent().get(0).getKey());
+        assertEquals(1, result.getTotalElements());
+        verifyNoInteractions(searchIndex, jpqlSearch);
+    }
+    
+    @Test
+    void searchTranslationsAfter_ShouldSeekPastCursor_InIndexMatches() {
+        // Given
+        TranslationSearchFilter filter = TranslationSearchFilter.of("welcome", null, null, null);
+        Translation second = new Translation("welcome.title", "en", "Welcome");
+        second.setId(9L);
+        when(searchIndex.search(filter)).thenReturn(Optional.of(new long[]{1, 7, 9, 12}));
+        when(translationRepository.findWithTagsByIdIn(List.of(9L))).thenReturn(List.of(second));
+        
+        // When continuing after 7, or after 8, which was deleted since
+        TranslationSearchSliceDto afterSeven = translationService.searchTranslationsAfter(filter,
+            SearchCursor.afterId(7), 1, Total.APPROXIMATE);
+        TranslationSearchSliceDto afterEight = translationService.searchTranslationsAfter(filter,
+            SearchCursor.afterId(8), 1, Total.NONE);
+        
+        // Then the index counts its matches exactly at no cost
+        assertEquals(List.of("welcome.title"), afterSeven.getContent().stream().map(TranslationDto::getKey).toList());
+        assertEquals(9L, SearchCursor.decode(afterSeven.getNextCursor()).getId());
+        assertEquals(afterSeven.getNextCursor(), afterEight.getNextCursor());
+        assertEquals(4L, afterSeven.getTotalElements());
+        assertFalse(afterSeven.getTotalApproximate());
+        assertNull(afterEight.getTotalElements());
+    }
+    
+    @Test
+    void searchTranslationsAfter_ShouldFetchOneRowPastPage_FromSql() {
+        // Given
+        TranslationSearchFilter filter = TranslationSearchFilter.of(null, "Welcome", "en", null);
+        when(searchIndex.search(filter)).thenReturn(Optional.empty());
+        when(jpqlSearch.findAfter(filter, 1L, 2)).thenReturn(List.of(7L));
+        Translation second = new Translation("welcome.title", "en", "Welcome");
+        second.setId(7L);
+        when(translationRepository.findWithTagsByIdIn(List.of(7L))).thenReturn(List.of(second));
+        
+        // When
+        TranslationSearchSliceDto result = translationService.searchTranslationsAfter(filter,
+            SearchCursor.afterId(1), 1, Total.NONE);
+        
+        // Then the last page has no cursor
+        assertEquals(List.of("welcome.title"), result.getContent().stream().map(TranslationDto::getKey).toList());
+        assertFalse(result.isHasNext());
+        assertNull(result.getNextCursor());
+        verify(jpqlSearch, never()).count(any());
+    }
+    
+    @Test
+    void searchTranslationsSlice_ShouldNotCount_UnlessTotalRequested() {
+        // Given
+        TranslationSearchFilter filter = TranslationSearchFilter.of("welcome", null, null, null);
+        when(searchIndex.search(filter)).thenReturn(Optional.empty());
+        when(jpqlSearch.find(filter, Sort.unsorted(), 0L, 2)).thenReturn(List.of(1L, 4L));
+        when(translationRepository.findWithTagsByIdIn(List.of(1L))).thenReturn(List.of(translation));
+        when(jpqlSearch.count(filter)).thenReturn(3L);
+        
+        // When
+        TranslationSearchSliceDto countFree = translationService.searchTranslationsSlice(filter, PageRequest.of(0, 1),
+            Total.NONE);
+        TranslationSearchSliceDto approximate = translationService.searchTranslationsSlice(filter,
+            PageRequest.of(0, 1), Total.APPROXIMATE);
+        
+        // Then without statistics to estimate from, an approximate total is counted exactly
+        assertEquals("welcome.message", countFree.getContent().get(0).getKey());
+        assertTrue(countFree.isHasNext());
+        assertNull(countFree.getTotalElements());
+        assertEquals(3L, approximate.getTotalElements());
+        assertFalse(approximate.getTotalApproximate());
+        verify(jpqlSearch, times(1)).count(any());
+    }
+    
+    @Test
+    void searchTranslationsSlice_ShouldEstimateTotal_OnPostgres() {
+        // Given
+        TranslationSearchFilter filter = TranslationSearchFilter.of(null, "welcome", "en", null);
+        when(databaseSearch.isEnabled()).thenReturn(true);
+        when(searchIndex.search(filter)).thenReturn(Optional.empty());
+        when(databaseSearch.find(filter, 0L, 2)).thenReturn(List.of(1L));
+        when(databaseSearch.estimateCount(filter)).thenReturn(40L);
+        when(translationRepository.findWithTagsByIdIn(List.of(1L))).thenReturn(List.of(translation));
+        
+        // When
+        TranslationSearchSliceDto result = translationService.searchTranslationsSlice(filter, PageRequest.of(0, 1),
+            Total.APPROXIMATE);
+        
+        // Then
+        assertFalse(result.isHasNext());
+        assertEquals(40L, result.getTotalElements());
+        assertTrue(result.getTotalApproximate());
+        verify(databaseSearch, never()).count(any());
+        verifyNoInteractions(jpqlSearch);
     }
     
 
+    @Test
+    void searchTranslationsSlice_ShouldAnswerTagFilters_FromTagBitmaps() {
+        // Given
+        TranslationSearchFilter filter = new TranslationSearchFilter(null, null, false, null, List.of("mobile"), null,
+            List.of("web"));
+        when(tagIndex.select(filter)).thenReturn(Optional.of(Roaring64Bitmap.bitmapOf(1, 7, 9)));
+        when(translationRepository.findWithTagsByIdIn(List.of(1L, 7L))).thenReturn(List.of(translation));
+        
+        // When
+        TranslationSearchSliceDto result = translationService.searchTranslationsSlice(filter, PageRequest.of(0, 2),
+            Total.EXACT);
+        
+        // Then
+        assertEquals("welcome.message", result.getContent().get(0).getKey());
+        assertTrue(result.isHasNext());
+        assertEquals(3L, result.getTotalElements());
+        verifyNoInteractions(searchIndex, jpqlSearch);
+    }
+    
+    @Test
+    void searchTranslationsAfter_ShouldIntersectTagBitmaps_WithIndexMatches() {
+        // Given
+        TranslationSearchFilter filter = TranslationSearchFilter.of("welcome", null, null, "mobile");
+        when(tagIndex.select(filter)).thenReturn(Optional.of(Roaring64Bitmap.bitmapOf(1, 9, 12)));
+        when(searchIndex.search(filter.withoutTags())).thenReturn(Optional.of(new long[]{1, 7, 9}));
+        Translation second = new Translation("welcome.title", "en", "Welcome");
+        second.setId(9L);
+        when(translationRepository.findWithTagsByIdIn(List.of(9L))).thenReturn(List.of(second));
+        
+        // When
+        TranslationSearchSliceDto result = translationService.searchTranslationsAfter(filter, SearchCursor.afterId(1),
+            10, Total.EXACT);
+        
+        // Then
+        assertEquals(List.of("welcome.title"), result.getContent().stream().map(TranslationDto::getKey).toList());
+        assertEquals(2L, result.getTotalElements());
+        verifyNoInteractions(jpqlSearch);
+    }
+    
+    @Test
+    void countTranslationsByTag_ShouldCountFromTagBitmaps_OrFallBackToSql() {
+        // Given
+        TranslationSearchFilter all = TranslationSearchFilter.of(null, null, null, null);
+        TranslationSearchFilter english = TranslationSearchFilter.of(null, null, "en", null);
+        when(tagIndex.countsByTag(null)).thenReturn(Optional.of(Map.of("mobile", 4L, "web", 2L)));
+        when(searchIndex.search(english)).thenReturn(Optional.empty());
+        when(jpqlSearch.countByTag(english)).thenReturn(Map.of("mobile", 1L));
+        
+        // When / Then
+        assertEquals(Map.of("mobile", 4L, "web", 2L), translationService.countTranslationsByTag(all));
+        assertEquals(Map.of("mobile", 1L), translationService.countTranslationsByTag(english));
+        verify(jpqlSearch, never()).countByTag(all);
+    }
+    
     @Test
     void getTranslationsForLocale_ShouldReturnTranslationMap() {
         // Given
-        List<Translation> translations = List.of(translation);
-        when(translationRepository.findByLocaleOrderByKey("en")).thenReturn(translations);
+        List<TranslationEntry> translations = List.of(new TranslationEntry("welcome.message", "Welcome!"));
+        when(translationRepository.findEntriesByLocale("en")).thenReturn(translations);
         
         // When
         Map<String, String> result = translationService.getTranslationsForLocale("en");
@@ -149,6 +381,37 @@ class TranslationServiceTest {
         assertEquals("Welcome!", result.get("welcome.message"));
     }
     
+    @Test
+    void getTranslationEntry_ShouldReturnProjection() {
+        // Given
+        when(translationRepository.findEntryByKeyAndLocale("welcome.message", "en"))
+            .thenReturn(Optional.of(new TranslationEntry("welcome.message", "Welcome!")));
+        
+        // When
+        Optional<TranslationEntry> result = translationService.getTranslationEntry("welcome.message", "en");
+        
+        // Then
+        assertTrue(result.isPresent());
+        assertEquals("Welcome!", result.get().getContent());
+        verify(translationRepository, never()).findByKeyAndLocale(anyString(), anyString());
+    }
+    
+    @Test
+    void getTranslationEntry_ShouldUseResidentCatalog_WhenLoaded() {
+        // Given
+        when(residentCatalog.isReady()).thenReturn(true);
+        when(residentCatalog.get("welcome.message", "en")).thenReturn(Optional.of("Welcome!"));
+        
+        // When
+        Optional<TranslationEntry> result = translationService.getTranslationEntry("welcome.message", "en");
+        Optional<TranslationDto> missing = translationService.getTranslationByKeyAndLocale("welcome.message", "fr");
+        
+        // Then
+        assertEquals("Welcome!", result.orElseThrow().getContent());
+        assertTrue(missing.isEmpty());
+        verifyNoInteractions(translationRepository);
+    }
+    
     @Test
     void updateTranslation_ShouldUpdateExistingTranslation() {
         // Given
@@ -170,26 +433,77 @@ class TranslationServiceTest {
         verify(translationRepository).save(any(Translation.class));
     }
     
+    @Test
+    void updateTranslation_ShouldRecordTombstone_WhenKeyChanges() {
+        // Given
+        TranslationDto updateDto = new TranslationDto("welcome.title", "en", "Welcome!");
+        when(translationRepository.findById(1L)).thenReturn(Optional.of(translation));
+        when(translationRepository.save(any(Translation.class))).thenReturn(translation);
+        
+        // When
+        translationService.updateTranslation(1L, updateDto);
+        
+        // Then
+        verify(tombstoneRepository).save(argThat(tombstone ->
+            tombstone.getKey().equals("welcome.message") && tombstone.getLocale().equals("en")));
+        verify(eventPublisher).publishEvent(argThat((TranslationChangedEvent event) ->
+            event.getPreviousKey().equals("welcome.message") && event.getKey().equals("welcome.title")));
+    }
+    
+    @Test
+    void updateTranslation_ShouldBumpBothLocales_WhenLocaleChanges() {
+        // Given
+        TranslationDto updateDto = new TranslationDto("welcome.message", "fr", "Bienvenue !");
+        when(translationRepository.findById(1L)).thenReturn(Optional.of(translation));
+        when(translationRepository.save(any(Translation.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        
+        // When
+        translationService.updateTranslation(1L, updateDto);
+        
+        // Then
+        verify(catalogVersionService).bump(List.of("en", "fr"));
+    }
+    
+    @Test
+    void updateTranslation_ShouldNotRecordTombstone_WhenOnlyContentChanges() {
+        // Given
+        TranslationDto updateDto = new TranslationDto("welcome.message", "en", "Updated Welcome!");
+        when(translationRepository.findById(1L)).thenReturn(Optional.of(translation));
+        when(translationRepository.save(any(Translation.class))).thenReturn(translation);
+        
+        // When
+        translationService.updateTranslation(1L, updateDto);
+        
+        // Then
+        verify(tombstoneRepository, never()).save(any(TranslationTombstone.class));
+    }
+    
     @Test
     void deleteTranslation_ShouldDeleteWhenExists() {
         // Given
-        when(translationRepository.existsById(1L)).thenReturn(true);
+        when(translationRepository.findById(1L)).thenReturn(Optional.of(translation));
         
         // When
         assertDoesNotThrow(() -> translationService.deleteTranslation(1L));
         
         // Then
-        verify(translationRepository).deleteById(1L);
+        verify(translationRepository).delete(translation);
+        verify(catalogVersionService).bump("en");
+        verify(eventPublisher).publishEvent(argThat((TranslationChangedEvent event) ->
+            event.getType() == TranslationChangedEvent.ChangeType.DELETED && event.getAffectedLocales().contains("en")));
+        verify(tombstoneRepository).save(argThat(tombstone ->
+            tombstone.getKey().equals("welcome.message") && tombstone.getLocale().equals("en")));
     }
     
     @Test
     void deleteTranslation_ShouldThrowException_WhenNotExists() {
         // Given
-        when(translationRepository.existsById(1L)).thenReturn(false);
+        when(translationRepository.findById(1L)).thenReturn(Optional.empty());
         
         // When & Then
         assertThrows(RuntimeException.class, () -> translationService.deleteTranslation(1L));
-        verify(translationRepository, never()).deleteById(1L);
+        verify(translationRepository, never()).delete(any(Translation.class));
+        verify(tombstoneRepository, never()).save(any(TranslationTombstone.class));
     }
     
     @Test